@@ -0,0 +1,58 @@
+// Prueba de carga del modo headless con k6:
+//   k6 run loadtest/books.js
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=300 loadtest/books.js
+// Las peticiones por segundo se leen en la métrica http_reqs del resumen final, y
+// la fracción de respuestas 304 (ETag revalidado) en not_modified.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = Number(__ENV.VUS || 300);
+
+export const options = {
+    scenarios: {
+        listados: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<500'],
+    },
+};
+
+const etags = {};
+const notModified = new Rate('not_modified');
+
+// Reutiliza el ETag de la última respuesta de cada URL, como haría un cliente con caché
+function get(path) {
+    const headers = etags[path] ? { 'If-None-Match': etags[path] } : {};
+    const res = http.get(`${BASE_URL}${path}`, { headers, tags: { name: path.split('?')[0] } });
+    if (res.headers.Etag) {
+        etags[path] = res.headers.Etag;
+    }
+    check(res, { 'status 200 o 304': (r) => r.status === 200 || r.status === 304 });
+    notModified.add(res.status === 304);
+    return res;
+}
+
+export default function () {
+    const first = get('/api/books?size=20');
+    if (first.status === 200) {
+        const cursor = first.json('nextCursor');
+        if (cursor) {
+            get(`/api/books?after=${cursor}&size=20`);
+        }
+    }
+    get('/api/authors?size=20');
+    get('/api/books/top?limit=10');
+    get('/api/books/search?q=pride&limit=10');
+    get('/api/authors/alive-in/1850');
+}
@@ -0,0 +1,23 @@
+-- Tamaño y costo de filtrar por tema, para comparar antes y después de la
+-- migración V2 (diccionarios de temas e idiomas) sobre la misma copia del catálogo:
+--   mysql literalura < scripts/dictionary-storage.sql
+-- Antes de V2 la columna es book_subjects.subject; después, subject_id + subjects.
+
+SELECT table_name,
+       table_rows,
+       ROUND(data_length / 1024)  AS data_kib,
+       ROUND(index_length / 1024) AS index_kib
+FROM information_schema.tables
+WHERE table_schema = DATABASE()
+  AND table_name IN ('book_subjects', 'book_languages', 'subjects', 'languages')
+ORDER BY table_name;
+
+SET @subject = 'Fiction';
+SET @has_ids = (SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = 'book_subjects' AND column_name = 'subject_id');
+SET @query = IF(@has_ids > 0,
+    'EXPLAIN ANALYZE SELECT b.id FROM books b JOIN book_subjects bs ON bs.book_id = b.id JOIN subjects s ON s.id = bs.subject_id WHERE s.name = ? ORDER BY b.download_count DESC LIMIT 32',
+    'EXPLAIN ANALYZE SELECT b.id FROM books b JOIN book_subjects bs ON bs.book_id = b.id WHERE bs.subject = ? ORDER BY b.download_count DESC LIMIT 32');
+PREPARE filter_by_subject FROM @query;
+EXECUTE filter_by_subject USING @subject;
+DEALLOCATE PREPARE filter_by_subject;
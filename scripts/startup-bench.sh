@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Mide el arranque del modo consola: tiempo hasta que aparece el menú y RSS del
+# proceso en ese momento, para tres variantes:
+#   base      jar normal, perfil por defecto (ddl-auto=update, beans ansiosos)
+#   prod      jar normal, perfil prod (Flyway + validate, inicialización perezosa)
+#   aot-cds   jar procesado con AOT (-Pfast-start), perfil prod y archivo AppCDS
+#
+# Requiere las variables URL_DB, USERNAME_DB y PASSWORD_DB de una base accesible.
+# Uso: scripts/startup-bench.sh [repeticiones]
+set -euo pipefail
+
+RUNS="${1:-5}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup-bench"
+PROMPT="Ingrese una opción"
+TIMEOUT_S=120
+
+mkdir -p "$WORK"
+cd "$ROOT"
+
+build() {
+  local name="$1"; shift
+  ./mvnw -q -DskipTests "$@" clean package
+  rm -rf "$WORK/$name"
+  java -Djarmode=tools -jar target/liter-alura-*.jar extract --destination "$WORK/$name"
+}
+
+# Ejecuta una vez y escribe "<ms> <rss_kb>" al llegar al menú
+measure() {
+  local log="$WORK/run.log" fifo="$WORK/stdin"
+  rm -f "$fifo"; mkfifo "$fifo"
+  local start end pid rss
+  start=$(date +%s%N)
+  java "$@" < "$fifo" > "$log" 2>&1 &
+  pid=$!
+  exec 3> "$fifo"   # mantiene abierta la entrada para que el menú espere
+  local deadline=$(( $(date +%s) + TIMEOUT_S ))
+  until grep -q "$PROMPT" "$log" 2>/dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null || [ "$(date +%s)" -ge "$deadline" ]; then
+      echo "la aplicación no llegó al menú; ver $log" >&2
+      exec 3>&-; kill "$pid" 2>/dev/null || true
+      return 1
+    fi
+    sleep 0.01
+  done
+  end=$(date +%s%N)
+  rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+  exec 3>&-
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  echo "$(( (end - start) / 1000000 )) $rss"
+}
+
+report() {
+  local name="$1"; shift
+  local total_ms=0 total_rss=0 result
+  for _ in $(seq "$RUNS"); do
+    result=$(measure "$@")
+    total_ms=$(( total_ms + ${result% *} ))
+    total_rss=$(( total_rss + ${result#* } ))
+  done
+  printf "%-8s  menú en %6d ms  RSS %7d KB  (promedio de %d)\n" \
+    "$name" $(( total_ms / RUNS )) $(( total_rss / RUNS )) "$RUNS"
+}
+
+build plain
+build aot -Pfast-start
+
+# Corrida de entrenamiento: arranca el contexto, sale y vuelca las clases cargadas
+java -XX:ArchiveClassesAtExit="$WORK/aot/app.jsa" -Dspring.aot.enabled=true \
+     -Dspring.profiles.active=prod -Dspring.context.exit=onRefresh \
+     -jar "$WORK/aot/liter-alura-"*.jar > "$WORK/training.log" 2>&1 || true
+
+report base    -jar "$WORK/plain/liter-alura-"*.jar
+report prod    -Dspring.profiles.active=prod -jar "$WORK/plain/liter-alura-"*.jar
+report aot-cds -XX:SharedArchiveFile="$WORK/aot/app.jsa" -Dspring.aot.enabled=true \
+               -Dspring.profiles.active=prod -jar "$WORK/aot/liter-alura-"*.jar
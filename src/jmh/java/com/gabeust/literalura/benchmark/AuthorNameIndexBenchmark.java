@@ -0,0 +1,72 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.index.AuthorNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+/**
+ * Búsqueda aproximada de autores en el índice de trigramas, con nombres sintéticos
+ * "Apellido, Nombre" y consultas con errores de tipeo o en orden "Nombre Apellido".
+ * Los percentiles se obtienen del modo {@code SampleTime}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorNameIndexBenchmark {
+
+    private static final String[] SURNAMES = {"Cervantes", "Dickens", "Austen", "Tolstoy", "Zola", "Twain",
+            "Shelley", "Dostoyevsky", "Hugo", "Poe", "Wilde", "Conrad", "Melville", "Balzac", "Goethe", "Kafka"};
+    private static final String[] GIVEN = {"Miguel", "Charles", "Jane", "Leo", "Émile", "Mark", "Mary",
+            "Fyodor", "Victor", "Edgar", "Oscar", "Joseph", "Herman", "Honoré", "Johann", "Franz"};
+
+    @Param({"30000", "100000"})
+    int authors;
+
+    private AuthorNameIndex index;
+    private List<String> misspelled;
+    private List<String> reordered;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new AuthorNameIndex();
+        for (int id = 1; id <= authors; id++) {
+            String surname = SURNAMES[random.nextInt(SURNAMES.length)] + suffix(id);
+            index.add(id, surname + ", " + GIVEN[random.nextInt(GIVEN.length)]);
+        }
+        misspelled = List.of("Cervnates Miguel", "Dikens, Charles", "Tolstoi", "Dostoevsky Fyodor", "Melvile");
+        reordered = List.of("miguel cervantes", "charles dickens", "emile zola", "edgar allan poe", "franz kafka");
+    }
+
+    @Benchmark
+    public Object misspelled() {
+        return index.search(misspelled.get(next++ % misspelled.size()), 10);
+    }
+
+    @Benchmark
+    public Object reordered() {
+        return index.search(reordered.get(next++ % reordered.size()), 10);
+    }
+
+    /** Variante del apellido para que los nombres no se repitan. */
+    private static String suffix(int id) {
+        return id % 4 == 0 ? "" : "-" + Integer.toString(id, 36);
+    }
+}
@@ -0,0 +1,50 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.LiterAluraApplication;
+import com.gabeust.literalura.index.CatalogIndexer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Contexto de Spring para los benchmarks que necesitan la base de datos. Usa la
+ * misma configuración que la aplicación ({@code URL_DB}, {@code USERNAME_DB},
+ * {@code PASSWORD_DB}), sin menú, sin servidor HTTP y sin tareas en segundo plano.
+ * <p>
+ * Los benchmarks escriben y borran filas: deben apuntar a una base descartable.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Inicia el contexto y espera a que termine la carga inicial de los índices en
+     * memoria, para que no compita con la medición.
+     *
+     * @param properties propiedades adicionales con la forma {@code --nombre=valor}
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        // como argumentos, para que prevalezcan sobre application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--literalura.mode=benchmark",
+                "--spring.main.web-application-type=none",
+                "--literalura.snapshot.enabled=false",
+                "--literalura.refresh.enabled=false",
+                "--literalura.metrics.summary.enabled=false"));
+        arguments.addAll(List.of(properties));
+        ConfigurableApplicationContext context = SpringApplication.run(LiterAluraApplication.class,
+                arguments.toArray(String[]::new));
+        CatalogIndexer indexer = context.getBean(CatalogIndexer.class);
+        while (!indexer.isReady()) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return context;
+    }
+}
@@ -0,0 +1,106 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.repository.AuthorRepository;
+import com.gabeust.literalura.repository.BookRepository;
+import com.gabeust.literalura.service.BookIngestService;
+import com.gabeust.literalura.service.TermDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Ingesta de libros nuevos en la base de datos: el camino por lotes de
+ * {@link BookIngestService} frente a la copia del anterior, libro por libro
+ * ({@link LegacyBookIngest}). Cada operación guarda {@code books} libros con autores
+ * compartidos entre varios de ellos, como en una página de Gutendex, así que las
+ * filas por segundo son {@code books} dividido por el tiempo de la operación.
+ * <p>
+ * Requiere una base MySQL descartable (ver {@link BenchmarkDatabase}). Cada
+ * operación usa ids y autores nuevos; al terminar se borran las filas creadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BookIngestBenchmark {
+
+    /** Los ids sintéticos empiezan lejos de los del catálogo de Gutendex. */
+    private static final long FIRST_ID = 900_000_000L;
+    private static final String AUTHOR_PREFIX = "Benchmark ingesta";
+
+    @Param({"10000"})
+    int books;
+
+    private ConfigurableApplicationContext context;
+    private BookIngestService ingestService;
+    private LegacyBookIngest legacyIngest;
+    private JdbcTemplate jdbcTemplate;
+    private List<BookDTO> input;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start();
+        ingestService = context.getBean(BookIngestService.class);
+        legacyIngest = new LegacyBookIngest(context.getBean(BookRepository.class),
+                context.getBean(AuthorRepository.class),
+                context.getBean("subjectDictionary", TermDictionary.class),
+                context.getBean("languageDictionary", TermDictionary.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextInput() {
+        long firstId = FIRST_ID + (long) round * books;
+        input = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            long id = firstId + i;
+            // un autor cada cuatro libros, con temas repetidos entre libros
+            AuthorDTO author = new AuthorDTO(null, AUTHOR_PREFIX + " " + round + ", Autor " + i / 4, 1800, 1870);
+            input.add(new BookDTO(id, "Libro de ingesta " + id, List.of("Resumen del libro " + id),
+                    List.of(author), List.of("Tema " + i % 200 + " -- Ficción", "Fiction"), List.of("es"),
+                    (int) (id % 100_000)));
+        }
+        round++;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (String table : List.of("book_authors", "book_summaries", "book_subjects", "book_languages")) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE book_id >= ?", FIRST_ID);
+        }
+        jdbcTemplate.update("DELETE FROM books WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM author WHERE name LIKE ?", AUTHOR_PREFIX + "%");
+        context.close();
+    }
+
+    @Benchmark
+    public int batchIngest() {
+        return ingestService.saveAllIfNotExists(input);
+    }
+
+    @Benchmark
+    public List<BookDTO> perBookIngest() {
+        legacyIngest.saveAllIfNotExists(input);
+        return input;
+    }
+}
@@ -0,0 +1,163 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import com.gabeust.literalura.service.BookService;
+import com.gabeust.literalura.service.TermDictionary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Listado de libros guardados (opción 4 del menú y {@code GET /api/books}) con la
+ * paginación por clave de {@link BookService#findPage}, con 100, 10 000 y 1 000 000
+ * libros en la base. Las páginas se piden en distintas posiciones de la tabla.
+ * <p>
+ * Al preparar cada tamaño y al terminar se imprimen las sentencias SQL por página
+ * según las estadísticas de Hibernate; la asignación por página se obtiene con
+ * {@code -prof gc} ({@code gc.alloc.rate.norm}). Ambas deben quedar iguales para
+ * los tres tamaños.
+ * <p>
+ * Requiere una base MySQL descartable (ver {@link BenchmarkDatabase}). Los libros
+ * sintéticos se insertan por JDBC con ids desde {@link #FIRST_ID} y se conservan
+ * entre corridas, así que cada tamaño solo agrega los que faltan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookPageBenchmark {
+
+    static final long FIRST_ID = 1_000_000_000L;
+    private static final int PAGE_SIZE = 50;
+    private static final int CURSORS = 16;
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"100", "10000", "1000000"})
+    int stored;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private Statistics statistics;
+    private long[] cursors;
+    private int next;
+    private long pages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.start("--spring.jpa.properties.hibernate.generate_statistics=true");
+        bookService = context.getBean(BookService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        populate(context.getBean(JdbcTemplate.class),
+                context.getBean("subjectDictionary", TermDictionary.class),
+                context.getBean("languageDictionary", TermDictionary.class));
+
+        cursors = new long[CURSORS];
+        for (int i = 0; i < CURSORS; i++) {
+            // la última posición deja una página completa antes del final
+            cursors[i] = FIRST_ID - 1 + (long) i * Math.max(0, stored - PAGE_SIZE) / (CURSORS - 1);
+        }
+        statistics.clear();
+        for (long cursor : cursors) {
+            bookService.findPage(cursor, PAGE_SIZE);
+        }
+        System.out.printf("%n[%d libros] sentencias SQL por página: %.1f%n", stored,
+                statistics.getPrepareStatementCount() / (double) CURSORS);
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[%d libros] sentencias SQL por página durante la medición: %.2f%n", stored,
+                statistics.getPrepareStatementCount() / (double) Math.max(1, pages));
+        context.close();
+    }
+
+    @Benchmark
+    public KeysetPageDTO<BookDTO> keysetPage() {
+        pages++;
+        return bookService.findPage(cursors[next++ % CURSORS], PAGE_SIZE);
+    }
+
+    /**
+     * Inserta los libros sintéticos que falten hasta {@code stored}, cada uno con un
+     * resumen, dos temas, un idioma y un autor compartido con otros tres libros.
+     */
+    private void populate(JdbcTemplate jdbcTemplate, TermDictionary subjects, TermDictionary languages) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books WHERE id >= ?", Long.class, FIRST_ID);
+        if (existing != null && existing >= stored) {
+            return;
+        }
+        List<String> subjectNames = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            subjectNames.add("Tema " + i + " -- Ficción -- Siglo XIX");
+        }
+        subjects.ensure(subjectNames);
+        languages.ensure(List.of("es"));
+        int language = languages.idOf("es");
+
+        for (long from = existing == null ? 0 : existing; from < stored; from += INSERT_BATCH) {
+            List<Long> ids = new ArrayList<>(INSERT_BATCH);
+            for (long i = from; i < Math.min(stored, from + INSERT_BATCH); i++) {
+                ids.add(FIRST_ID + i);
+            }
+            List<Long> authors = ids.stream().filter(id -> (id - FIRST_ID) % 4 == 0).toList();
+            jdbcTemplate.batchUpdate("INSERT INTO author (id, name, birth_year, death_year, identity_key) VALUES (?, ?, 1800, 1870, ?)",
+                    authors, authors.size(), (ps, id) -> {
+                        String name = "Benchmark listado, Autor " + id;
+                        ps.setLong(1, id);
+                        ps.setString(2, name);
+                        ps.setString(3, name + "|1800|1870");
+                    });
+            jdbcTemplate.batchUpdate("INSERT INTO books (id, title, download_count) VALUES (?, ?, ?)",
+                    ids, ids.size(), (ps, id) -> {
+                        ps.setLong(1, id);
+                        ps.setString(2, "Título del libro número " + id);
+                        ps.setInt(3, (int) (id * 37 % 100_000));
+                    });
+            jdbcTemplate.batchUpdate("INSERT INTO book_summaries (book_id, summaries) VALUES (?, ?)",
+                    ids, ids.size(), (ps, id) -> {
+                        ps.setLong(1, id);
+                        ps.setString(2, "Resumen generado automáticamente del libro " + id + ". ".repeat(20));
+                    });
+            jdbcTemplate.batchUpdate("INSERT INTO book_authors (book_id, author_id) VALUES (?, ?)",
+                    ids, ids.size(), (ps, id) -> {
+                        ps.setLong(1, id);
+                        ps.setLong(2, id - (id - FIRST_ID) % 4);
+                    });
+            jdbcTemplate.batchUpdate("INSERT INTO book_languages (book_id, language_id) VALUES (?, ?)",
+                    ids, ids.size(), (ps, id) -> {
+                        ps.setLong(1, id);
+                        ps.setInt(2, language);
+                    });
+            for (int offset = 0; offset < 2; offset++) {
+                int shift = offset * 100;
+                jdbcTemplate.batchUpdate("INSERT INTO book_subjects (book_id, subject_id) VALUES (?, ?)",
+                        ids, ids.size(), (ps, id) -> {
+                            ps.setLong(1, id);
+                            ps.setInt(2, subjects.idOf(subjectNames.get((int) ((id + shift) % subjectNames.size()))));
+                        });
+            }
+        }
+    }
+}
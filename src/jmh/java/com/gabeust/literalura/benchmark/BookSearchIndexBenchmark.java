@@ -0,0 +1,115 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.index.BookSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+/**
+ * Búsqueda de texto libre en el índice invertido con un catálogo sintético del
+ * tamaño de Gutendex. Las palabras siguen una distribución sesgada, como en un
+ * catálogo real: unas pocas aparecen en miles de libros y la mayoría en pocos.
+ * {@code reindexBatch} mide un lote de la actualización en segundo plano, que
+ * reemplaza libros ya indexados. Los percentiles se obtienen del modo {@code SampleTime}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"75000"})
+    int books;
+
+    private BookSearchIndex index;
+    private List<String> commonQueries;
+    private List<String> rareQueries;
+    private List<List<BookDTO>> refreshBatches;
+    private Random random;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        index = new BookSearchIndex();
+        List<BookDTO> batch = new ArrayList<>(500);
+        for (int id = 1; id <= books; id++) {
+            batch.add(book(id));
+            if (batch.size() == 500) {
+                index.index(batch);
+                batch = new ArrayList<>(500);
+            }
+        }
+        index.index(batch);
+
+        commonQueries = List.of(word(0) + " " + word(1), word(2) + " " + word(5) + " " + word(9),
+                word(3), word(1) + " " + word(4) + " " + word(7) + " " + word(12));
+        rareQueries = List.of(word(4_000) + " " + word(9_000), word(12_345), word(7_000) + " " + word(1),
+                word(15_000) + " " + word(18_000) + " " + word(2));
+        refreshBatches = new ArrayList<>();
+        for (int b = 0; b < 64; b++) {
+            List<BookDTO> refresh = new ArrayList<>(32);
+            for (int i = 0; i < 32; i++) {
+                refresh.add(book(1 + random.nextInt(books)));
+            }
+            refreshBatches.add(refresh);
+        }
+    }
+
+    @Benchmark
+    public Object commonTerms() {
+        return index.search(commonQueries.get(next++ % commonQueries.size()), 10);
+    }
+
+    @Benchmark
+    public Object rareTerms() {
+        return index.search(rareQueries.get(next++ % rareQueries.size()), 10);
+    }
+
+    @Benchmark
+    public Object reindexBatch() {
+        index.index(refreshBatches.get(next++ % refreshBatches.size()));
+        return index;
+    }
+
+    private BookDTO book(long id) {
+        return new BookDTO(id, words(2 + random.nextInt(5)), List.of(words(40 + random.nextInt(40))),
+                List.of(new AuthorDTO(id % 30_000 + 1, "Autor" + id % 30_000 + ", " + word(random.nextInt(500)),
+                        null, null)),
+                List.of(words(3), words(3)), List.of("en"), (int) (id * 37 % 100_000));
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // sesgo tipo Zipf: rangos bajos mucho más frecuentes
+            int rank = (int) Math.min(VOCABULARY - 1, Math.exp(random.nextDouble() * Math.log(VOCABULARY)) - 1);
+            text.append(word(rank)).append(' ');
+        }
+        return text.toString();
+    }
+
+    /** Palabra sintética estable para cada rango. */
+    private static String word(int rank) {
+        return "p" + Integer.toString(rank, 36) + "x";
+    }
+}
@@ -0,0 +1,109 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.index.ColumnarCatalog;
+import com.gabeust.literalura.mapper.BookMapper;
+import com.gabeust.literalura.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+/**
+ * Carga del catálogo al arrancar: abrir la copia por columnas mapeada contra
+ * materializar el grafo de entidades que hoy recorre la carga de índices, y
+ * decodificar la copia completa a {@link BookDTO}.
+ * <p>
+ * Al preparar cada tamaño se imprime el heap retenido por cada representación,
+ * medido como diferencia del heap usado después de forzar GC. La asignación por
+ * operación se obtiene con {@code -prof gc} ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    @Param({"10000", "70000"})
+    int books;
+
+    private List<BookDTO> catalog;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        catalog = GutendexFixtures.books(books, 2, 6);
+        file = Files.createTempFile("catalog", ".snapshot");
+        ColumnarCatalog.empty().merge(catalog).writeTo(file);
+
+        System.out.printf("%n[%d libros] heap retenido: entidades %d KiB, DTOs %d KiB, copia en heap %d KiB, "
+                        + "copia mapeada %d KiB (archivo %d KiB)%n", books,
+                retainedKiB(this::materializeEntityGraph),
+                retainedKiB(() -> GutendexFixtures.books(books, 2, 6)),
+                retainedKiB(() -> ColumnarCatalog.empty().merge(catalog)),
+                retainedKiB(this::mapSnapshotUnchecked),
+                Files.size(file) / 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ColumnarCatalog mapSnapshot() throws IOException {
+        return ColumnarCatalog.map(file);
+    }
+
+    @Benchmark
+    public List<Book> materializeEntityGraph() {
+        return catalog.stream().map(BookMapper::toEntity).toList();
+    }
+
+    @Benchmark
+    public ColumnarCatalog buildSnapshot() {
+        return ColumnarCatalog.empty().merge(catalog);
+    }
+
+    private ColumnarCatalog mapSnapshotUnchecked() {
+        try {
+            return ColumnarCatalog.map(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long retainedKiB(Supplier<?> loader) {
+        long before = usedHeapAfterGc();
+        Object retained = loader.get();
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(retained);
+        return Math.max(0, after - before) / 1024;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,98 @@
+package com.gabeust.literalura.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * Datos de prueba para los benchmarks. Si se define {@code -Dliteralura.fixture=<ruta>}
+ * se usa una página real grabada de Gutendex; si no, se genera una página con la
+ * misma forma (incluidos los campos que la aplicación ignora, como {@code formats}).
+ */
+final class GutendexFixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private GutendexFixtures() {
+    }
+
+    static BookDTO book(long id, int authors, int subjects) {
+        List<AuthorDTO> authorList = new ArrayList<>(authors);
+        for (int i = 0; i < authors; i++) {
+            authorList.add(new AuthorDTO(null, "Apellido" + i + ", Nombre " + id, 1800 + i, 1870 + i));
+        }
+        List<String> subjectList = new ArrayList<>(subjects);
+        for (int i = 0; i < subjects; i++) {
+            subjectList.add("Tema " + i + " -- Ficción -- Siglo XIX");
+        }
+        return new BookDTO(
+                id,
+                "Título del libro número " + id + ": una historia",
+                new ArrayList<>(List.of("Resumen generado automáticamente del libro " + id + ". ".repeat(20))),
+                authorList,
+                subjectList,
+                new ArrayList<>(List.of("en", "es")),
+                (int) (id * 37 % 100_000)
+        );
+    }
+
+    static List<BookDTO> books(int count, int authors, int subjects) {
+        List<BookDTO> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            books.add(book(i, authors, subjects));
+        }
+        return books;
+    }
+
+    /**
+     * Cuerpo JSON de una página de Gutendex.
+     */
+    static byte[] page(int books, int authors, int subjects) {
+        String recorded = System.getProperty("literalura.fixture");
+        try {
+            if (recorded != null) {
+                return Files.readAllBytes(Path.of(recorded));
+            }
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (BookDTO book : books(books, authors, subjects)) {
+                Map<String, Object> node = new LinkedHashMap<>();
+                node.put("id", book.id());
+                node.put("title", book.title());
+                node.put("authors", book.authors().stream().map(author -> Map.of(
+                        "name", author.name(),
+                        "birth_year", author.birthYear(),
+                        "death_year", author.deathYear())).toList());
+                node.put("summaries", book.summaries());
+                node.put("translators", List.of());
+                node.put("subjects", book.subjects());
+                node.put("bookshelves", List.of("Best Books Ever Listings", "Category: Novels"));
+                node.put("languages", book.languages());
+                node.put("copyright", false);
+                node.put("media_type", "Text");
+                node.put("formats", Map.of(
+                        "text/html", "https://www.gutenberg.org/ebooks/" + book.id() + ".html.images",
+                        "application/epub+zip", "https://www.gutenberg.org/ebooks/" + book.id() + ".epub3.images",
+                        "text/plain; charset=us-ascii", "https://www.gutenberg.org/ebooks/" + book.id() + ".txt.utf-8",
+                        "image/jpeg", "https://www.gutenberg.org/cache/epub/" + book.id() + "/pg" + book.id() + ".cover.medium.jpg"));
+                node.put("download_count", book.download_count());
+                results.add(node);
+            }
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("count", 75_000);
+            page.put("next", "https://gutendex.com/books/?page=2");
+            page.put("previous", null);
+            page.put("results", results);
+            return MAPPER.writeValueAsBytes(page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.mapper.BookMapper;
+import com.gabeust.literalura.model.Author;
+import com.gabeust.literalura.model.Book;
+import com.gabeust.literalura.repository.AuthorRepository;
+import com.gabeust.literalura.repository.BookRepository;
+import com.gabeust.literalura.service.TermDictionary;
+
+import java.util.List;
+/**
+ * Copia de la ingesta anterior (un {@code existsById}, una búsqueda por autor y un
+ * {@code save} por libro, cada uno en su propia transacción), conservada solo como
+ * referencia para {@link BookIngestBenchmark}. Registra los temas e idiomas de cada
+ * libro en los diccionarios, que el esquema actual exige.
+ */
+class LegacyBookIngest {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final TermDictionary subjectDictionary;
+    private final TermDictionary languageDictionary;
+
+    LegacyBookIngest(BookRepository bookRepository, AuthorRepository authorRepository,
+                     TermDictionary subjectDictionary, TermDictionary languageDictionary) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.subjectDictionary = subjectDictionary;
+        this.languageDictionary = languageDictionary;
+    }
+
+    void saveAllIfNotExists(List<BookDTO> books) {
+        books.forEach(bookDTO -> {
+            if (!bookRepository.existsById(bookDTO.id())) {
+                subjectDictionary.ensure(bookDTO.subjects());
+                languageDictionary.ensure(bookDTO.languages());
+                Book book = BookMapper.toEntity(bookDTO);
+                book.setAuthors(book.getAuthors().stream()
+                        .map(this::findOrCreate)
+                        .toList());
+                bookRepository.save(book);
+            }
+        });
+    }
+
+    private Author findOrCreate(Author author) {
+        return authorRepository.findByNameAndBirthYearAndDeathYear(author.getName(), author.getBirthYear(), author.getDeathYear())
+                .orElseGet(() -> authorRepository.save(author));
+    }
+}
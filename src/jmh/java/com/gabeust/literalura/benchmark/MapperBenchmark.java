@@ -0,0 +1,72 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.mapper.AuthorMapper;
+import com.gabeust.literalura.mapper.BookMapper;
+import com.gabeust.literalura.model.Author;
+import com.gabeust.literalura.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+/**
+ * Costo de {@link BookMapper} y {@link AuthorMapper} según la cantidad de autores
+ * y temas de cada libro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "4", "16"})
+    int authors;
+
+    @Param({"2", "8", "32"})
+    int subjects;
+
+    private BookDTO dto;
+    private Book entity;
+    private AuthorDTO authorDTO;
+    private Author author;
+
+    @Setup
+    public void setUp() {
+        dto = GutendexFixtures.book(1342, authors, subjects);
+        entity = BookMapper.toEntity(dto);
+        authorDTO = dto.authors().get(0);
+        author = AuthorMapper.toEntity(authorDTO);
+    }
+
+    @Benchmark
+    public Book bookToEntity() {
+        return BookMapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public BookDTO bookToDTO() {
+        return BookMapper.toDTO(entity);
+    }
+
+    @Benchmark
+    public Author authorToEntity() {
+        return AuthorMapper.toEntity(authorDTO);
+    }
+
+    @Benchmark
+    public AuthorDTO authorToDTO() {
+        return AuthorMapper.toDTO(author);
+    }
+}
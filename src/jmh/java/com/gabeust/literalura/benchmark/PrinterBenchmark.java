@@ -0,0 +1,69 @@
+package com.gabeust.literalura.benchmark;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.service.BookPrinterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Renderizado de libros en consola: el renderizador anterior, con una escritura
+ * sincronizada por línea, contra {@link BookPrinterService}, que arma el texto en
+ * un buffer y lo escribe de una vez. Ambos codifican en UTF-8 hacia un sumidero
+ * nulo para medir solo el formateo y la escritura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrinterBenchmark {
+
+    @Param({"20", "1000"})
+    int books;
+
+    private final LegacyBookPrinter legacy = new LegacyBookPrinter();
+    private final BookPrinterService buffered = new BookPrinterService(new BufferedWriter(
+            new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8), 64 * 1024));
+    private List<BookDTO> page;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        page = GutendexFixtures.books(books, 2, 6);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void legacyPrintBooks() {
+        legacy.printBooks(page);
+    }
+
+    @Benchmark
+    public void bufferedPrintBooks() {
+        buffered.printBooks(page);
+    }
+}
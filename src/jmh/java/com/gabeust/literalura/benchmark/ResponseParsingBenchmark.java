@@ -0,0 +1,74 @@
+package com.gabeust.literalura.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.literalura.client.GutendexPageReader;
+import com.gabeust.literalura.dto.BookDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Parseo de una página de Gutendex: decodificación en streaming de
+ * {@link GutendexPageReader} frente al enfoque anterior (String + readTree + treeToValue).
+ * Con {@code -prof gc} JMH reporta además la asignación de memoria por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    @Param({"32"})
+    int books;
+
+    @Param({"1", "4"})
+    int authors;
+
+    @Param({"4", "16"})
+    int subjects;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GutendexPageReader reader = new GutendexPageReader(objectMapper);
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = GutendexFixtures.page(books, authors, subjects);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        reader.read(new ByteArrayInputStream(body), blackhole::consume);
+    }
+
+    @Benchmark
+    public List<BookDTO> treeModel() throws IOException {
+        JsonNode root = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+        JsonNode results = root.get("results");
+        List<BookDTO> parsed = new ArrayList<>();
+        if (results != null && results.isArray()) {
+            for (JsonNode node : results) {
+                parsed.add(objectMapper.treeToValue(node, BookDTO.class));
+            }
+        }
+        return parsed;
+    }
+}
@@ -1,31 +1,103 @@
 package com.gabeust.literalura;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.literalura.client.AsyncCalls;
+import com.gabeust.literalura.client.CatalogHarvester;
+import com.gabeust.literalura.client.GutendexException;
+import com.gabeust.literalura.client.GutendexPageReader;
+import com.gabeust.literalura.client.GutendexTransport;
+import com.gabeust.literalura.client.GutendexUnavailableException;
+import com.gabeust.literalura.client.RecordingInputStream;
+import com.gabeust.literalura.client.ResponseCache;
+import com.gabeust.literalura.client.SingleFlight;
 import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.GutendexPageDTO;
+import com.gabeust.literalura.dto.HarvestedPageDTO;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 /**
  * Componente responsable de consumir la API pública de Gutendex para obtener
  * información sobre libros mediante llamadas HTTP.
+ * <p>
+ * Cada búsqueda tiene una variante asíncrona que devuelve un {@link CompletableFuture}
+ * y corre en un hilo virtual. Las solicitudes a la red, sincrónicas o no, pasan por
+ * {@link GutendexTransport}, que aplica el límite de tasa, los reintentos y el circuito.
  */
 @Component
 public class ApiConsumer {
 
-    private static final String BASE_URL = "https://gutendex.com/books";
-    private final HttpClient client = HttpClient.newBuilder()
-            .followRedirects(HttpClient.Redirect.ALWAYS)
-            .build();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final ResponseCache cache;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final GutendexTransport transport;
+    private final GutendexPageReader pageReader = new GutendexPageReader(new ObjectMapper());
+    private final SingleFlight<GutendexPageDTO> inFlight = new SingleFlight<>();
+
+    /**
+     * @param baseUrl URL del endpoint de libros de Gutendex (configurable para apuntar a un servidor local)
+     * @param cache   caché de respuestas consultada antes de cada llamada
+     * @param meterRegistry registro de métricas de las solicitudes
+     * @param lookupExecutor ejecutor de las variantes asíncronas
+     * @param transport transporte HTTP con límite de tasa, reintentos y circuito
+     */
+    @Autowired
+    public ApiConsumer(@Value("${literalura.gutendex.base-url:https://gutendex.com/books}") String baseUrl,
+                       ResponseCache cache, MeterRegistry meterRegistry, ExecutorService lookupExecutor,
+                       GutendexTransport transport) {
+        this.baseUrl = baseUrl;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+        this.executor = lookupExecutor;
+        this.transport = transport;
+    }
+
+    /**
+     * Crea un consumidor sin caché, útil para pruebas contra un servidor local.
+     *
+     * @param baseUrl URL del endpoint de libros
+     */
+    public ApiConsumer(String baseUrl) {
+        this(baseUrl, GutendexTransport.defaults());
+    }
+
+    /**
+     * Crea un consumidor sin caché con un transporte propio, útil para probar
+     * reintentos y fallos contra un servidor local.
+     *
+     * @param baseUrl   URL del endpoint de libros
+     * @param transport transporte HTTP a usar
+     */
+    public ApiConsumer(String baseUrl, GutendexTransport transport) {
+        this(baseUrl, ResponseCache.disabled(), new SimpleMeterRegistry(),
+                Executors.newVirtualThreadPerTaskExecutor(), transport);
+    }
     /**
      * Realiza la llamada HTTP a la URL especificada y parsea la respuesta JSON
      * para devolver una lista de BookDTO.
@@ -36,29 +108,130 @@ public class ApiConsumer {
      * @throws InterruptedException si la llamada es interrumpida
      */
     private List<BookDTO> fetchBooks(String url) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
+        return fetchPage(url).results();
+    }
+    /**
+     * Realiza la llamada HTTP a la URL especificada y parsea la página completa,
+     * conservando el total de resultados y los enlaces de paginación.
+     * <p>
+     * Si otro hilo ya está pidiendo la misma URL, se espera su respuesta en lugar
+     * de repetir la solicitud; por eso la lista de libros devuelta es inmutable.
+     *
+     * @param url URL completa para hacer la solicitud GET
+     * @return página de resultados de la API
+     * @throws IOException          si ocurre un error al leer la respuesta
+     * @throws InterruptedException si la llamada es interrumpida
+     */
+    private GutendexPageDTO fetchPage(String url) throws IOException, InterruptedException {
+        return inFlight.execute(ResponseCache.normalize(url), () -> {
+            List<BookDTO> books = new ArrayList<>();
+            GutendexPageDTO page = fetchEach(url, books::add);
+            return new GutendexPageDTO(page.count(), page.next(), page.previous(), Collections.unmodifiableList(books));
+        });
+    }
+    /**
+     * Realiza la llamada HTTP y entrega cada libro al consumidor en cuanto se
+     * parsea, sin acumular la página en memoria.
+     * <p>
+     * Antes de salir a la red se consulta la caché: una entrada fresca se decodifica
+     * directamente; una vencida se revalida con una solicitud condicional y, si el
+     * servidor responde 304, se reutiliza el cuerpo guardado.
+     *
+     * @param url    URL completa para hacer la solicitud GET
+     * @param onBook acción a ejecutar por cada libro recibido
+     * @return metadatos de paginación de la respuesta
+     * @throws IOException          si ocurre un error al leer la respuesta
+     * @throws InterruptedException si la llamada es interrumpida
+     */
+    private GutendexPageDTO fetchEach(String url, Consumer<BookDTO> onBook) throws IOException, InterruptedException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String key = ResponseCache.normalize(url);
+            Optional<ResponseCache.CachedResponse> cached = cache.get(key);
+            if (cached.isPresent() && cache.isFresh(cached.get())) {
+                outcome = "cache";
+                return decode(cached.get().body(), onBook, outcome);
+            }
 
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .GET();
+            cached.ifPresent(entry -> {
+                if (entry.etag() != null) {
+                    builder.header("If-None-Match", entry.etag());
+                }
+                if (entry.lastModified() != null) {
+                    builder.header("If-Modified-Since", entry.lastModified());
+                }
+            });
 
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Error en la llamada API: " + response.statusCode());
+            Fetched fetched = transport.execute(builder, response -> {
+                if (response.statusCode() == 304) {
+                    response.body().close();
+                    if (cached.isEmpty()) {
+                        throw new GutendexException("Respuesta 304 sin entrada en caché", 304);
+                    }
+                    ResponseCache.CachedResponse renewed = cache.revalidated(key, cached.get());
+                    return new Fetched(decode(renewed.body(), onBook, "revalidated"), "revalidated");
+                }
+                if (!cache.accepts(response.headers())) {
+                    // nada que guardar: se decodifica sin copiar el cuerpo
+                    try (InputStream body = response.body()) {
+                        GutendexPageDTO page = pageReader.read(body, onBook);
+                        response.headers().firstValueAsLong("Content-Length")
+                                .ifPresent(length -> recordSize((int) length, "network"));
+                        return new Fetched(page, "network");
+                    }
+                }
+                // se decodifica en streaming mientras se copia el cuerpo para la caché
+                try (RecordingInputStream body = new RecordingInputStream(response.body())) {
+                    GutendexPageDTO page = pageReader.read(body, onBook);
+                    byte[] recorded = body.recorded();
+                    cache.put(key, new ResponseCache.CachedResponse(
+                            recorded,
+                            response.headers().firstValue("ETag").orElse(null),
+                            response.headers().firstValue("Last-Modified").orElse(null),
+                            System.currentTimeMillis()));
+                    recordSize(recorded.length, "network");
+                    return new Fetched(page, "network");
+                }
+            });
+            outcome = fetched.outcome();
+            return fetched.page();
+        } catch (GutendexUnavailableException e) {
+            outcome = "unavailable";
+            throw e;
+        } catch (GutendexException e) {
+            outcome = "status_" + e.statusCode();
+            throw e;
+        } catch (HttpTimeoutException e) {
+            outcome = "timeout";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("gutendex.http.requests")
+                    .description("Duración de las solicitudes a Gutendex, incluida la decodificación")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
+    }
 
-        // parsear JSON después de validar que el status es 200
-        JsonNode root = objectMapper.readTree(response.body());
-        JsonNode results = root.get("results");
+    private record Fetched(GutendexPageDTO page, String outcome) {}
 
-        List<BookDTO> books = new ArrayList<>();
-        if (results != null && results.isArray()) {
-            for (JsonNode bookNode : results) {
-                BookDTO book = objectMapper.treeToValue(bookNode, BookDTO.class);
-                books.add(book);
-            }
-        }
-        return books;
+    private GutendexPageDTO decode(byte[] body, Consumer<BookDTO> onBook, String source) throws IOException {
+        recordSize(body.length, source);
+        return pageReader.read(new ByteArrayInputStream(body), onBook);
+    }
+
+    private void recordSize(int bytes, String source) {
+        DistributionSummary.builder("gutendex.http.response.size")
+                .description("Tamaño del cuerpo de las respuestas de Gutendex")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes);
     }
     /**
      * Busca libros cuyo título coincida con el parámetro proporcionado.
@@ -68,9 +241,10 @@ public class ApiConsumer {
      * @throws IOException          si hay error de entrada/salida
      * @throws InterruptedException si la llamada HTTP es interrumpida
      */
+    @Timed(value = "gutendex.api", histogram = true)
     public List<BookDTO> searchByTitle(String title) throws IOException, InterruptedException {
         String encodedTitle = URLEncoder.encode(title, StandardCharsets.UTF_8);
-        String url = BASE_URL + "?search=" + encodedTitle;
+        String url = baseUrl + "?search=" + encodedTitle;
         return fetchBooks(url);
     }
     /**
@@ -81,8 +255,9 @@ public class ApiConsumer {
      * @throws IOException          si hay error de entrada/salida
      * @throws InterruptedException si la llamada HTTP es interrumpida
      */
+    @Timed(value = "gutendex.api", histogram = true)
     public List<BookDTO> searchByAuthor(String author) throws IOException, InterruptedException {
-        String url = BASE_URL + "?search=" + author.replace(" ", "%20");
+        String url = baseUrl + "?search=" + author.replace(" ", "%20");
         return fetchBooks(url);
     }
     /**
@@ -93,8 +268,9 @@ public class ApiConsumer {
      * @throws IOException          si hay error de entrada/salida
      * @throws InterruptedException si la llamada HTTP es interrumpida
      */
+    @Timed(value = "gutendex.api", histogram = true)
     public List<BookDTO> searchByLanguage(String lang) throws IOException, InterruptedException {
-        String url = BASE_URL + "?languages=" + lang;
+        String url = baseUrl + "?languages=" + lang;
         return fetchBooks(url);
     }
     /**
@@ -105,8 +281,9 @@ public class ApiConsumer {
      * @throws IOException          si hay error de entrada/salida
      * @throws InterruptedException si la llamada HTTP es interrumpida
      */
+    @Timed(value = "gutendex.api", histogram = true)
     public List<BookDTO> getTopDownloadedBooks(int limit) throws IOException, InterruptedException {
-        String url = BASE_URL + "?sort=download_count";
+        String url = baseUrl + "?sort=download_count";
         List<BookDTO> topBooks = fetchBooks(url);
         return topBooks.stream().limit(limit).toList();
     }
@@ -119,9 +296,123 @@ public class ApiConsumer {
      * @throws IOException          si hay error de entrada/salida
      * @throws InterruptedException si la llamada HTTP es interrumpida
      */
+    @Timed(value = "gutendex.api", histogram = true)
     public List<BookDTO> searchBooksByAuthorYearRange(int startYear, int endYear) throws IOException, InterruptedException {
-        String url = BASE_URL + "?author_year_start=" + startYear + "&author_year_end=" + endYear;
+        String url = baseUrl + "?author_year_start=" + startYear + "&author_year_end=" + endYear;
         return fetchBooks(url);
     }
+    /**
+     * Obtiene los libros con los ids indicados usando el filtro {@code ids} de Gutendex,
+     * siguiendo la paginación si hubiera más de una página. Los ids que Gutendex ya
+     * no publica simplemente no aparecen en el resultado.
+     *
+     * @param ids ids de Gutendex
+     * @return libros encontrados
+     * @throws IOException          si hay error de entrada/salida
+     * @throws InterruptedException si la llamada HTTP es interrumpida
+     */
+    @Timed(value = "gutendex.api", histogram = true)
+    public List<BookDTO> searchByIds(Collection<Long> ids) throws IOException, InterruptedException {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String joined = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        List<BookDTO> books = new ArrayList<>(ids.size());
+        String url = baseUrl + "?ids=" + joined;
+        while (url != null) {
+            GutendexPageDTO page = fetchPage(url);
+            books.addAll(page.results());
+            url = page.next();
+        }
+        return books;
+    }
+    /**
+     * Ejecuta una consulta y entrega cada libro de la primera página a medida que
+     * se decodifica la respuesta.
+     *
+     * @param query  parámetros de la consulta (por ejemplo, "languages=en")
+     * @param onBook acción a ejecutar por cada libro
+     * @throws IOException          si hay error de entrada/salida
+     * @throws InterruptedException si la llamada HTTP es interrumpida
+     */
+    @Timed(value = "gutendex.api", histogram = true)
+    public void forEachBook(String query, Consumer<BookDTO> onBook) throws IOException, InterruptedException {
+        fetchEach(baseUrl + "?" + query, onBook);
+    }
+    /**
+     * Variante asíncrona de {@link #searchByTitle(String)}.
+     *
+     * @param title título o parte del título a buscar
+     * @return futuro con la lista de libros que coinciden con el título
+     */
+    public CompletableFuture<List<BookDTO>> searchByTitleAsync(String title) {
+        return async(() -> searchByTitle(title));
+    }
+    /**
+     * Variante asíncrona de {@link #searchByAuthor(String)}.
+     *
+     * @param author nombre o parte del nombre del autor
+     * @return futuro con la lista de libros escritos por el autor
+     */
+    public CompletableFuture<List<BookDTO>> searchByAuthorAsync(String author) {
+        return async(() -> searchByAuthor(author));
+    }
+    /**
+     * Variante asíncrona de {@link #searchByLanguage(String)}.
+     *
+     * @param lang código de idioma (por ejemplo, "en" para inglés)
+     * @return futuro con la lista de libros en el idioma especificado
+     */
+    public CompletableFuture<List<BookDTO>> searchByLanguageAsync(String lang) {
+        return async(() -> searchByLanguage(lang));
+    }
+    /**
+     * Variante asíncrona de {@link #getTopDownloadedBooks(int)}.
+     *
+     * @param limit número máximo de libros a devolver
+     * @return futuro con la lista de libros ordenados por cantidad de descargas
+     */
+    public CompletableFuture<List<BookDTO>> getTopDownloadedBooksAsync(int limit) {
+        return async(() -> getTopDownloadedBooks(limit));
+    }
+    /**
+     * Variante asíncrona de {@link #searchBooksByAuthorYearRange(int, int)}.
+     *
+     * @param startYear año de inicio del rango
+     * @param endYear   año final del rango
+     * @return futuro con la lista de libros escritos por autores vivos entre esos años
+     */
+    public CompletableFuture<List<BookDTO>> searchBooksByAuthorYearRangeAsync(int startYear, int endYear) {
+        return async(() -> searchBooksByAuthorYearRange(startYear, endYear));
+    }
+
+    private <V> CompletableFuture<V> async(SingleFlight.Call<V> call) {
+        return AsyncCalls.supply(call, executor);
+    }
+    /**
+     * Cantidad de solicitudes HTTP evitadas porque otra idéntica ya estaba en curso.
+     */
+    public long coalescedRequests() {
+        return inFlight.coalesced();
+    }
+    /**
+     * Cantidad de solicitudes efectivamente ejecutadas (sin contar las coalescidas).
+     */
+    public long executedRequests() {
+        return inFlight.executions();
+    }
+    /**
+     * Recorre todas las páginas de una consulta siguiendo la paginación de Gutendex,
+     * descargando por adelantado hasta {@code prefetch} páginas en hilos virtuales.
+     * El stream debe cerrarse al terminar para cancelar las descargas pendientes.
+     *
+     * @param query    parámetros de la consulta sin el de página (por ejemplo, "languages=en"); vacío para todo el catálogo
+     * @param fromPage página desde la que se reanuda (la primera es 1)
+     * @param prefetch cantidad máxima de páginas descargándose a la vez
+     * @return stream ordenado de páginas
+     */
+    public Stream<HarvestedPageDTO> harvest(String query, int fromPage, int prefetch) {
+        return new CatalogHarvester(this::fetchPage, baseUrl, query, fromPage, prefetch).stream();
+    }
 
 }
@@ -2,11 +2,16 @@ package com.gabeust.literalura;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class LiterAluraApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(LiterAluraApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(LiterAluraApplication.class, args);
+		// en modo consola el menú o el comando ya terminó; en modo headless sigue el servidor
+		if (context.getBeanNamesForType(Main.class).length > 0) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
-}
\ No newline at end of file
+}
@@ -1,37 +1,93 @@
 package com.gabeust.literalura;
 
+import com.gabeust.literalura.importer.BulkLookupService;
+import com.gabeust.literalura.importer.CatalogHarvestService;
+import com.gabeust.literalura.importer.CatalogImporter;
 import com.gabeust.literalura.service.AuthorService;
 import com.gabeust.literalura.service.BookPrinterService;
 import com.gabeust.literalura.service.BookService;
-import jakarta.annotation.PostConstruct;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Scanner;
 /**
  * Componente principal que ejecuta el menú interactivo para la aplicación LiterAlura.
  * Permite al usuario buscar y listar libros y autores mediante la consola.
+ * <p>
+ * Es el modo por defecto ({@code literalura.mode=console}); en el modo
+ * {@code headless} este componente no se crea y la aplicación atiende por HTTP.
  */
 @Component
-public class Main {
+@ConditionalOnProperty(name = "literalura.mode", havingValue = "console", matchIfMissing = true)
+public class Main implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 20;
 
     private final BookService bookService;
     private final AuthorService authorService;
     private final BookPrinterService printerService;
-
-    public Main(BookService bookService, AuthorService authorService, BookPrinterService printerService) {
+    private final CatalogImporter catalogImporter;
+    private final BulkLookupService bulkLookupService;
+    private final CatalogHarvestService catalogHarvestService;
+    private final ApplicationArguments arguments;
+
+    public Main(BookService bookService, AuthorService authorService, BookPrinterService printerService,
+                CatalogImporter catalogImporter, BulkLookupService bulkLookupService,
+                CatalogHarvestService catalogHarvestService, ApplicationArguments arguments) {
         this.bookService = bookService;
         this.authorService = authorService;
         this.printerService = printerService;
+        this.catalogImporter = catalogImporter;
+        this.bulkLookupService = bulkLookupService;
+        this.catalogHarvestService = catalogHarvestService;
+        this.arguments = arguments;
+    }
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        runMenu();
     }
     /**
-     * Método que se ejecuta automáticamente después de la creación del bean Spring.
+     * Se ejecuta cuando el contexto de Spring terminó de iniciar.
      * Muestra un menú en consola con diferentes opciones para interactuar con la aplicación.
+     * Si se inicia con {@code --import-catalog=<ruta>}, importa el catálogo indicado
+     * en lugar de mostrar el menú. Con {@code --bulk-lookup=<ruta>} resuelve las
+     * búsquedas del archivo y escribe los resultados en {@code --bulk-output}, o
+     * junto al archivo con la extensión {@code .results.tsv}. Con
+     * {@code --harvest[=<consulta>]} recorre todas las páginas de la consulta en
+     * Gutendex (todo el catálogo si no se indica) y guarda los libros nuevos,
+     * desde {@code --harvest-from-page} si se indica.
      *
      * @throws Exception en caso de error general durante la ejecución del menú.
      */
-    @PostConstruct
     public void runMenu() throws Exception {
+        if (arguments.containsOption("import-catalog")) {
+            for (String file : arguments.getOptionValues("import-catalog")) {
+                catalogImporter.importCsv(Path.of(file));
+            }
+            return;
+        }
+        if (arguments.containsOption("bulk-lookup")) {
+            Path input = Path.of(arguments.getOptionValues("bulk-lookup").get(0));
+            Path output = arguments.containsOption("bulk-output")
+                    ? Path.of(arguments.getOptionValues("bulk-output").get(0))
+                    : input.resolveSibling(input.getFileName() + ".results.tsv");
+            bulkLookupService.run(input, output);
+            return;
+        }
+        if (arguments.containsOption("harvest")) {
+            List<String> query = arguments.getOptionValues("harvest");
+            int fromPage = arguments.containsOption("harvest-from-page")
+                    ? Integer.parseInt(arguments.getOptionValues("harvest-from-page").get(0))
+                    : 1;
+            catalogHarvestService.harvest(query.isEmpty() ? "" : query.get(0), fromPage);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
         int option = 0;
 
@@ -82,7 +138,6 @@ public class Main {
                     if (booksByAuthor.isEmpty()) {
                         System.out.println("📕 No se encontraron libros para ese autor.");
                     } else {
-                        bookService.saveAllIfNotExists(booksByAuthor);
                         printerService.printBooks(booksByAuthor);
                     }
                 }
@@ -93,8 +148,25 @@ public class Main {
                 }
                 case 4 -> {
                     System.out.println("📚 Libros registrados:");
-                    var books = bookService.findAll();
-                    printerService.printBooks(books);
+                    // cursores con los que empezó cada página ya vista, para volver atrás
+                    Deque<Long> previous = new ArrayDeque<>();
+                    Long cursor = null;
+                    boolean browsing = true;
+                    while (browsing) {
+                        var page = bookService.findPage(cursor, PAGE_SIZE);
+                        printerService.printPage(page.items(), previous.size() + 1,
+                                !previous.isEmpty(), page.nextCursor() != null);
+                        String command = scanner.nextLine().trim();
+                        if (command.equalsIgnoreCase("p") && !previous.isEmpty()) {
+                            Long start = previous.pop();
+                            cursor = start == 0L ? null : start;
+                        } else if (command.isEmpty() && page.nextCursor() != null) {
+                            previous.push(cursor == null ? 0L : cursor);
+                            cursor = page.nextCursor();
+                        } else if (command.equalsIgnoreCase("q") || page.nextCursor() == null) {
+                            browsing = false;
+                        }
+                    }
                 }
                 case 5 -> {
                     System.out.print("📅 Ingrese el año de inicio: ");
@@ -0,0 +1,72 @@
+package com.gabeust.literalura.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+/**
+ * Adapta operaciones bloqueantes que lanzan excepciones comprobadas a
+ * {@link CompletableFuture}, para ejecutarlas en un ejecutor de hilos virtuales.
+ * <p>
+ * A diferencia de {@link CompletableFuture#supplyAsync}, cancelar el futuro
+ * interrumpe la operación en curso, así una solicitud abandonada libera su permiso
+ * del transporte en lugar de seguir esperando la respuesta.
+ */
+public final class AsyncCalls {
+
+    private AsyncCalls() {
+    }
+
+    /**
+     * Ejecuta la operación en el ejecutor indicado.
+     *
+     * @param call     operación bloqueante
+     * @param executor ejecutor donde correrla
+     * @return futuro que se completa con el resultado, o excepcionalmente con la
+     *         excepción original envuelta en {@link CompletionException}; si se
+     *         cancela antes de empezar, la operación no se ejecuta
+     */
+    public static <V> CompletableFuture<V> supply(SingleFlight.Call<V> call, Executor executor) {
+        InterruptibleFuture<V> future = new InterruptibleFuture<>();
+        executor.execute(() -> future.run(call));
+        return future;
+    }
+
+    /**
+     * Futuro que recuerda el hilo que lo está calculando para poder interrumpirlo.
+     */
+    private static final class InterruptibleFuture<V> extends CompletableFuture<V> {
+
+        private Thread runner;
+
+        void run(SingleFlight.Call<V> call) {
+            synchronized (this) {
+                if (isDone()) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                complete(call.execute());
+            } catch (Exception e) {
+                completeExceptionally(new CompletionException(e));
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                }
+                // una cancelación tardía no debe alcanzar a la próxima tarea del hilo
+                Thread.interrupted();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            synchronized (this) {
+                if (cancelled && runner != null) {
+                    runner.interrupt();
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.gabeust.literalura.client;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.GutendexPageDTO;
+import com.gabeust.literalura.dto.HarvestedPageDTO;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+/**
+ * Recorre todas las páginas de una consulta a Gutendex, descargando por adelantado
+ * un número acotado de páginas en hilos virtuales.
+ * <p>
+ * Las páginas se entregan en orden. Solo se lanza una nueva descarga cuando el
+ * consumidor toma una página, por lo que nunca hay más de {@code prefetch}
+ * solicitudes en curso (contrapresión).
+ * <p>
+ * Gutendex responde 404 a las páginas posteriores a la última. Eso pasa al
+ * reanudar desde una página que ya no existe o si el catálogo se achica durante
+ * la recolección; en ambos casos la recolección termina sin error.
+ */
+public class CatalogHarvester implements Iterator<HarvestedPageDTO>, AutoCloseable {
+
+    /**
+     * Operación que descarga y parsea una página a partir de su URL.
+     */
+    @FunctionalInterface
+    public interface PageFetcher {
+        GutendexPageDTO fetch(String url) throws IOException, InterruptedException;
+    }
+
+    private final PageFetcher fetcher;
+    private final String baseUrl;
+    private final String query;
+    private final int prefetch;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Deque<Future<GutendexPageDTO>> inFlight = new ArrayDeque<>();
+
+    private int nextPageToEmit;
+    private int nextPageToSubmit;
+    private int totalPages = -1;
+    /** Página ya descargada que todavía no se entregó. */
+    private HarvestedPageDTO ready;
+
+    /**
+     * @param fetcher   función que descarga una página
+     * @param baseUrl   URL base del endpoint de libros
+     * @param query     parámetros de la consulta sin el de página (por ejemplo, "languages=en")
+     * @param fromPage  página desde la que se reanuda la recolección (la primera es 1)
+     * @param prefetch  cantidad máxima de páginas descargándose a la vez
+     */
+    public CatalogHarvester(PageFetcher fetcher, String baseUrl, String query, int fromPage, int prefetch) {
+        if (fromPage < 1) {
+            throw new IllegalArgumentException("La página inicial debe ser mayor o igual a 1");
+        }
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("El prefetch debe ser mayor o igual a 1");
+        }
+        this.fetcher = fetcher;
+        this.baseUrl = baseUrl;
+        this.query = query == null ? "" : query;
+        this.prefetch = prefetch;
+        this.nextPageToEmit = fromPage;
+        this.nextPageToSubmit = fromPage;
+    }
+
+    /**
+     * Expone el recolector como un {@link Stream} secuencial. Cerrar el stream
+     * cancela las descargas pendientes.
+     */
+    public Stream<HarvestedPageDTO> stream() {
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (totalPages < 0) {
+            loadFirstPage();
+        }
+        if (ready == null && nextPageToEmit <= totalPages) {
+            ready = awaitNext();
+        }
+        return ready != null;
+    }
+
+    @Override
+    public HarvestedPageDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        HarvestedPageDTO page = ready;
+        ready = null;
+        return page;
+    }
+
+    @Override
+    public void close() {
+        inFlight.forEach(future -> future.cancel(true));
+        inFlight.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * La primera página se descarga sola porque su campo {@code count} determina
+     * cuántas páginas hay; a partir de ahí ya se pueden pedir varias en paralelo.
+     */
+    private void loadFirstPage() {
+        int number = nextPageToSubmit++;
+        GutendexPageDTO page;
+        try {
+            page = fetcher.fetch(pageUrl(number));
+        } catch (GutendexException e) {
+            if (!isPastLastPage(e, number)) {
+                throw new UncheckedIOException(e);
+            }
+            totalPages = 0;
+            return;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Recolección interrumpida"));
+        }
+        List<BookDTO> books = results(page);
+        if (books.isEmpty()) {
+            totalPages = 0;
+            return;
+        }
+        // la página pedida puede no ser la primera, así que el tamaño de página se
+        // infiere solo cuando hay siguiente; si no la hay, esta es la última
+        if (page.next() == null) {
+            totalPages = number;
+        } else {
+            int pageSize = books.size();
+            totalPages = Math.max(number, (page.count() + pageSize - 1) / pageSize);
+        }
+        nextPageToEmit = number + 1;
+        ready = new HarvestedPageDTO(number, totalPages, books);
+        fillWindow();
+    }
+
+    /**
+     * Espera la siguiente página en orden.
+     *
+     * @return la página, o {@code null} si Gutendex indicó que ya no existe
+     */
+    private HarvestedPageDTO awaitNext() {
+        Future<GutendexPageDTO> future = inFlight.poll();
+        int number = nextPageToEmit++;
+        GutendexPageDTO page = await(future, number);
+        if (page == null) {
+            // el catálogo se achicó y la página ya no existe: la anterior era la última
+            totalPages = number - 1;
+            cancelPending();
+            return null;
+        }
+        if (page.next() == null && number < totalPages) {
+            // el catálogo se achicó durante la recolección: se respeta el enlace next
+            totalPages = number;
+            cancelPending();
+        }
+        fillWindow();
+        return new HarvestedPageDTO(number, totalPages, results(page));
+    }
+
+    private void cancelPending() {
+        inFlight.forEach(pending -> pending.cancel(true));
+        inFlight.clear();
+    }
+
+    private void fillWindow() {
+        while (inFlight.size() < prefetch && nextPageToSubmit <= totalPages) {
+            String url = pageUrl(nextPageToSubmit++);
+            inFlight.add(executor.submit(() -> fetcher.fetch(url)));
+        }
+    }
+
+    private GutendexPageDTO await(Future<GutendexPageDTO> future, int number) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UncheckedIOException(new InterruptedIOException("Recolección interrumpida"));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GutendexException gutendex && isPastLastPage(gutendex, number)) {
+                return null;
+            }
+            close();
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Un 404 fuera de la primera página indica que se pidió más allá de la última;
+     * en la primera página es un error de la consulta.
+     */
+    private static boolean isPastLastPage(GutendexException e, int number) {
+        return e.statusCode() == 404 && number > 1;
+    }
+
+    private String pageUrl(int page) {
+        return baseUrl + "?" + (query.isEmpty() ? "" : query + "&") + "page=" + page;
+    }
+
+    private static List<BookDTO> results(GutendexPageDTO page) {
+        return page.results() == null ? List.of() : page.results();
+    }
+}
@@ -0,0 +1,77 @@
+package com.gabeust.literalura.client;
+
+import java.time.Duration;
+/**
+ * Circuito que deja de enviar solicitudes a un servidor que falla repetidamente.
+ * <p>
+ * Tras {@code failureThreshold} fallos seguidos el circuito se abre y rechaza las
+ * llamadas durante {@code openDuration}. Después deja pasar una única solicitud de
+ * prueba: si responde, el circuito se cierra; si falla, vuelve a abrirse.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Indica si se puede enviar una solicitud. Quien obtiene {@code true} debe
+     * informar luego el resultado con {@link #onSuccess()}, {@link #onFailure()}
+     * o {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+        trialInFlight = false;
+    }
+
+    /**
+     * La solicitud terminó sin decir nada sobre la salud del servidor (por ejemplo,
+     * un 429 o una interrupción): solo se libera el lugar de la prueba.
+     */
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gabeust.literalura.client;
+
+import java.io.IOException;
+/**
+ * Error al consultar Gutendex: una respuesta con un estado inesperado o un fallo
+ * de comunicación.
+ */
+public class GutendexException extends IOException {
+
+    private final int statusCode;
+
+    public GutendexException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public GutendexException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = -1;
+    }
+
+    /**
+     * Estado HTTP de la respuesta, o -1 si no hubo respuesta.
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,88 @@
+package com.gabeust.literalura.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.GutendexPageDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+/**
+ * Decodifica en streaming las páginas JSON de Gutendex.
+ * <p>
+ * En lugar de construir el árbol completo con {@code readTree} y convertir cada
+ * nodo con {@code treeToValue}, recorre los tokens del {@link InputStream} y
+ * deserializa cada elemento de {@code results} directamente a {@link BookDTO},
+ * entregándolo en cuanto termina de leerse.
+ */
+public class GutendexPageReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader bookReader;
+
+    public GutendexPageReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.bookReader = objectMapper.readerFor(BookDTO.class);
+    }
+
+    /**
+     * Lee una página completa acumulando los libros en una lista.
+     *
+     * @param in cuerpo de la respuesta
+     * @return página con sus libros
+     * @throws IOException si el JSON es inválido o falla la lectura
+     */
+    public GutendexPageDTO read(InputStream in) throws IOException {
+        List<BookDTO> books = new ArrayList<>();
+        GutendexPageDTO page = read(in, books::add);
+        return new GutendexPageDTO(page.count(), page.next(), page.previous(), books);
+    }
+
+    /**
+     * Lee una página entregando cada libro al consumidor a medida que se parsea.
+     * La página devuelta solo contiene los metadatos de paginación.
+     *
+     * @param in     cuerpo de la respuesta
+     * @param onBook acción a ejecutar por cada libro
+     * @return metadatos de la página (total y enlaces), con {@code results} vacío
+     * @throws IOException si el JSON es inválido o falla la lectura
+     */
+    public GutendexPageDTO read(InputStream in, Consumer<BookDTO> onBook) throws IOException {
+        int count = 0;
+        String next = null;
+        String previous = null;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Respuesta inesperada de la API: se esperaba un objeto JSON");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "count" -> count = value == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : 0;
+                    case "next" -> next = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "previous" -> previous = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "results" -> readResults(parser, value, onBook);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new GutendexPageDTO(count, next, previous, List.of());
+    }
+
+    private void readResults(JsonParser parser, JsonToken value, Consumer<BookDTO> onBook) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            onBook.accept(bookReader.readValue(parser));
+        }
+    }
+}
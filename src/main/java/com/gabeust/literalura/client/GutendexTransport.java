@@ -0,0 +1,276 @@
+package com.gabeust.literalura.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Envía las solicitudes GET a Gutendex con las protecciones necesarias para
+ * trabajos masivos: límite de tasa adaptativo, cupo de concurrencia, tiempos
+ * máximos de conexión y de respuesta, reintentos con espera exponencial y
+ * aleatoria, y un circuito que corta las llamadas mientras el servidor falla.
+ * <p>
+ * Se reintentan los fallos de red, los 429 y los 5xx; los demás estados se
+ * informan de inmediato. Una vez que la respuesta se entrega al manejador ya no
+ * se reintenta, porque el cuerpo pudo haberse consumido en parte.
+ * <p>
+ * El tiempo máximo de {@link HttpRequest#timeout()} solo cubre la llegada de los
+ * encabezados. Para que un servidor que deja de enviar el cuerpo no retenga el
+ * cupo para siempre, un temporizador cierra el cuerpo al cumplirse el tiempo
+ * máximo del intento; la lectura falla entonces con {@link HttpTimeoutException}.
+ */
+@Component
+public class GutendexTransport {
+
+    /**
+     * Procesa una respuesta 200 o 304 mientras se conserva el cupo de concurrencia.
+     */
+    @FunctionalInterface
+    public interface ResponseHandler<T> {
+        T handle(HttpResponse<InputStream> response) throws IOException;
+    }
+
+    /**
+     * Contadores del transporte.
+     */
+    public record Stats(long retries, long throttled, long rejected, CircuitBreaker.State circuit, double permitsPerSecond) {}
+
+    /** Cierra los cuerpos que no terminaron de llegar a tiempo; el hilo es daemon. */
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("gutendex-body-deadline").daemon().factory());
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final Semaphore permits;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param connectTimeout        tiempo máximo para establecer la conexión
+     * @param requestTimeout        tiempo máximo de cada intento, y de la espera de un cupo o un permiso
+     * @param maxConcurrentRequests cantidad máxima de solicitudes en curso a la vez
+     * @param permitsPerSecond      tasa máxima de solicitudes por segundo
+     * @param burst                 solicitudes que pueden salir juntas tras un período inactivo
+     * @param maxAttempts           intentos por solicitud, incluido el primero
+     * @param initialBackoff        espera base antes del primer reintento; se duplica en cada uno
+     * @param maxBackoff            espera máxima entre intentos; un {@code Retry-After} mayor no se reintenta
+     * @param failureThreshold      fallos seguidos que abren el circuito
+     * @param openDuration          tiempo que el circuito permanece abierto antes de probar de nuevo
+     */
+    public GutendexTransport(@Value("${literalura.gutendex.connect-timeout:PT5S}") Duration connectTimeout,
+                             @Value("${literalura.gutendex.request-timeout:PT20S}") Duration requestTimeout,
+                             @Value("${literalura.gutendex.max-concurrent-requests:8}") int maxConcurrentRequests,
+                             @Value("${literalura.gutendex.rate-limit.permits-per-second:5}") double permitsPerSecond,
+                             @Value("${literalura.gutendex.rate-limit.burst:10}") int burst,
+                             @Value("${literalura.gutendex.retry.max-attempts:4}") int maxAttempts,
+                             @Value("${literalura.gutendex.retry.initial-backoff:PT0.5S}") Duration initialBackoff,
+                             @Value("${literalura.gutendex.retry.max-backoff:PT30S}") Duration maxBackoff,
+                             @Value("${literalura.gutendex.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                             @Value("${literalura.gutendex.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.ALWAYS)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.rateLimiter = new RateLimiter(permitsPerSecond, burst);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Transporte con los valores por defecto de la configuración.
+     */
+    public static GutendexTransport defaults() {
+        return new GutendexTransport(Duration.ofSeconds(5), Duration.ofSeconds(20), 8, 5, 10,
+                4, Duration.ofMillis(500), Duration.ofSeconds(30), 5, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Envía la solicitud, reintentando si corresponde, y entrega la respuesta al manejador.
+     *
+     * @param request solicitud GET; se le aplica el tiempo máximo de respuesta configurado
+     * @param handler manejador de la respuesta 200 o 304
+     * @return lo que devuelva el manejador
+     * @throws GutendexUnavailableException si el circuito está abierto o se agotaron los reintentos
+     * @throws GutendexException            si el servidor responde con otro estado no reintentable
+     * @throws HttpTimeoutException         si no hubo cupo de concurrencia a tiempo o el cuerpo
+     *                                      no terminó de llegar dentro del tiempo máximo
+     * @throws IOException                  si el manejador falla al leer la respuesta
+     * @throws InterruptedException         si la espera es interrumpida
+     */
+    public <T> T execute(HttpRequest.Builder request, ResponseHandler<T> handler) throws IOException, InterruptedException {
+        HttpRequest timed = request.timeout(requestTimeout).build();
+        IOException lastFailure = null;
+        for (int attempt = 1; ; attempt++) {
+            // con el circuito abierto se rechaza sin gastar un permiso del límite de tasa
+            if (!circuitBreaker.tryAcquire()) {
+                rejected.incrementAndGet();
+                throw new GutendexUnavailableException("El circuito hacia Gutendex está abierto", lastFailure);
+            }
+            boolean admitted = false;
+            try {
+                if (!rateLimiter.acquire(requestTimeout)) {
+                    throw new GutendexUnavailableException("Gutendex pidió reducir el ritmo de solicitudes", lastFailure);
+                }
+                if (!permits.tryAcquire(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new HttpTimeoutException("No hubo cupo para la solicitud en " + requestTimeout);
+                }
+                admitted = true;
+            } finally {
+                if (!admitted) {
+                    circuitBreaker.onIgnored();
+                }
+            }
+            Duration backoff = backoff(attempt);
+            Duration wait;
+            try {
+                HttpResponse<InputStream> response;
+                boolean settled = false;
+                try {
+                    long deadline = System.nanoTime() + requestTimeout.toNanos();
+                    response = client.send(timed, HttpResponse.BodyHandlers.ofInputStream());
+                    int status = response.statusCode();
+                    if (status == 200 || status == 304) {
+                        circuitBreaker.onSuccess();
+                        rateLimiter.onSuccess();
+                        settled = true;
+                        return handle(response, handler, deadline);
+                    }
+                    response.body().close();
+                    if (status == 429) {
+                        throttled.incrementAndGet();
+                        Duration retryAfter = retryAfter(response).orElse(initialBackoff);
+                        rateLimiter.onThrottled(retryAfter);
+                        circuitBreaker.onIgnored();
+                        settled = true;
+                        wait = retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff;
+                    } else if (status >= 500) {
+                        circuitBreaker.onFailure();
+                        settled = true;
+                        wait = retryAfter(response).filter(d -> d.compareTo(backoff) > 0).orElse(backoff);
+                    } else {
+                        circuitBreaker.onSuccess();
+                        settled = true;
+                        throw new GutendexException("Error en la llamada API: " + status, status);
+                    }
+                    lastFailure = new GutendexException("Error en la llamada API: " + status, status);
+                } catch (GutendexException e) {
+                    throw e;
+                } catch (IOException e) {
+                    if (settled) {
+                        // el fallo vino del manejador, con la respuesta ya aceptada
+                        throw e;
+                    }
+                    circuitBreaker.onFailure();
+                    settled = true;
+                    lastFailure = e;
+                    wait = backoff;
+                } finally {
+                    if (!settled) {
+                        circuitBreaker.onIgnored();
+                    }
+                }
+            } finally {
+                permits.release();
+            }
+
+            if (attempt >= maxAttempts || wait.compareTo(maxBackoff) > 0) {
+                throw new GutendexUnavailableException(
+                        "Gutendex no respondió después de " + attempt + " intento(s)", lastFailure);
+            }
+            retries.incrementAndGet();
+            Thread.sleep(wait.toMillis());
+        }
+    }
+
+    /**
+     * Entrega la respuesta al manejador y cierra el cuerpo si no terminó de leerse
+     * antes del plazo.
+     */
+    private <T> T handle(HttpResponse<InputStream> response, ResponseHandler<T> handler, long deadline)
+            throws IOException {
+        AtomicBoolean expired = new AtomicBoolean();
+        ScheduledFuture<?> watchdog = DEADLINES.schedule(() -> {
+            expired.set(true);
+            try {
+                response.body().close();
+            } catch (IOException ignored) {
+                // la lectura en curso falla igual
+            }
+        }, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        try {
+            return handler.handle(response);
+        } catch (IOException e) {
+            if (!expired.get()) {
+                throw e;
+            }
+            circuitBreaker.onFailure();
+            HttpTimeoutException timeout = new HttpTimeoutException(
+                    "El cuerpo de la respuesta no terminó de llegar en " + requestTimeout);
+            timeout.initCause(e);
+            throw timeout;
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(retries.get(), throttled.get(), rejected.get(), circuitBreaker.state(), rateLimiter.currentRate());
+    }
+
+    /**
+     * Espera exponencial con jitter completo: un valor al azar entre cero y la base
+     * duplicada en cada intento, acotada por la espera máxima.
+     */
+    private Duration backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /**
+     * Lee {@code Retry-After}, que puede venir en segundos o como fecha HTTP.
+     */
+    private static Optional<Duration> retryAfter(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                    Duration until = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                    return Optional.of(until.isNegative() ? Duration.ZERO : until);
+                } catch (DateTimeParseException ignored) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.gabeust.literalura.client;
+/**
+ * Gutendex no está disponible por ahora: se agotaron los reintentos, el servidor
+ * pidió esperar más de lo tolerable o el circuito está abierto. Los servicios la
+ * usan como señal para responder con los datos guardados localmente.
+ */
+public class GutendexUnavailableException extends GutendexException {
+
+    public GutendexUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
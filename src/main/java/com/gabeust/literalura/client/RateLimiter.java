@@ -0,0 +1,99 @@
+package com.gabeust.literalura.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+/**
+ * Limitador de tasa de tipo token bucket que se adapta a las respuestas del servidor.
+ * <p>
+ * Cada 429 reduce la tasa a la mitad y bloquea nuevas solicitudes durante el tiempo
+ * indicado por {@code Retry-After}; cada respuesta exitosa la recupera de a poco
+ * hasta el máximo configurado.
+ */
+public class RateLimiter {
+
+    private static final double RECOVERY_STEPS = 20;
+
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long blockedUntil;
+
+    /**
+     * @param permitsPerSecond tasa máxima de solicitudes por segundo
+     * @param burst            cantidad de solicitudes que pueden salir juntas tras un período inactivo
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this.maxRate = permitsPerSecond;
+        this.minRate = permitsPerSecond / 16;
+        this.burst = Math.max(1, burst);
+        this.rate = permitsPerSecond;
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+        this.blockedUntil = lastRefill;
+    }
+
+    /**
+     * Espera hasta obtener un permiso.
+     *
+     * @param maxWait espera máxima
+     * @return {@code false} si no se pudo obtener un permiso dentro de ese tiempo
+     * @throws InterruptedException si la espera es interrumpida
+     */
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            long wait = reserve();
+            if (wait == 0) {
+                return true;
+            }
+            if (System.nanoTime() + wait > deadline) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Registra un 429: reduce la tasa y detiene las solicitudes durante {@code retryAfter}.
+     */
+    public synchronized void onThrottled(Duration retryAfter) {
+        rate = Math.max(minRate, rate / 2);
+        tokens = 0;
+        blockedUntil = Math.max(blockedUntil, System.nanoTime() + retryAfter.toNanos());
+    }
+
+    /**
+     * Registra una respuesta exitosa: la tasa se recupera de forma lineal.
+     */
+    public synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + maxRate / RECOVERY_STEPS);
+    }
+
+    /**
+     * Tasa actual en solicitudes por segundo.
+     */
+    public synchronized double currentRate() {
+        return rate;
+    }
+
+    /**
+     * Toma un permiso si hay, o devuelve cuántos nanosegundos faltan para que haya uno.
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        if (now < blockedUntil) {
+            return blockedUntil - now;
+        }
+        tokens = Math.min(burst, tokens + (now - lastRefill) * rate / 1e9);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * 1e9 / rate);
+    }
+}
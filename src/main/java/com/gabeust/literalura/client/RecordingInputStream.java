@@ -0,0 +1,43 @@
+package com.gabeust.literalura.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+/**
+ * Stream que copia los bytes leídos para poder guardar la respuesta en caché
+ * sin dejar de decodificarla en streaming.
+ */
+public class RecordingInputStream extends FilterInputStream {
+
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    public RecordingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            copy.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            copy.write(buffer, offset, n);
+        }
+        return n;
+    }
+
+    /**
+     * Devuelve los bytes leídos hasta el momento.
+     */
+    public byte[] recorded() {
+        return copy.toByteArray();
+    }
+}
@@ -0,0 +1,253 @@
+package com.gabeust.literalura.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+/**
+ * Caché de respuestas de Gutendex en dos niveles: un LRU acotado en memoria y un
+ * almacén en disco que sobrevive a reinicios.
+ * <p>
+ * Las entradas se indexan por la URL normalizada de la consulta. Una entrada es
+ * fresca durante {@code ttl}; pasado ese tiempo se conserva hasta {@code disk-ttl}
+ * para poder revalidarla con una solicitud condicional (ETag / Last-Modified).
+ */
+@Component
+public class ResponseCache {
+
+    /**
+     * Respuesta almacenada junto con los validadores enviados por el servidor.
+     */
+    public record CachedResponse(byte[] body, String etag, String lastModified, long storedAt) {}
+
+    /**
+     * Contadores de uso de la caché.
+     */
+    public record Stats(long hits, long misses, long revalidations, long evictions, int memoryEntries) {}
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration diskTtl;
+    private final Path directory;
+    private final Map<String, CachedResponse> memory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResponseCache(@Value("${literalura.cache.enabled:true}") boolean enabled,
+                         @Value("${literalura.cache.max-entries:256}") int maxEntries,
+                         @Value("${literalura.cache.ttl:PT10M}") Duration ttl,
+                         @Value("${literalura.cache.disk-ttl:P7D}") Duration diskTtl,
+                         @Value("${literalura.cache.directory:${user.home}/.literalura/cache}") Path directory) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.diskTtl = diskTtl;
+        this.directory = directory;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Caché inactiva: nunca devuelve entradas ni escribe en disco.
+     */
+    public static ResponseCache disabled() {
+        return new ResponseCache(false, 0, Duration.ZERO, Duration.ZERO, Path.of("."));
+    }
+
+    /**
+     * Normaliza una URL para usarla como clave: esquema y host en minúsculas,
+     * ruta normalizada y parámetros de la consulta ordenados.
+     *
+     * @param url URL de la consulta
+     * @return clave de caché
+     */
+    public static String normalize(String url) {
+        URI uri = URI.create(url).normalize();
+        String query = uri.getRawQuery() == null ? "" : Arrays.stream(uri.getRawQuery().split("&"))
+                .filter(param -> !param.isEmpty())
+                .sorted()
+                .collect(Collectors.joining("&"));
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        String authority = uri.getRawAuthority() == null ? "" : uri.getRawAuthority().toLowerCase();
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        return scheme + "://" + authority + path + (query.isEmpty() ? "" : "?" + query);
+    }
+
+    /**
+     * Busca una entrada primero en memoria y luego en disco. Se cuenta como
+     * acierto solo si la entrada está fresca.
+     *
+     * @param key clave normalizada
+     * @return la entrada almacenada, fresca o no, si existe
+     */
+    public Optional<CachedResponse> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedResponse entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry == null) {
+            entry = readFromDisk(key);
+            if (entry != null) {
+                synchronized (memory) {
+                    memory.put(key, entry);
+                }
+            }
+        }
+        if (entry != null && isFresh(entry)) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Indica si la entrada todavía puede servirse sin consultar al servidor.
+     */
+    public boolean isFresh(CachedResponse entry) {
+        return System.currentTimeMillis() - entry.storedAt() < ttl.toMillis();
+    }
+
+    /**
+     * Indica si una respuesta con estos encabezados se va a guardar. Cuando no,
+     * el cuerpo se decodifica sin copiarlo.
+     *
+     * @param headers encabezados de la respuesta
+     * @return {@code false} si la caché está inactiva o el servidor pidió {@code no-store}
+     */
+    public boolean accepts(HttpHeaders headers) {
+        return enabled && headers.allValues("Cache-Control").stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .noneMatch(directive -> directive.trim().equalsIgnoreCase("no-store"));
+    }
+
+    /**
+     * Guarda una respuesta en ambos niveles.
+     */
+    public void put(String key, CachedResponse entry) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        writeToDisk(key, entry);
+    }
+
+    /**
+     * Registra que el servidor confirmó (304) que la entrada sigue vigente y
+     * renueva su marca de tiempo.
+     *
+     * @return la entrada renovada
+     */
+    public CachedResponse revalidated(String key, CachedResponse entry) {
+        revalidations.incrementAndGet();
+        CachedResponse renewed = new CachedResponse(entry.body(), entry.etag(), entry.lastModified(), System.currentTimeMillis());
+        put(key, renewed);
+        return renewed;
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        return new Stats(hits.get(), misses.get(), revalidations.get(), evictions.get(), size);
+    }
+
+    private CachedResponse readFromDisk(String key) {
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            String storedKey = in.readUTF();
+            String etag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            long storedAt = in.readLong();
+            byte[] body = in.readNBytes(in.readInt());
+            if (!storedKey.equals(key)) {
+                return null;
+            }
+            if (System.currentTimeMillis() - storedAt > diskTtl.toMillis()) {
+                Files.deleteIfExists(file);
+                evictions.incrementAndGet();
+                return null;
+            }
+            return new CachedResponse(body, etag, lastModified, storedAt);
+        } catch (IOException e) {
+            // una entrada corrupta se trata como ausente
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CachedResponse entry) {
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, "entry", ".tmp");
+            try (OutputStream raw = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(raw)) {
+                out.writeUTF(key);
+                out.writeUTF(entry.etag() == null ? "" : entry.etag());
+                out.writeUTF(entry.lastModified() == null ? "" : entry.lastModified());
+                out.writeLong(entry.storedAt());
+                out.writeInt(entry.body().length);
+                out.write(entry.body());
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // el nivel en disco es opcional: si falla, la entrada queda solo en memoria
+        }
+    }
+
+    private Path fileFor(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + ".bin");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
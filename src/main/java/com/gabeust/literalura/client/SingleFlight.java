@@ -0,0 +1,98 @@
+package com.gabeust.literalura.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Deduplica llamadas en curso por clave: el primer llamador ejecuta la operación
+ * y los que llegan mientras tanto esperan el mismo resultado en lugar de repetirla.
+ * Al terminar la llamada la clave se libera, así que no actúa como caché.
+ *
+ * @param <V> tipo del resultado compartido
+ */
+public class SingleFlight<V> {
+
+    /**
+     * Operación bloqueante a deduplicar.
+     */
+    @FunctionalInterface
+    public interface Call<V> {
+        V execute() throws IOException, InterruptedException;
+    }
+
+    private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Ejecuta la operación, o espera la que ya está en curso para la misma clave.
+     *
+     * @param key  clave de la operación (por ejemplo, la URL normalizada)
+     * @param call operación a ejecutar si no hay otra en curso
+     * @return el resultado, compartido entre todos los llamadores concurrentes
+     * @throws IOException          si la operación falla con un error de entrada/salida
+     * @throws InterruptedException si la espera o la operación son interrumpidas
+     */
+    public V execute(String key, Call<V> call) throws IOException, InterruptedException {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        executions.incrementAndGet();
+        try {
+            V result = call.execute();
+            mine.complete(result);
+            return result;
+        } catch (IOException | InterruptedException | RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Cantidad de operaciones realmente ejecutadas.
+     */
+    public long executions() {
+        return executions.get();
+    }
+
+    /**
+     * Cantidad de llamadas que reutilizaron una operación en curso.
+     */
+    public long coalesced() {
+        return coalesced.get();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof InterruptedException) {
+                // quien se interrumpió fue el hilo que hacía la llamada, no este
+                throw new InterruptedIOException("La solicitud compartida fue interrumpida");
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
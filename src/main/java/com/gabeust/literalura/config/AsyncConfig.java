@@ -0,0 +1,20 @@
+package com.gabeust.literalura.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+/**
+ * Ejecutor compartido para las búsquedas asíncronas. Cada tarea corre en su
+ * propio hilo virtual; la concurrencia real contra Gutendex la limita
+ * {@link com.gabeust.literalura.ApiConsumer}.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService lookupExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lookup-", 0).factory());
+    }
+}
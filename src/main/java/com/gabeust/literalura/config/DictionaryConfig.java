@@ -0,0 +1,27 @@
+package com.gabeust.literalura.config;
+
+import com.gabeust.literalura.service.TermDictionary;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+/**
+ * Diccionarios de temas e idiomas, referenciados por id desde
+ * {@code book_subjects} y {@code book_languages}.
+ */
+@Configuration
+public class DictionaryConfig {
+
+    @Bean
+    public TermDictionary subjectDictionary(JdbcTemplate jdbcTemplate,
+                                            ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new TermDictionary("subjects", jdbcTemplate, transactionManager);
+    }
+
+    @Bean
+    public TermDictionary languageDictionary(JdbcTemplate jdbcTemplate,
+                                             ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new TermDictionary("languages", jdbcTemplate, transactionManager);
+    }
+}
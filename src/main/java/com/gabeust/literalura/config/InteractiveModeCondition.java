@@ -0,0 +1,28 @@
+package com.gabeust.literalura.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.List;
+/**
+ * Se cumple cuando la aplicación queda corriendo: el menú de consola o el modo
+ * headless. No se cumple si se la inicia con un comando que termina solo
+ * ({@code --import-catalog}, {@code --bulk-lookup}, {@code --harvest}); en esas
+ * corridas no se programan tareas periódicas ni se crea la actualización de libros
+ * en segundo plano ({@code BookRefreshService}).
+ * <p>
+ * Los argumentos {@code --opcion=valor} de la línea de comandos son propiedades del
+ * entorno, así que alcanza con ver si alguna está definida.
+ */
+public class InteractiveModeCondition implements Condition {
+
+    static final List<String> COMMANDS = List.of("import-catalog", "bulk-lookup", "harvest");
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Environment environment = context.getEnvironment();
+        return COMMANDS.stream().noneMatch(environment::containsProperty);
+    }
+}
@@ -0,0 +1,110 @@
+package com.gabeust.literalura.config;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.client.CircuitBreaker;
+import com.gabeust.literalura.client.GutendexTransport;
+import com.gabeust.literalura.client.ResponseCache;
+import com.gabeust.literalura.index.AuthorLifespanIndex;
+import com.gabeust.literalura.index.AuthorNameIndex;
+import com.gabeust.literalura.index.BookSearchIndex;
+import com.gabeust.literalura.index.CatalogSnapshotStore;
+import com.gabeust.literalura.index.DownloadLeaderboard;
+import com.gabeust.literalura.index.FacetIndex;
+import com.gabeust.literalura.index.TitleKeyIndex;
+import com.gabeust.literalura.service.AuthorIdentityCache;
+import com.gabeust.literalura.service.TermDictionary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+/**
+ * Publica como métricas de Micrometer los contadores internos de las cachés,
+ * la deduplicación de solicitudes y los índices locales.
+ * <p>
+ * Los tiempos de los métodos de servicio y de la API se miden con {@code @Timed};
+ * los de los repositorios, con las métricas automáticas de Spring Data.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCache cache) {
+        return registry -> {
+            FunctionCounter.builder("gutendex.cache.hits", cache, c -> c.stats().hits()).register(registry);
+            FunctionCounter.builder("gutendex.cache.misses", cache, c -> c.stats().misses()).register(registry);
+            FunctionCounter.builder("gutendex.cache.revalidations", cache, c -> c.stats().revalidations()).register(registry);
+            FunctionCounter.builder("gutendex.cache.evictions", cache, c -> c.stats().evictions()).register(registry);
+            Gauge.builder("gutendex.cache.entries", cache, c -> c.stats().memoryEntries()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder requestCoalescingMetrics(ApiConsumer apiConsumer) {
+        return registry -> {
+            FunctionCounter.builder("gutendex.requests.executed", apiConsumer, ApiConsumer::executedRequests).register(registry);
+            FunctionCounter.builder("gutendex.requests.coalesced", apiConsumer, ApiConsumer::coalescedRequests).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder transportMetrics(GutendexTransport transport) {
+        return registry -> {
+            FunctionCounter.builder("gutendex.http.retries", transport, t -> t.stats().retries()).register(registry);
+            FunctionCounter.builder("gutendex.http.throttled", transport, t -> t.stats().throttled()).register(registry);
+            FunctionCounter.builder("gutendex.circuit.rejected", transport, t -> t.stats().rejected()).register(registry);
+            Gauge.builder("gutendex.circuit.open", transport, t -> t.stats().circuit() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                    .register(registry);
+            Gauge.builder("gutendex.rate-limit.permits-per-second", transport, t -> t.stats().permitsPerSecond())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder authorIdentityMetrics(AuthorIdentityCache identityCache) {
+        return registry -> {
+            FunctionCounter.builder("literalura.authors.identity.hits", identityCache, c -> c.stats().hits()).register(registry);
+            FunctionCounter.builder("literalura.authors.identity.misses", identityCache, c -> c.stats().misses()).register(registry);
+            FunctionCounter.builder("literalura.authors.identity.queries", identityCache, c -> c.stats().queries()).register(registry);
+            FunctionCounter.builder("literalura.authors.identity.inserts", identityCache, c -> c.stats().inserts()).register(registry);
+            FunctionCounter.builder("literalura.authors.identity.conflicts", identityCache, c -> c.stats().conflicts()).register(registry);
+            Gauge.builder("literalura.authors.identity.entries", identityCache, c -> c.stats().size()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder dictionaryMetrics(@Qualifier("subjectDictionary") TermDictionary subjects,
+                                         @Qualifier("languageDictionary") TermDictionary languages) {
+        return registry -> {
+            Gauge.builder("literalura.dictionary.terms", subjects, TermDictionary::size)
+                    .tag("dictionary", "subjects")
+                    .register(registry);
+            Gauge.builder("literalura.dictionary.terms", languages, TermDictionary::size)
+                    .tag("dictionary", "languages")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder searchIndexMetrics(BookSearchIndex searchIndex, DownloadLeaderboard leaderboard,
+                                          FacetIndex facetIndex, AuthorLifespanIndex lifespanIndex,
+                                          AuthorNameIndex nameIndex, TitleKeyIndex titleKeyIndex,
+                                          CatalogSnapshotStore snapshotStore) {
+        return registry -> {
+            Gauge.builder("literalura.index.search.books", searchIndex, BookSearchIndex::size).register(registry);
+            Gauge.builder("literalura.index.leaderboard.books", leaderboard, l -> l.size(null)).register(registry);
+            Gauge.builder("literalura.index.facets.books", facetIndex, FacetIndex::size).register(registry);
+            Gauge.builder("literalura.index.lifespans.authors", lifespanIndex, AuthorLifespanIndex::size).register(registry);
+            Gauge.builder("literalura.index.names.authors", nameIndex, AuthorNameIndex::size).register(registry);
+            Gauge.builder("literalura.index.titles.keys", titleKeyIndex, TitleKeyIndex::size).register(registry);
+            Gauge.builder("literalura.index.facets.memory", facetIndex, FacetIndex::sizeInBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("literalura.index.snapshot.books", snapshotStore, CatalogSnapshotStore::size).register(registry);
+            Gauge.builder("literalura.index.snapshot.memory", snapshotStore, CatalogSnapshotStore::sizeInBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
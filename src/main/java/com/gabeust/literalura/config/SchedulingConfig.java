@@ -0,0 +1,15 @@
+package com.gabeust.literalura.config;
+
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+/**
+ * Habilita las tareas {@code @Scheduled} (resumen de métricas, escritura de la copia
+ * del catálogo, actualización de libros) solo en los modos interactivos. Los hilos
+ * del planificador no son daemon: en un comando que termina solo lo mantendrían vivo.
+ */
+@Configuration
+@EnableScheduling
+@Conditional(InteractiveModeCondition.class)
+public class SchedulingConfig {
+}
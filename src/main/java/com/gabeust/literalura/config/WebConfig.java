@@ -0,0 +1,25 @@
+package com.gabeust.literalura.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+/**
+ * Configuración del modo sin consola. Las respuestas de {@code /api/*} llevan un
+ * ETag calculado sobre el cuerpo; si el cliente lo envía en {@code If-None-Match}
+ * y el contenido no cambió se responde 304 sin cuerpo.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setName("etagFilter");
+        return registration;
+    }
+}
@@ -3,6 +3,12 @@ package com.gabeust.literalura.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.util.List;
+/**
+ * Libro tal como lo entrega Gutendex.
+ *
+ * @param download_count descargas según Gutendex, o {@code null} si no se conocen
+ *                       (por ejemplo, libros importados del catálogo CSV)
+ */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record BookDTO(
         Long id,
@@ -11,5 +17,5 @@ public record BookDTO(
         List<AuthorDTO> authors,
         List<String> subjects,
         List<String> languages,
-        int download_count
+        Integer download_count
 ) {}
\ No newline at end of file
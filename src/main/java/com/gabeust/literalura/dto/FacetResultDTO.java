@@ -0,0 +1,18 @@
+package com.gabeust.literalura.dto;
+
+import java.util.List;
+import java.util.Map;
+/**
+ * Resultado de un filtro por facetas sobre los libros guardados.
+ *
+ * @param total     cantidad de libros que cumplen el filtro
+ * @param books     los más descargados entre ellos, hasta el límite pedido
+ * @param languages cantidad de libros del resultado por idioma
+ * @param subjects  cantidad de libros del resultado por tema, los más frecuentes primero
+ */
+public record FacetResultDTO(
+        int total,
+        List<BookDTO> books,
+        Map<String, Integer> languages,
+        Map<String, Integer> subjects
+) {}
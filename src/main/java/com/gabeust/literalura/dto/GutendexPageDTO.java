@@ -0,0 +1,16 @@
+package com.gabeust.literalura.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+/**
+ * Página de resultados tal como la devuelve Gutendex, incluyendo el total de
+ * coincidencias y los enlaces a la página siguiente y anterior.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GutendexPageDTO(
+        int count,
+        String next,
+        String previous,
+        List<BookDTO> results
+) {}
@@ -0,0 +1,12 @@
+package com.gabeust.literalura.dto;
+
+import java.util.List;
+/**
+ * Página entregada por el recolector del catálogo. El número de página permite
+ * guardar el progreso y reanudar la recolección desde la última página procesada.
+ */
+public record HarvestedPageDTO(
+        int page,
+        int totalPages,
+        List<BookDTO> books
+) {}
@@ -0,0 +1,14 @@
+package com.gabeust.literalura.dto;
+
+import java.util.List;
+/**
+ * Página obtenida con paginación por clave (keyset): en lugar de un OFFSET se
+ * guarda el último id entregado y la siguiente página empieza después de él.
+ *
+ * @param items      elementos de la página
+ * @param nextCursor id a partir del cual pedir la siguiente página, o {@code null} si no hay más
+ */
+public record KeysetPageDTO<T>(
+        List<T> items,
+        Long nextCursor
+) {}
@@ -0,0 +1,293 @@
+package com.gabeust.literalura.importer;
+
+import com.gabeust.literalura.client.AsyncCalls;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.service.AuthorService;
+import com.gabeust.literalura.service.BookIngestService;
+import com.gabeust.literalura.service.BookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+/**
+ * Resuelve en lote un archivo de búsquedas de títulos y autores, sin pasar por el menú.
+ * <p>
+ * Cada línea es {@code title: <título>} o {@code author: <nombre>}; una línea sin
+ * prefijo se toma como título, y se ignoran las vacías y las que empiezan con
+ * {@code #}. Las búsquedas repetidas (sin contar mayúsculas ni espacios) se
+ * resuelven una sola vez. Las búsquedas corren en hilos virtuales con a lo sumo
+ * {@code literalura.bulk-lookup.max-concurrency} en curso; los libros traídos de
+ * la API se acumulan y se guardan de a {@code literalura.bulk-lookup.batch-size}.
+ * <p>
+ * Al terminar se escribe un archivo de resultados separado por tabuladores, en el
+ * orden de la entrada, y un informe con el rendimiento y los percentiles de latencia.
+ */
+@Service
+public class BulkLookupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkLookupService.class);
+
+    /**
+     * Tipo de búsqueda de una línea del archivo.
+     */
+    public enum Kind { TITLE, AUTHOR }
+
+    /**
+     * Búsqueda normalizada; dos líneas con la misma clave se resuelven una vez.
+     */
+    record Query(Kind kind, String text) {
+
+        static Query parse(String line) {
+            String trimmed = line.strip();
+            int colon = trimmed.indexOf(':');
+            if (colon > 0) {
+                String prefix = trimmed.substring(0, colon).strip().toLowerCase(Locale.ROOT);
+                String text = trimmed.substring(colon + 1).strip();
+                if (prefix.equals("title")) {
+                    return new Query(Kind.TITLE, text);
+                }
+                if (prefix.equals("author")) {
+                    return new Query(Kind.AUTHOR, text);
+                }
+            }
+            return new Query(Kind.TITLE, trimmed);
+        }
+
+        String key() {
+            return kind + ":" + text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda.
+     */
+    record Result(Query query, List<BookDTO> books, String error, long nanos) {}
+
+    /**
+     * Resumen de una corrida.
+     */
+    public record LookupReport(int lines, int queries, int found, int notFound, int failed, int saved,
+                               long elapsedMillis, double p50Millis, double p95Millis, double p99Millis,
+                               double maxMillis) {
+
+        public double queriesPerSecond() {
+            return elapsedMillis == 0 ? queries : queries * 1000.0 / elapsedMillis;
+        }
+    }
+
+    private final BookService bookService;
+    private final AuthorService authorService;
+    private final BookIngestService ingestService;
+    private final ExecutorService lookupExecutor;
+    private final int maxConcurrency;
+    private final int batchSize;
+
+    private final Map<Long, BookDTO> pending = new LinkedHashMap<>();
+    private final Object saveLock = new Object();
+    private final AtomicInteger saved = new AtomicInteger();
+
+    public BulkLookupService(BookService bookService, AuthorService authorService, BookIngestService ingestService,
+                             ExecutorService lookupExecutor,
+                             @Value("${literalura.bulk-lookup.max-concurrency:16}") int maxConcurrency,
+                             @Value("${literalura.bulk-lookup.batch-size:200}") int batchSize) {
+        this.bookService = bookService;
+        this.authorService = authorService;
+        this.ingestService = ingestService;
+        this.lookupExecutor = lookupExecutor;
+        this.maxConcurrency = maxConcurrency;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Resuelve las búsquedas del archivo y escribe los resultados en {@code output}
+     * y el informe en {@code output} con la extensión {@code .report}.
+     *
+     * @param input  archivo de búsquedas, una por línea
+     * @param output archivo de resultados
+     * @return resumen de la corrida
+     * @throws IOException si falla la lectura o la escritura de los archivos
+     * @throws InterruptedException si se interrumpe mientras espera un lugar libre
+     */
+    public LookupReport run(Path input, Path output) throws IOException, InterruptedException {
+        List<Query> lines = Files.readAllLines(input, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank() && !line.strip().startsWith("#"))
+                .map(Query::parse)
+                .filter(query -> !query.text().isEmpty())
+                .toList();
+        Map<String, Query> unique = new LinkedHashMap<>();
+        lines.forEach(query -> unique.putIfAbsent(query.key(), query));
+        log.info("Búsqueda por lote: {} líneas, {} búsquedas distintas", lines.size(), unique.size());
+
+        saved.set(0);
+        long start = System.nanoTime();
+        Semaphore slots = new Semaphore(maxConcurrency);
+        Map<String, CompletableFuture<Result>> running = new LinkedHashMap<>();
+        for (Map.Entry<String, Query> entry : unique.entrySet()) {
+            slots.acquire();
+            running.put(entry.getKey(), lookup(entry.getValue()).whenComplete((result, e) -> slots.release()));
+        }
+        Map<String, Result> results = new LinkedHashMap<>();
+        running.forEach((key, future) -> results.put(key, future.join()));
+        flush();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        writeResults(output, lines, results);
+        LookupReport report = report(lines.size(), results.values(), elapsedMillis);
+        writeReport(output.resolveSibling(output.getFileName() + ".report"), report);
+        log.info("Búsqueda por lote terminada: {} búsquedas, {} con resultados, {} sin resultados, {} con error, "
+                        + "{} libros nuevos, {} búsquedas/s, p50 {} ms, p99 {} ms",
+                report.queries(), report.found(), report.notFound(), report.failed(), report.saved(),
+                String.format("%.1f", report.queriesPerSecond()),
+                String.format("%.1f", report.p50Millis()), String.format("%.1f", report.p99Millis()));
+        return report;
+    }
+
+    private CompletableFuture<Result> lookup(Query query) {
+        long start = System.nanoTime();
+        return AsyncCalls.supply(() -> switch (query.kind()) {
+                    case TITLE -> bookService.findByTitle(query.text(), this::enqueue).stream().toList();
+                    case AUTHOR -> authorService.findByAuthor(query.text(), this::enqueue);
+                }, lookupExecutor)
+                .handle((books, e) -> e == null
+                        ? new Result(query, books, null, System.nanoTime() - start)
+                        : new Result(query, List.of(), rootMessage(e), System.nanoTime() - start));
+    }
+
+    /**
+     * Acumula libros de la API; al juntar un lote, el hilo que lo completó lo guarda.
+     */
+    private void enqueue(List<BookDTO> books) {
+        List<BookDTO> batch = null;
+        synchronized (pending) {
+            books.forEach(book -> pending.putIfAbsent(book.id(), book));
+            if (pending.size() >= batchSize) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            save(batch);
+        }
+    }
+
+    private void flush() {
+        List<BookDTO> batch;
+        synchronized (pending) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            save(batch);
+        }
+    }
+
+    private List<BookDTO> drain() {
+        List<BookDTO> batch = new ArrayList<>(pending.values());
+        pending.clear();
+        return batch;
+    }
+
+    private void save(List<BookDTO> batch) {
+        // un lote a la vez: dos lotes con el mismo libro chocarían en la clave primaria
+        synchronized (saveLock) {
+            saved.addAndGet(ingestService.saveAllIfNotExists(batch));
+        }
+    }
+
+    private static void writeResults(Path output, List<Query> lines, Map<String, Result> results) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write("kind\tquery\tstatus\tmillis\tbook_ids\ttitles");
+            writer.newLine();
+            for (Query query : lines) {
+                Result result = results.get(query.key());
+                String status = result.error() != null ? "error" : result.books().isEmpty() ? "not_found" : "found";
+                writer.write(String.join("\t",
+                        query.kind().name().toLowerCase(Locale.ROOT),
+                        clean(query.text()),
+                        status,
+                        String.format(Locale.ROOT, "%.1f", result.nanos() / 1e6),
+                        result.books().stream().map(book -> String.valueOf(book.id())).collect(Collectors.joining(",")),
+                        result.error() != null
+                                ? clean(result.error())
+                                : result.books().stream().map(book -> clean(book.title())).collect(Collectors.joining(" | "))));
+                writer.newLine();
+            }
+        }
+    }
+
+    private LookupReport report(int lines, Iterable<Result> results, long elapsedMillis) {
+        int found = 0;
+        int notFound = 0;
+        int failed = 0;
+        List<Long> nanos = new ArrayList<>();
+        for (Result result : results) {
+            if (result.error() != null) {
+                failed++;
+            } else if (result.books().isEmpty()) {
+                notFound++;
+            } else {
+                found++;
+            }
+            nanos.add(result.nanos());
+        }
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new LookupReport(lines, sorted.length, found, notFound, failed, saved.get(), elapsedMillis,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                percentile(sorted, 1.0));
+    }
+
+    private static void writeReport(Path file, LookupReport report) throws IOException {
+        Files.writeString(file, String.format(Locale.ROOT, """
+                        lines=%d
+                        queries=%d
+                        found=%d
+                        not_found=%d
+                        failed=%d
+                        books_saved=%d
+                        elapsed_ms=%d
+                        queries_per_second=%.1f
+                        latency_p50_ms=%.1f
+                        latency_p95_ms=%.1f
+                        latency_p99_ms=%.1f
+                        latency_max_ms=%.1f
+                        """,
+                report.lines(), report.queries(), report.found(), report.notFound(), report.failed(),
+                report.saved(), report.elapsedMillis(), report.queriesPerSecond(), report.p50Millis(),
+                report.p95Millis(), report.p99Millis(), report.maxMillis()), StandardCharsets.UTF_8);
+    }
+
+    /** Percentil por rango más cercano, en milisegundos. */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.clamp(rank - 1, 0, sorted.length - 1)] / 1e6;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+
+    private static String clean(String text) {
+        return text == null ? "" : text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
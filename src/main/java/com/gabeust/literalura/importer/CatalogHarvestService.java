@@ -0,0 +1,86 @@
+package com.gabeust.literalura.importer;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.dto.HarvestedPageDTO;
+import com.gabeust.literalura.service.BookIngestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+/**
+ * Recorre todas las páginas de una consulta a Gutendex y guarda los libros que
+ * todavía no están en la base, sin pasar por el menú.
+ * <p>
+ * Las páginas se descargan por adelantado con {@link ApiConsumer#harvest} (a lo
+ * sumo {@code literalura.harvest.prefetch} a la vez) y se guardan en orden, una
+ * por lote. Si la recolección se corta, el log indica la página desde la que se
+ * puede reanudar con {@code --harvest-from-page}.
+ */
+@Service
+public class CatalogHarvestService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogHarvestService.class);
+
+    /**
+     * Resumen de una recolección.
+     */
+    public record HarvestReport(int pages, int lastPage, long books, long saved, long elapsedMillis) {
+
+        public double booksPerSecond() {
+            return elapsedMillis == 0 ? books : books * 1000.0 / elapsedMillis;
+        }
+    }
+
+    private final ApiConsumer apiConsumer;
+    private final BookIngestService ingestService;
+    private final int prefetch;
+
+    public CatalogHarvestService(ApiConsumer apiConsumer, BookIngestService ingestService,
+                                 @Value("${literalura.harvest.prefetch:4}") int prefetch) {
+        this.apiConsumer = apiConsumer;
+        this.ingestService = ingestService;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Recolecta la consulta desde la página indicada y guarda los libros nuevos.
+     *
+     * @param query    parámetros de Gutendex sin el de página (por ejemplo, "languages=es"); vacío para todo el catálogo
+     * @param fromPage página desde la que se reanuda (la primera es 1)
+     * @return resumen de la recolección
+     * @throws IOException si falla la descarga de una página
+     */
+    public HarvestReport harvest(String query, int fromPage) throws IOException {
+        long start = System.nanoTime();
+        int pages = 0;
+        int lastPage = fromPage - 1;
+        long books = 0;
+        long saved = 0;
+        try (Stream<HarvestedPageDTO> stream = apiConsumer.harvest(query, fromPage, prefetch)) {
+            Iterator<HarvestedPageDTO> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                HarvestedPageDTO page = iterator.next();
+                saved += ingestService.saveAllIfNotExists(page.books());
+                books += page.books().size();
+                pages++;
+                lastPage = page.page();
+                log.info("Recolección: página {} de {}, {} libros nuevos en total", page.page(), page.totalPages(), saved);
+            }
+        } catch (UncheckedIOException e) {
+            log.warn("Recolección interrumpida después de la página {}; se puede reanudar con --harvest-from-page={}",
+                    lastPage, lastPage + 1);
+            throw e.getCause();
+        }
+
+        HarvestReport report = new HarvestReport(pages, lastPage, books, saved, (System.nanoTime() - start) / 1_000_000);
+        log.info("Recolección terminada: {} páginas, {} libros, {} nuevos en {} ms ({} libros/s)",
+                report.pages(), report.books(), report.saved(), report.elapsedMillis(),
+                String.format("%.1f", report.booksPerSecond()));
+        return report;
+    }
+}
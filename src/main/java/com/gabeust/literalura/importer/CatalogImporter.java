@@ -0,0 +1,138 @@
+package com.gabeust.literalura.importer;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.service.BookIngestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+/**
+ * Importa un volcado local del catálogo de Project Gutenberg sin acceso a la red.
+ * <p>
+ * El archivo se lee de forma secuencial con un canal NIO y un buffer grande; los
+ * registros se agrupan en lotes, cada lote se parsea en paralelo y se guarda con
+ * la ingesta por lotes. Después de cada lote confirmado se escribe un punto de
+ * control con la cantidad de registros procesados, de modo que una importación
+ * interrumpida se reanuda desde el último lote guardado.
+ */
+@Service
+public class CatalogImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImporter.class);
+
+    /**
+     * Resumen de una importación.
+     */
+    public record ImportReport(long records, long skipped, long saved, long elapsedMillis) {
+
+        public double recordsPerSecond() {
+            return elapsedMillis == 0 ? records : records * 1000.0 / elapsedMillis;
+        }
+    }
+
+    private final BookIngestService ingestService;
+    private final int batchSize;
+
+    public CatalogImporter(BookIngestService ingestService,
+                           @Value("${literalura.import.batch-size:1000}") int batchSize) {
+        this.ingestService = ingestService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importa el catálogo CSV indicado, reanudando desde el punto de control si existe.
+     *
+     * @param csv ruta a {@code pg_catalog.csv}
+     * @return resumen de la importación
+     * @throws IOException si falla la lectura del archivo o del punto de control
+     */
+    public ImportReport importCsv(Path csv) throws IOException {
+        Path checkpoint = csv.resolveSibling(csv.getFileName() + ".checkpoint");
+        long resumeAt = readCheckpoint(checkpoint);
+        if (resumeAt > 0) {
+            log.info("Reanudando la importación después de {} registros", resumeAt);
+        }
+
+        long start = System.nanoTime();
+        long records = 0;
+        long saved = 0;
+
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ);
+             Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8);
+             CsvRecordReader csvReader = new CsvRecordReader(reader)) {
+
+            // la primera línea es el encabezado
+            csvReader.nextRecord();
+            for (long i = 0; i < resumeAt && csvReader.nextRecord() != null; i++) {
+                records++;
+            }
+
+            List<String> batch = new ArrayList<>(batchSize);
+            String record;
+            while ((record = csvReader.nextRecord()) != null) {
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    saved += importBatch(batch);
+                    records += batch.size();
+                    writeCheckpoint(checkpoint, records);
+                    logProgress(records - resumeAt, saved, start);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                saved += importBatch(batch);
+                records += batch.size();
+            }
+        }
+
+        // la importación terminó: la próxima empieza de cero
+        Files.deleteIfExists(checkpoint);
+        long imported = records - resumeAt;
+        ImportReport report = new ImportReport(imported, imported - saved, saved, (System.nanoTime() - start) / 1_000_000);
+        log.info("Importación terminada: {} registros, {} libros nuevos, {} omitidos, {} registros/s",
+                report.records(), report.saved(), report.skipped(), String.format("%.0f", report.recordsPerSecond()));
+        return report;
+    }
+
+    private int importBatch(List<String> records) {
+        List<BookDTO> books = records.parallelStream()
+                .map(CsvRecordReader::splitFields)
+                .map(GutenbergCatalogMapper::toDTO)
+                .filter(Objects::nonNull)
+                .toList();
+        return ingestService.saveAllIfNotExists(books);
+    }
+
+    private void logProgress(long records, long saved, long start) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        log.info("Importados {} registros ({} libros nuevos), {} registros/s",
+                records, saved, String.format("%.0f", records / seconds));
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(checkpoint).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long records) throws IOException {
+        Files.writeString(checkpoint, Long.toString(records));
+    }
+}
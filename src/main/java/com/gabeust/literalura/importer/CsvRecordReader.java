@@ -0,0 +1,95 @@
+package com.gabeust.literalura.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Lector secuencial de registros CSV (RFC 4180) que respeta los campos entre
+ * comillas con saltos de línea. Solo separa registros; el parseo de los campos
+ * se hace después, en paralelo, con {@link #splitFields(String)}.
+ */
+public class CsvRecordReader implements AutoCloseable {
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lee el siguiente registro completo, sin el salto de línea final.
+     *
+     * @return el texto del registro o {@code null} al llegar al final del archivo
+     * @throws IOException si falla la lectura
+     */
+    public String nextRecord() throws IOException {
+        StringBuilder record = new StringBuilder(256);
+        boolean inQuotes = false;
+        boolean any = false;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return any ? record.toString() : null;
+                }
+            }
+            char c = buffer[position++];
+            any = true;
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (!inQuotes && c == '\n') {
+                int length = record.length();
+                if (length > 0 && record.charAt(length - 1) == '\r') {
+                    record.setLength(length - 1);
+                }
+                return record.toString();
+            }
+            record.append(c);
+        }
+    }
+
+    /**
+     * Separa un registro en sus campos, quitando las comillas y resolviendo las
+     * comillas dobles escapadas.
+     */
+    public static String[] splitFields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
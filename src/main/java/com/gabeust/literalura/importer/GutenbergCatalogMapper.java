@@ -0,0 +1,124 @@
+package com.gabeust.literalura.importer;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+/**
+ * Convierte los registros del catálogo CSV de Project Gutenberg
+ * ({@code pg_catalog.csv}) al mismo {@link BookDTO} que entrega Gutendex, para
+ * que la importación reutilice la misma ruta de guardado que las búsquedas.
+ * <p>
+ * Columnas esperadas: Text#, Type, Issued, Title, Language, Authors, Subjects,
+ * LoCC, Bookshelves.
+ * <p>
+ * Los textos se recortan al largo de sus columnas: hay títulos del catálogo más
+ * largos que {@code books.title}, y con el modo estricto de MySQL un solo valor
+ * demasiado largo hace fallar el lote entero.
+ */
+public final class GutenbergCatalogMapper {
+
+    private static final int ID = 0;
+    private static final int TYPE = 1;
+    private static final int TITLE = 3;
+    private static final int LANGUAGE = 4;
+    private static final int AUTHORS = 5;
+    private static final int SUBJECTS = 6;
+
+    static final int TITLE_LENGTH = 255;
+    static final int NAME_LENGTH = 255;
+    static final int SUBJECT_LENGTH = 512;
+    static final int LANGUAGE_LENGTH = 32;
+
+    // "1564-1616", "1849?-1922", "-1550", "1800-", "65 BCE-8 BCE"
+    private static final Pattern YEARS = Pattern.compile(
+            "^(\\d{1,4})?\\??\\s*(BCE)?\\s*-\\s*(\\d{1,4})?\\??\\s*(BCE)?$");
+    private static final Pattern ROLE = Pattern.compile("\\s*\\[[^]]*]\\s*$");
+
+    private GutenbergCatalogMapper() {
+    }
+
+    /**
+     * @param fields campos del registro
+     * @return el libro, o {@code null} si el registro no es un texto o está incompleto
+     */
+    public static BookDTO toDTO(String[] fields) {
+        if (fields.length <= SUBJECTS || !"Text".equals(fields[TYPE])) {
+            return null;
+        }
+        long id;
+        try {
+            id = Long.parseLong(fields[ID].trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return new BookDTO(
+                id,
+                truncate(fields[TITLE].replace("\r", "").trim(), TITLE_LENGTH),
+                new ArrayList<>(),
+                parseAuthors(fields[AUTHORS]),
+                splitList(fields[SUBJECTS], SUBJECT_LENGTH),
+                splitList(fields[LANGUAGE], LANGUAGE_LENGTH),
+                // el catálogo no trae descargas; las completa la actualización periódica
+                null
+        );
+    }
+
+    static List<AuthorDTO> parseAuthors(String field) {
+        List<AuthorDTO> authors = new ArrayList<>();
+        for (String entry : splitList(field, Integer.MAX_VALUE)) {
+            String author = ROLE.matcher(entry).replaceAll("");
+            Integer birth = null;
+            Integer death = null;
+            int lastComma = author.lastIndexOf(',');
+            if (lastComma > 0) {
+                Matcher years = YEARS.matcher(author.substring(lastComma + 1).trim());
+                if (years.matches()) {
+                    birth = year(years.group(1), years.group(2) != null);
+                    death = year(years.group(3), years.group(4) != null);
+                    author = author.substring(0, lastComma).trim();
+                }
+            }
+            if (!author.isEmpty()) {
+                authors.add(new AuthorDTO(null, truncate(author, NAME_LENGTH), birth, death));
+            }
+        }
+        return authors;
+    }
+
+    private static Integer year(String digits, boolean beforeCommonEra) {
+        if (digits == null) {
+            return null;
+        }
+        int year = Integer.parseInt(digits);
+        // Gutendex representa los años antes de la era común como negativos
+        return beforeCommonEra ? -year : year;
+    }
+
+    private static List<String> splitList(String field, int maxLength) {
+        if (field == null || field.isBlank()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.stream(field.split(";"))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(value -> truncate(value, maxLength))
+                .distinct()
+                .toList());
+    }
+
+    /**
+     * Recorta el texto a {@code maxLength} caracteres sin partir un par sustituto.
+     */
+    static String truncate(String value, int maxLength) {
+        if (value.length() <= maxLength) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return value.substring(0, end).trim();
+    }
+}
@@ -0,0 +1,242 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * Índice de intervalos sobre los años de vida de los autores guardados, con los
+ * libros de cada uno, para responder "autores vivos entre dos años" sin consultas.
+ * <p>
+ * Los autores se ordenan por año de nacimiento en arreglos primitivos y sobre los
+ * años de muerte se arma un árbol de segmentos con el máximo de cada rango. Un autor
+ * estuvo vivo en algún momento de [desde, hasta] si nació hasta {@code hasta} y murió
+ * desde {@code desde} (o no tiene año de muerte): la primera condición es un prefijo
+ * del arreglo y la segunda se resuelve descendiendo solo por las ramas cuyo máximo
+ * la cumple, en O(log n + resultados). Ambos extremos del rango se incluyen.
+ * <p>
+ * Los autores sin año de nacimiento no se indexan y nunca aparecen en las
+ * respuestas, igual que en la consulta equivalente a la base
+ * ({@code BookRepository#findIdsByAuthorAliveBetween}): sin ese año no se puede
+ * saber si ya habían nacido al final del rango.
+ * <p>
+ * Las altas solo marcan el índice como desactualizado; los arreglos se reconstruyen
+ * en la siguiente consulta, así una ingesta por lotes no paga una reconstrucción por libro.
+ */
+@Component
+public class AuthorLifespanIndex implements CatalogIndex {
+
+    private static final int ALIVE = Integer.MAX_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, AuthorDTO> authors = new HashMap<>();
+    private final Map<Long, Set<Long>> booksByAuthor = new HashMap<>();
+    private final Map<Long, Set<Long>> authorsByBook = new HashMap<>();
+
+    private volatile boolean dirty;
+    private long[] ids = new long[0];
+    private int[] births = new int[0];
+    private int[] deaths = new int[0];
+    private int[] maxDeath = new int[0];
+
+    @Override
+    public void index(Collection<BookDTO> books) {
+        lock.writeLock().lock();
+        try {
+            for (BookDTO book : books) {
+                unlink(book.id());
+                Set<Long> linked = new HashSet<>();
+                if (book.authors() != null) {
+                    for (AuthorDTO author : book.authors()) {
+                        if (author.id() == null || author.birthYear() == null) {
+                            continue;
+                        }
+                        authors.put(author.id(), author);
+                        booksByAuthor.computeIfAbsent(author.id(), id -> new HashSet<>()).add(book.id());
+                        linked.add(author.id());
+                    }
+                }
+                if (!linked.isEmpty()) {
+                    authorsByBook.put(book.id(), linked);
+                }
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Autores vivos en algún momento del rango, ordenados por año de nacimiento.
+     *
+     * @param startYear primer año del rango
+     * @param endYear   último año del rango
+     */
+    public List<AuthorDTO> authorsAliveBetween(int startYear, int endYear) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            List<AuthorDTO> found = new ArrayList<>();
+            for (int position : positionsAliveBetween(startYear, endYear)) {
+                // un autor dado de baja sigue en los arreglos hasta la próxima reconstrucción
+                AuthorDTO author = authors.get(ids[position]);
+                if (author != null) {
+                    found.add(author);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de los libros de los autores vivos en algún momento del rango.
+     *
+     * @param startYear primer año del rango
+     * @param endYear   último año del rango
+     */
+    public Set<Long> booksByAuthorsAliveBetween(int startYear, int endYear) {
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            Set<Long> found = new LinkedHashSet<>();
+            for (int position : positionsAliveBetween(startYear, endYear)) {
+                found.addAll(booksByAuthor.getOrDefault(ids[position], Set.of()));
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de autores indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return authors.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] positionsAliveBetween(int startYear, int endYear) {
+        if (startYear > endYear) {
+            return new int[0];
+        }
+        // nacidos hasta endYear: prefijo [0, limit) del arreglo ordenado
+        int limit = upperBound(births, endYear);
+        int[] found = new int[limit];
+        int count = collect(1, 0, ids.length, limit, startYear, found, 0);
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Recorre el árbol de segmentos juntando las posiciones menores que {@code limit}
+     * cuyo año de muerte es al menos {@code minDeath}.
+     */
+    private int collect(int node, int from, int to, int limit, int minDeath, int[] found, int count) {
+        if (from >= limit || to <= from || maxDeath[node] < minDeath) {
+            return count;
+        }
+        if (to - from == 1) {
+            found[count++] = from;
+            return count;
+        }
+        int middle = (from + to) >>> 1;
+        count = collect(2 * node, from, middle, limit, minDeath, found, count);
+        return collect(2 * node + 1, middle, to, limit, minDeath, found, count);
+    }
+
+    private void ensureBuilt() {
+        if (!dirty) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (dirty) {
+                rebuild();
+                dirty = false;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        AuthorDTO[] sorted = authors.values().toArray(AuthorDTO[]::new);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.birthYear(), b.birthYear()));
+        int n = sorted.length;
+        ids = new long[n];
+        births = new int[n];
+        deaths = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = sorted[i].id();
+            births[i] = sorted[i].birthYear();
+            deaths[i] = sorted[i].deathYear() == null ? ALIVE : sorted[i].deathYear();
+        }
+        maxDeath = new int[Math.max(2, 4 * n)];
+        Arrays.fill(maxDeath, Integer.MIN_VALUE);
+        if (n > 0) {
+            build(1, 0, n);
+        }
+    }
+
+    private int build(int node, int from, int to) {
+        if (to - from == 1) {
+            maxDeath[node] = deaths[from];
+        } else {
+            int middle = (from + to) >>> 1;
+            maxDeath[node] = Math.max(build(2 * node, from, middle), build(2 * node + 1, middle, to));
+        }
+        return maxDeath[node];
+    }
+
+    private void unlink(long bookId) {
+        Set<Long> previous = authorsByBook.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        for (Long authorId : previous) {
+            Set<Long> books = booksByAuthor.get(authorId);
+            if (books != null) {
+                books.remove(bookId);
+                if (books.isEmpty()) {
+                    booksByAuthor.remove(authorId);
+                    authors.remove(authorId);
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Cantidad de elementos menores o iguales que {@code value} en el arreglo ordenado.
+     */
+    private static int upperBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
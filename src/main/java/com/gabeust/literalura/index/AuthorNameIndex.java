@@ -0,0 +1,208 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * Índice de trigramas sobre los nombres de los autores guardados, para buscarlos
+ * con errores de tipeo y sin importar el orden de las palabras: Gutendex los
+ * escribe "Apellido, Nombre", pero "miguel cervantes" también debe encontrar a
+ * "Cervantes Saavedra, Miguel de".
+ * <p>
+ * Cada palabra del nombre, normalizada con {@link TextNormalizer}, se rodea de
+ * espacios y se parte en trigramas; el nombre es el conjunto de los trigramas de
+ * todas sus palabras, así que el orden no cuenta. Al buscar se cuentan los
+ * trigramas en común con cada autor recorriendo solo las listas de los trigramas
+ * de la consulta, y se ordena por el coeficiente de Dice
+ * {@code 2·comunes / (trigramas de la consulta + trigramas del nombre)}.
+ * <p>
+ * Los nombres de autor no cambian, así que un alta con un id ya indexado se ignora.
+ */
+@Component
+public class AuthorNameIndex implements CatalogIndex {
+
+    /**
+     * Similitud mínima para que un autor cuente como coincidencia.
+     */
+    static final double MIN_SCORE = 0.3;
+
+    /**
+     * Autor encontrado.
+     *
+     * @param authorId id del autor en la base
+     * @param name     nombre tal como está guardado
+     * @param score    similitud entre 0 y 1; mayor es mejor
+     */
+    public record Match(long authorId, String name, double score) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final Map<Long, SlotList> postings = new HashMap<>();
+    private long[] ids = new long[256];
+    private String[] names = new String[256];
+    private int[] trigramCounts = new int[256];
+    private int size;
+
+    @Override
+    public void index(Collection<BookDTO> books) {
+        lock.writeLock().lock();
+        try {
+            for (BookDTO book : books) {
+                if (book.authors() == null) {
+                    continue;
+                }
+                for (AuthorDTO author : book.authors()) {
+                    if (author.id() != null) {
+                        addLocked(author.id(), author.name());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega un autor recién creado, antes de que sus libros se confirmen.
+     *
+     * @param id   id del autor en la base
+     * @param name nombre del autor
+     */
+    public void add(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            addLocked(id, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Autores cuyo nombre se parece a la consulta.
+     *
+     * @param query nombre completo o parcial, en cualquier orden; se ignoran acentos y mayúsculas
+     * @param limit cantidad máxima de resultados
+     * @return coincidencias de mayor a menor similitud
+     */
+    public List<Match> search(String query, int limit) {
+        long[] wanted = trigrams(query);
+        if (wanted.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int[] common = new int[size];
+            for (long trigram : wanted) {
+                SlotList withTrigram = postings.get(trigram);
+                if (withTrigram == null) {
+                    continue;
+                }
+                for (int i = 0; i < withTrigram.size; i++) {
+                    common[withTrigram.slots[i]]++;
+                }
+            }
+
+            Comparator<Match> byScore = Comparator.comparingDouble(Match::score)
+                    .thenComparing(Match::name, Comparator.reverseOrder());
+            PriorityQueue<Match> best = new PriorityQueue<>(byScore);
+            for (int slot = 0; slot < size; slot++) {
+                if (common[slot] == 0) {
+                    continue;
+                }
+                double score = 2.0 * common[slot] / (wanted.length + trigramCounts[slot]);
+                if (score < MIN_SCORE) {
+                    continue;
+                }
+                Match match = new Match(ids[slot], names[slot], score);
+                if (best.size() < limit) {
+                    best.add(match);
+                } else if (byScore.compare(match, best.peek()) > 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+            List<Match> ranked = new ArrayList<>(best);
+            ranked.sort(byScore.reversed());
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de autores indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(long id, String name) {
+        if (name == null || slots.containsKey(id)) {
+            return;
+        }
+        long[] nameTrigrams = trigrams(name);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+            trigramCounts = Arrays.copyOf(trigramCounts, size * 2);
+        }
+        int slot = size++;
+        ids[slot] = id;
+        names[slot] = name;
+        trigramCounts[slot] = nameTrigrams.length;
+        slots.put(id, slot);
+        for (long trigram : nameTrigrams) {
+            postings.computeIfAbsent(trigram, t -> new SlotList()).add(slot);
+        }
+    }
+
+    /**
+     * Trigramas distintos de las palabras del texto, cada uno empaquetado en un
+     * {@code long} de tres caracteres de 16 bits.
+     */
+    static long[] trigrams(String text) {
+        List<String> tokens = TextNormalizer.tokens(text);
+        long[] result = new long[0];
+        int count = 0;
+        for (String token : tokens) {
+            String padded = " " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                long trigram = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, Math.max(8, count * 2));
+                }
+                result[count++] = trigram;
+            }
+        }
+        return Arrays.stream(result, 0, count).distinct().toArray();
+    }
+
+    /** Posiciones de los autores que contienen un trigrama, en orden de alta. */
+    private static final class SlotList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * Índice invertido en memoria sobre título, autores, temas y resúmenes de los
+ * libros guardados, para responder búsquedas sin salir a la red.
+ * <p>
+ * Cada libro ocupa una posición en arreglos paralelos y cada término guarda una
+ * lista de (posición, peso). El peso suma las apariciones del término ponderadas
+ * según el campo, y al buscar se multiplica por el IDF del término; los puntajes
+ * se acumulan en arreglos indexados por posición. Los libros que contienen todas
+ * las palabras de la consulta quedan primero.
+ * <p>
+ * Reindexar o quitar un libro solo marca su posición anterior en un
+ * {@link BitSet}; las listas se depuran de una vez cuando las posiciones
+ * marcadas superan un cuarto del total.
+ */
+@Component
+public class BookSearchIndex implements CatalogIndex {
+
+    private static final float TITLE_WEIGHT = 4f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float SUBJECT_WEIGHT = 1f;
+    private static final float SUMMARY_WEIGHT = 0.25f;
+
+    /**
+     * Resultado de una búsqueda.
+     *
+     * @param bookId id del libro
+     * @param title  título tal como está guardado
+     * @param score  relevancia; mayor es mejor
+     */
+    public record SearchHit(long bookId, String title, double score) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    /** Posición vigente de cada libro en los arreglos de abajo. */
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] titles = new String[1024];
+    private String[][] termsByPosition = new String[1024][];
+    /** Posiciones de libros quitados o reindexados; se descartan al compactar. */
+    private final BitSet removed = new BitSet();
+    private int count;
+
+    @Override
+    public void index(Collection<BookDTO> books) {
+        lock.writeLock().lock();
+        try {
+            for (BookDTO book : books) {
+                remove(book.id());
+                Map<String, Float> weights = weigh(book);
+                int position = append(book.id(), book.title(), weights.keySet().toArray(String[]::new));
+                weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Postings()).add(position, weight));
+            }
+            if (removed.cardinality() > Math.max(1024, count / 4)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los libros más relevantes para la consulta.
+     *
+     * @param query texto libre; se ignoran acentos, mayúsculas y puntuación
+     * @param limit cantidad máxima de resultados
+     * @return resultados ordenados de mayor a menor relevancia
+     */
+    public List<SearchHit> search(String query, int limit) {
+        Set<String> terms = new HashSet<>(TextNormalizer.tokens(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int documents = Math.max(1, positions.size());
+            // acumuladores por posición: sin mapas ni objetos por libro
+            double[] scores = new double[count];
+            int[] matches = new int[count];
+            int candidates = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (double) documents / list.live);
+                for (int i = 0; i < list.size; i++) {
+                    int position = list.positions[i];
+                    if (removed.get(position)) {
+                        continue;
+                    }
+                    if (matches[position]++ == 0) {
+                        candidates++;
+                    }
+                    scores[position] += list.weights[i] * idf;
+                }
+            }
+
+            TopHits top = new TopHits(Math.min(limit, candidates), matches, scores);
+            for (int position = 0; position < count; position++) {
+                if (matches[position] > 0) {
+                    top.offer(position);
+                }
+            }
+            int[] ranked = top.drainBestFirst();
+            List<SearchHit> hits = new ArrayList<>(ranked.length);
+            for (int position : ranked) {
+                double coverage = (double) matches[position] / terms.size();
+                hits.add(new SearchHit(ids[position], titles[position], scores[position] * coverage));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de libros indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int append(long bookId, String title, String[] terms) {
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+            titles = Arrays.copyOf(titles, count * 2);
+            termsByPosition = Arrays.copyOf(termsByPosition, count * 2);
+        }
+        ids[count] = bookId;
+        titles[count] = title;
+        termsByPosition[count] = terms;
+        positions.put(bookId, count);
+        return count++;
+    }
+
+    /**
+     * Marca la posición del libro como quitada: las listas de ocurrencias la
+     * conservan hasta la próxima compactación y la búsqueda la saltea.
+     */
+    private void remove(long bookId) {
+        Integer position = positions.remove(bookId);
+        if (position == null) {
+            return;
+        }
+        removed.set(position);
+        for (String term : termsByPosition[position]) {
+            Postings list = postings.get(term);
+            if (list != null && --list.live == 0) {
+                postings.remove(term);
+            }
+        }
+        titles[position] = null;
+        termsByPosition[position] = null;
+    }
+
+    /**
+     * Reasigna posiciones consecutivas a los libros vigentes y quita de las listas
+     * las posiciones marcadas. Las listas siguen ordenadas por posición.
+     */
+    private void compact() {
+        int[] moved = new int[count];
+        int next = 0;
+        for (int position = 0; position < count; position++) {
+            if (removed.get(position)) {
+                moved[position] = -1;
+                continue;
+            }
+            moved[position] = next;
+            ids[next] = ids[position];
+            titles[next] = titles[position];
+            termsByPosition[next] = termsByPosition[position];
+            positions.put(ids[next], next);
+            next++;
+        }
+        Arrays.fill(titles, next, count, null);
+        Arrays.fill(termsByPosition, next, count, null);
+        for (Postings list : postings.values()) {
+            list.remap(moved);
+        }
+        count = next;
+        removed.clear();
+    }
+
+    private static Map<String, Float> weigh(BookDTO book) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, book.title(), TITLE_WEIGHT);
+        if (book.authors() != null) {
+            for (AuthorDTO author : book.authors()) {
+                addTerms(weights, author.name(), AUTHOR_WEIGHT);
+            }
+        }
+        addAll(weights, book.subjects(), SUBJECT_WEIGHT);
+        addAll(weights, book.summaries(), SUMMARY_WEIGHT);
+        return weights;
+    }
+
+    private static void addAll(Map<String, Float> weights, List<String> texts, float weight) {
+        if (texts != null) {
+            texts.forEach(text -> addTerms(weights, text, weight));
+        }
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String token : TextNormalizer.tokens(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Lista de ocurrencias de un término en arreglos primitivos paralelos, en orden
+     * creciente de posición. {@code live} descuenta las posiciones quitadas.
+     */
+    private static final class Postings {
+        private int[] positions = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+        private int live;
+
+        void add(int position, float weight) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            positions[size] = position;
+            weights[size] = weight;
+            size++;
+            live++;
+        }
+
+        void remap(int[] moved) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int position = moved[positions[i]];
+                if (position >= 0) {
+                    positions[kept] = position;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    /**
+     * Los {@code limit} mejores candidatos en un montículo de posiciones: primero
+     * los que cubren más términos de la consulta y luego los de mayor puntaje.
+     */
+    private static final class TopHits {
+        private final int[] heap;
+        private final int[] matches;
+        private final double[] scores;
+        private int size;
+
+        TopHits(int limit, int[] matches, double[] scores) {
+            this.heap = new int[limit];
+            this.matches = matches;
+            this.scores = scores;
+        }
+
+        void offer(int position) {
+            if (heap.length == 0) {
+                return;
+            }
+            if (size < heap.length) {
+                heap[size] = position;
+                siftUp(size++);
+            } else if (better(position, heap[0])) {
+                heap[0] = position;
+                siftDown(0);
+            }
+        }
+
+        int[] drainBestFirst() {
+            int[] ranked = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ranked[i] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return ranked;
+        }
+
+        private boolean better(int a, int b) {
+            return matches[a] != matches[b] ? matches[a] > matches[b] : scores[a] > scores[b];
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(heap[parent], heap[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && better(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < size && better(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
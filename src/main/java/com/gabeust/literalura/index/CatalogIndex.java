@@ -0,0 +1,36 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+
+import java.util.Collection;
+/**
+ * Índice en memoria construido a partir de los libros guardados. Se carga al
+ * iniciar y se actualiza cada vez que se guardan libros nuevos.
+ */
+public interface CatalogIndex {
+
+    /**
+     * Agrega o reemplaza los libros en el índice. Los autores de cada libro
+     * llegan con su id de la base de datos.
+     *
+     * @param books libros a indexar
+     */
+    void index(Collection<BookDTO> books);
+
+    /**
+     * Agrega o reemplaza libros recién guardados, que pueden llegar mientras corre
+     * la carga inicial y en cualquier orden. Por defecto equivale a {@link #index(Collection)}.
+     *
+     * @param books libros confirmados en la base
+     */
+    default void indexSaved(Collection<BookDTO> books) {
+        index(books);
+    }
+
+    /**
+     * Se invoca una vez, cuando la carga inicial terminó de recorrer los libros
+     * guardados. Los índices que no distinguen la carga inicial lo ignoran.
+     */
+    default void warmUpCompleted() {
+    }
+}
@@ -0,0 +1,114 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import com.gabeust.literalura.mapper.BookMapper;
+import com.gabeust.literalura.model.Book;
+import com.gabeust.literalura.repository.BookRepository;
+import com.gabeust.literalura.service.BooksSavedEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+/**
+ * Mantiene sincronizados los índices en memoria con la base de datos: los carga
+ * al iniciar recorriendo los libros guardados por páginas y les reenvía los
+ * libros nuevos después de cada ingesta confirmada.
+ * <p>
+ * Se crea al iniciar aun con inicialización perezosa, para que la carga empiece
+ * antes de la primera consulta.
+ */
+@Component
+@Lazy(false)
+public class CatalogIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexer.class);
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<CatalogIndex> indexes;
+    private final int pageSize;
+
+    private volatile boolean ready;
+
+    public CatalogIndexer(BookRepository bookRepository,
+                          PlatformTransactionManager transactionManager,
+                          List<CatalogIndex> indexes,
+                          @Value("${literalura.index.warm-up-page-size:500}") int pageSize) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.indexes = indexes;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * La carga inicial corre en un hilo virtual para no demorar el arranque;
+     * mientras tanto los servicios siguen respondiendo con la API.
+     */
+    @PostConstruct
+    void startWarmUp() {
+        Thread.ofVirtual().name("catalog-index-warm-up").start(this::warmUp);
+    }
+
+    /**
+     * Indica si la carga inicial terminó y los índices reflejan todo lo guardado.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksSaved(BooksSavedEvent event) {
+        if (event.books().isEmpty()) {
+            return;
+        }
+        for (CatalogIndex index : indexes) {
+            index.indexSaved(event.books());
+        }
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        long total = 0;
+        try {
+            Long cursor = 0L;
+            while (cursor != null) {
+                KeysetPageDTO<BookDTO> page = loadPage(cursor);
+                dispatch(page.items());
+                total += page.items().size();
+                cursor = page.nextCursor();
+            }
+            indexes.forEach(CatalogIndex::warmUpCompleted);
+            ready = true;
+            log.info("Índices locales cargados: {} libros en {} ms", total, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron cargar los índices locales; se seguirá usando la API", e);
+        }
+    }
+
+    private KeysetPageDTO<BookDTO> loadPage(long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Book> books = bookRepository.findPageAfter(afterId, Limit.of(pageSize));
+            List<BookDTO> items = books.stream().map(BookMapper::toDTO).toList();
+            Long next = books.size() < pageSize ? null : books.get(books.size() - 1).getId();
+            return new KeysetPageDTO<>(items, next);
+        });
+    }
+
+    private void dispatch(List<BookDTO> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        for (CatalogIndex index : indexes) {
+            index.index(books);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+/**
+ * Mantiene una {@link ColumnarCatalog} de los libros guardados y la persiste en
+ * disco, para poder responder lecturas apenas arranca la aplicación, antes de que
+ * termine la carga de los demás índices y sin consultar la base.
+ * <p>
+ * Al iniciar se mapea el archivo de la última ejecución, pero solo se usa si
+ * corresponde a la base actual: la cabecera guarda un hash de
+ * {@code spring.datasource.url} y la cantidad de libros y el mayor id tienen que
+ * coincidir con los de la tabla {@code books}. Si no coincide, o no se puede
+ * comprobar, no se sirve nada hasta que termine la carga inicial.
+ * <p>
+ * La carga inicial arma una copia nueva por columnas, sin retener los libros; al
+ * terminar se guarda y se vuelve a mapear, de modo que los datos quedan fuera del
+ * heap. Los libros guardados mientras tanto se combinan en la copia del arranque
+ * y se vuelven a aplicar sobre la nueva; los guardados después se combinan en la
+ * copia y el archivo se reescribe cada {@code literalura.snapshot.write-interval}
+ * si hubo cambios.
+ */
+@Component
+@Lazy(false)
+public class CatalogSnapshotStore implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private final boolean enabled;
+    private final Path file;
+    private final String source;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile ColumnarCatalog current;
+    private ColumnarCatalog.Builder warmUp;
+    private List<BookDTO> outOfOrder = new ArrayList<>();
+    private boolean dirty;
+
+    public CatalogSnapshotStore(@Value("${literalura.snapshot.enabled:true}") boolean enabled,
+                                @Value("${literalura.snapshot.file:${user.home}/.literalura/catalog.snapshot}") Path file,
+                                @Value("${spring.datasource.url:}") String datasourceUrl,
+                                JdbcTemplate jdbcTemplate) {
+        this.enabled = enabled;
+        this.file = file;
+        this.source = sha256(datasourceUrl);
+        this.jdbcTemplate = jdbcTemplate;
+        this.warmUp = new ColumnarCatalog.Builder(source);
+    }
+
+    @PostConstruct
+    void load() {
+        if (!enabled || !Files.exists(file)) {
+            return;
+        }
+        long start = System.nanoTime();
+        ColumnarCatalog snapshot;
+        try {
+            snapshot = ColumnarCatalog.map(file);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("No se pudo abrir la copia del catálogo {}; se usará la base", file, e);
+            return;
+        }
+        if (!snapshot.source().equals(source)) {
+            log.info("La copia del catálogo {} es de otra base; se descarta", file);
+            return;
+        }
+        try {
+            // una sola lectura del índice primario: cuesta milisegundos aun con todo el catálogo
+            long[] books = jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(MAX(id), 0) FROM books",
+                    (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+            if (books[0] != snapshot.size() || books[1] != snapshot.maxId()) {
+                log.info("La copia del catálogo está desactualizada ({} libros, id máximo {}; la base tiene {} y {}); "
+                        + "se descarta", snapshot.size(), snapshot.maxId(), books[0], books[1]);
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudo comprobar la copia del catálogo contra la base; se descarta", e);
+            return;
+        }
+        current = snapshot;
+        log.info("Copia del catálogo abierta: {} libros en {} ms", current.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * La copia más reciente: la del arranque anterior si coincide con la base, o la
+     * armada por la carga inicial una vez que terminó.
+     */
+    public Optional<ColumnarCatalog> current() {
+        return Optional.ofNullable(current);
+    }
+
+    @Override
+    public synchronized void index(Collection<BookDTO> books) {
+        if (!enabled) {
+            return;
+        }
+        if (warmUp != null) {
+            // la carga inicial llega ordenada por id
+            for (BookDTO book : books) {
+                if (warmUp.canAppend(book.id())) {
+                    warmUp.add(book);
+                } else {
+                    outOfOrder.add(book);
+                }
+            }
+            return;
+        }
+        current = (current == null ? new ColumnarCatalog.Builder(source).build() : current).merge(books);
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void indexSaved(Collection<BookDTO> books) {
+        if (!enabled) {
+            return;
+        }
+        if (warmUp == null) {
+            index(books);
+            return;
+        }
+        // la copia del arranque se sigue sirviendo: se actualiza ya, y la nueva los recibe al final
+        outOfOrder.addAll(books);
+        if (current != null) {
+            current = current.merge(books);
+        }
+    }
+
+    @Override
+    public synchronized void warmUpCompleted() {
+        if (!enabled || warmUp == null) {
+            return;
+        }
+        current = warmUp.build().merge(outOfOrder);
+        warmUp = null;
+        outOfOrder = null;
+        dirty = true;
+        write();
+    }
+
+    /**
+     * Reescribe el archivo si la copia cambió desde la última escritura.
+     */
+    @Scheduled(initialDelayString = "${literalura.snapshot.write-interval:PT1M}",
+            fixedDelayString = "${literalura.snapshot.write-interval:PT1M}")
+    public synchronized void writeIfDirty() {
+        if (dirty) {
+            write();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        writeIfDirty();
+    }
+
+    public int size() {
+        ColumnarCatalog snapshot = current;
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    public long sizeInBytes() {
+        ColumnarCatalog snapshot = current;
+        return snapshot == null ? 0 : snapshot.sizeInBytes();
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write() {
+        long start = System.nanoTime();
+        try {
+            current.writeTo(file);
+            current = ColumnarCatalog.map(file);
+            dirty = false;
+            log.info("Copia del catálogo guardada: {} libros, {} KiB en {} ms", current.size(),
+                    current.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar la copia del catálogo en {}", file, e);
+        }
+    }
+}
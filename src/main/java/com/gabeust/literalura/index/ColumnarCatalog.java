@@ -0,0 +1,721 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+/**
+ * Copia de solo lectura del catálogo guardada por columnas en un único bloque de
+ * bytes, que puede vivir en el heap o en un archivo mapeado en memoria.
+ * <p>
+ * Los libros se ordenan por id. Ids y descargas son arreglos de primitivos; títulos
+ * y resúmenes son UTF-8 empaquetado con un arreglo de desplazamientos; idiomas,
+ * temas y autores se guardan una sola vez en un diccionario y cada libro apunta a
+ * sus entradas por código. Al abrir solo se decodifican los diccionarios de idiomas
+ * y temas, que son chicos; todo lo demás, autores incluidos, se lee del bloque
+ * cuando se pide un libro, así que abrir un archivo mapeado casi no usa heap.
+ * <p>
+ * Las instancias son inmutables; {@link #merge(Collection)} devuelve una copia nueva.
+ * Un título ausente se guarda vacío y una lista ausente, como lista vacía. Las
+ * descargas desconocidas se conservan como {@code null} y no entran en {@link #top}.
+ * <p>
+ * La cabecera lleva además el origen de los datos ({@link #source()}), para que
+ * quien abra un archivo pueda comprobar que corresponde a la base que está usando.
+ */
+public final class ColumnarCatalog {
+
+    private static final int MAGIC = 0x4C41_4353; // "LACS"
+    private static final int VERSION = 3;
+    private static final int NO_YEAR = Integer.MIN_VALUE;
+    private static final int NO_DOWNLOADS = Integer.MIN_VALUE;
+
+    private final ByteBuffer data;
+    private final int size;
+    private final String source;
+    private final int ids;
+    private final int downloads;
+    private final Strings titles;
+    private final Offsets summaryLists;
+    private final Strings summaries;
+    private final Codes languageCodes;
+    private final String[] languages;
+    private final Map<String, Integer> languageIndex;
+    private final Codes subjectCodes;
+    private final String[] subjects;
+    private final Codes authorCodes;
+    private final int authorCount;
+    private final int authorIds;
+    private final int authorBirths;
+    private final int authorDeaths;
+    private final Strings authorNames;
+
+    private ColumnarCatalog(ByteBuffer data) {
+        this.data = data;
+        ByteBuffer in = data.duplicate();
+        if (in.remaining() < 12 || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("No es una copia del catálogo");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de copia del catálogo no soportada: " + version);
+        }
+        size = in.getInt();
+        byte[] sourceUtf8 = new byte[in.getInt()];
+        in.get(sourceUtf8);
+        source = new String(sourceUtf8, StandardCharsets.UTF_8);
+        ids = skip(in, Long.BYTES * size);
+        downloads = skip(in, Integer.BYTES * size);
+        titles = Strings.read(in, size);
+        summaryLists = Offsets.read(in, size);
+        summaries = Strings.read(in, summaryLists.total(data));
+
+        languages = readDictionary(in);
+        languageCodes = Codes.read(in, size);
+        subjects = readDictionary(in);
+        subjectCodes = Codes.read(in, size);
+
+        authorCount = in.getInt();
+        authorIds = skip(in, Long.BYTES * authorCount);
+        authorBirths = skip(in, Integer.BYTES * authorCount);
+        authorDeaths = skip(in, Integer.BYTES * authorCount);
+        authorNames = Strings.read(in, authorCount);
+        authorCodes = Codes.read(in, size);
+
+        languageIndex = new HashMap<>();
+        for (int i = 0; i < languages.length; i++) {
+            languageIndex.put(languages[i], i);
+        }
+    }
+
+    /**
+     * Copia vacía, para empezar a acumular libros con {@link #merge(Collection)}.
+     */
+    public static ColumnarCatalog empty() {
+        return new Builder().build();
+    }
+
+    /**
+     * Abre una copia guardada con {@link #writeTo(Path)} mapeando el archivo en
+     * memoria; las páginas se cargan del disco a medida que se leen.
+     *
+     * @param file archivo de la copia
+     * @return copia respaldada por el archivo
+     * @throws IOException si no se puede leer el archivo
+     * @throws IllegalArgumentException si el archivo no es una copia válida
+     */
+    public static ColumnarCatalog map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ColumnarCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Guarda la copia en un archivo temporal y lo mueve sobre el destino, para que
+     * quien lo abra nunca vea un archivo a medio escribir.
+     *
+     * @param file archivo de destino
+     * @throws IOException si no se puede escribir
+     */
+    public void writeTo(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer source = data.duplicate().clear();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            channel.force(false);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Origen de los datos indicado al armar la copia; vacío si no se indicó.
+     */
+    public String source() {
+        return source;
+    }
+
+    /**
+     * @return el mayor id de la copia, o 0 si está vacía
+     */
+    public long maxId() {
+        return size == 0 ? 0 : id(size - 1);
+    }
+
+    /**
+     * Tamaño del bloque de bytes, en el heap o mapeado.
+     */
+    public long sizeInBytes() {
+        return data.capacity();
+    }
+
+    /**
+     * @param id id de Gutendex
+     * @return el libro, o {@code null} si no está en la copia
+     */
+    public BookDTO find(long id) {
+        int i = indexOf(id);
+        return i < 0 ? null : book(i);
+    }
+
+    /**
+     * Página de libros ordenados por id, con la misma semántica que la consulta por
+     * clave de {@code BookService#findPage}.
+     *
+     * @param afterId id del último libro de la página anterior, o {@code null} para la primera
+     * @param limit   cantidad máxima de libros
+     * @return libros de la página y cursor para la siguiente
+     */
+    public KeysetPageDTO<BookDTO> page(Long afterId, int limit) {
+        int start = afterId == null ? 0 : upperBound(afterId);
+        int end = (int) Math.min(size, (long) start + limit);
+        List<BookDTO> items = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            items.add(book(i));
+        }
+        Long next = items.size() < limit ? null : id(end - 1);
+        return new KeysetPageDTO<>(items, next);
+    }
+
+    /**
+     * Libros más descargados, opcionalmente de un idioma.
+     *
+     * @param language código de idioma, o {@code null} para todos
+     * @param limit    cantidad máxima de libros
+     * @return libros de más a menos descargas
+     */
+    public List<BookDTO> top(String language, int limit) {
+        int code = -1;
+        if (language != null) {
+            Integer known = languageIndex.get(language);
+            if (known == null) {
+                return List.of();
+            }
+            code = known;
+        }
+        Comparator<Integer> byDownloads = Comparator.comparingInt(this::downloads);
+        PriorityQueue<Integer> best = new PriorityQueue<>(byDownloads);
+        for (int i = 0; i < size; i++) {
+            // sin descargas conocidas no entra al ranking
+            if (downloads(i) == NO_DOWNLOADS || code >= 0 && !languageCodes.contains(data, i, code)) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(i);
+            } else if (limit > 0 && downloads(i) > downloads(best.peek())) {
+                best.poll();
+                best.add(i);
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(best);
+        ranked.sort(byDownloads.reversed());
+        return ranked.stream().map(this::book).toList();
+    }
+
+    /**
+     * Copia nueva con los libros agregados o reemplazados. El resto se copia sin
+     * decodificar, así que el costo es lineal en bytes y no crea objetos por libro.
+     *
+     * @param books libros a agregar o reemplazar
+     * @return copia nueva en el heap
+     */
+    public ColumnarCatalog merge(Collection<BookDTO> books) {
+        TreeMap<Long, BookDTO> updates = new TreeMap<>();
+        for (BookDTO book : books) {
+            if (book != null && book.id() != null) {
+                updates.put(book.id(), book);
+            }
+        }
+        if (updates.isEmpty()) {
+            return this;
+        }
+        Builder builder = new Builder(source);
+        Remap remap = builder.remapFrom(this);
+        int i = 0;
+        for (BookDTO update : updates.values()) {
+            int next = lowerBound(update.id());
+            builder.copy(this, i, next, remap);
+            i = next < size && id(next) == update.id() ? next + 1 : next;
+            builder.add(update);
+        }
+        builder.copy(this, i, size, remap);
+        return builder.build();
+    }
+
+    private long id(int i) {
+        return data.getLong(ids + Long.BYTES * i);
+    }
+
+    private int downloads(int i) {
+        return data.getInt(downloads + Integer.BYTES * i);
+    }
+
+    private BookDTO book(int i) {
+        List<String> bookSummaries = new ArrayList<>(summaryLists.length(data, i));
+        for (int s = summaryLists.from(data, i); s < summaryLists.to(data, i); s++) {
+            bookSummaries.add(summaries.get(s));
+        }
+        return new BookDTO(id(i), titles.get(i), bookSummaries,
+                authorCodes.decode(data, i, this::author), subjectCodes.decode(data, i, code -> subjects[code]),
+                languageCodes.decode(data, i, code -> languages[code]), downloadCount(downloads(i)));
+    }
+
+    private AuthorDTO author(int code) {
+        return new AuthorDTO(nullIfZero(data.getLong(authorIds + Long.BYTES * code)), authorNames.get(code),
+                year(data.getInt(authorBirths + Integer.BYTES * code)),
+                year(data.getInt(authorDeaths + Integer.BYTES * code)));
+    }
+
+    private int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = id(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /** Posición del primer libro con id mayor al dado. */
+    private int upperBound(long id) {
+        return id == Long.MAX_VALUE ? size : lowerBound(id + 1);
+    }
+
+    /** Posición del primer libro con id mayor o igual al dado. */
+    private int lowerBound(long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (id(mid) < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String[] readDictionary(ByteBuffer in) {
+        int count = in.getInt();
+        Strings entries = Strings.read(in, count);
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = entries.get(i);
+        }
+        return values;
+    }
+
+    private static int skip(ByteBuffer in, int bytes) {
+        int position = in.position();
+        in.position(position + bytes);
+        return position;
+    }
+
+    private static Integer year(int value) {
+        return value == NO_YEAR ? null : value;
+    }
+
+    private static Integer downloadCount(int value) {
+        return value == NO_DOWNLOADS ? null : value;
+    }
+
+    private static Long nullIfZero(long value) {
+        return value == 0 ? null : value;
+    }
+
+    /** Desplazamientos de {@code count} listas o cadenas: {@code count + 1} enteros. */
+    private record Offsets(int position, int count) {
+
+        static Offsets read(ByteBuffer in, int count) {
+            return new Offsets(skip(in, Integer.BYTES * (count + 1)), count);
+        }
+
+        int from(ByteBuffer data, int i) {
+            return data.getInt(position + Integer.BYTES * i);
+        }
+
+        int to(ByteBuffer data, int i) {
+            return data.getInt(position + Integer.BYTES * (i + 1));
+        }
+
+        int length(ByteBuffer data, int i) {
+            return to(data, i) - from(data, i);
+        }
+
+        int total(ByteBuffer data) {
+            return from(data, count);
+        }
+    }
+
+    /** Cadenas UTF-8 empaquetadas una tras otra. */
+    private record Strings(ByteBuffer data, Offsets offsets, int bytes) {
+
+        static Strings read(ByteBuffer in, int count) {
+            Offsets offsets = Offsets.read(in, count);
+            int length = in.getInt(offsets.position() + Integer.BYTES * count);
+            return new Strings(in, offsets, skip(in, length));
+        }
+
+        String get(int i) {
+            int from = offsets.from(data, i);
+            byte[] utf8 = new byte[offsets.to(data, i) - from];
+            data.get(bytes + from, utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Códigos de diccionario por libro: desplazamientos y luego los códigos. */
+    private record Codes(Offsets offsets, int values) {
+
+        static Codes read(ByteBuffer in, int count) {
+            Offsets offsets = Offsets.read(in, count);
+            int total = in.getInt(offsets.position() + Integer.BYTES * count);
+            return new Codes(offsets, skip(in, Integer.BYTES * total));
+        }
+
+        int code(ByteBuffer data, int c) {
+            return data.getInt(values + Integer.BYTES * c);
+        }
+
+        boolean contains(ByteBuffer data, int i, int code) {
+            for (int c = offsets.from(data, i); c < offsets.to(data, i); c++) {
+                if (code(data, c) == code) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        <T> List<T> decode(ByteBuffer data, int i, IntFunction<T> dictionary) {
+            List<T> result = new ArrayList<>(offsets.length(data, i));
+            for (int c = offsets.from(data, i); c < offsets.to(data, i); c++) {
+                result.add(dictionary.apply(code(data, c)));
+            }
+            return result;
+        }
+    }
+
+    /** Traducción de los códigos de una copia existente a los de un {@link Builder}. */
+    private record Remap(int[] languages, int[] subjects, int[] authors) {}
+
+    /**
+     * Arma una copia a partir de libros agregados en orden creciente de id.
+     */
+    public static final class Builder {
+        private final byte[] source;
+        private long[] ids = new long[256];
+        private int[] downloads = new int[256];
+        private int size;
+        private final StringColumn titles = new StringColumn();
+        private final IntArray summaryLists = IntArray.startingAtZero();
+        private final StringColumn summaries = new StringColumn();
+        private final Dictionary<String> languages = new Dictionary<>();
+        private final Dictionary<String> subjects = new Dictionary<>();
+        private final Dictionary<AuthorDTO> authors = new Dictionary<>();
+
+        public Builder() {
+            this("");
+        }
+
+        /**
+         * @param source origen de los datos, que se guarda en la cabecera
+         */
+        public Builder(String source) {
+            this.source = source.getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Indica si el libro puede agregarse sin romper el orden por id.
+         */
+        public boolean canAppend(long id) {
+            return size == 0 || id > ids[size - 1];
+        }
+
+        /**
+         * @param book libro con id mayor al último agregado
+         * @throws IllegalArgumentException si el id no respeta el orden
+         */
+        public void add(BookDTO book) {
+            appendRow(book.id(), book.download_count() == null ? NO_DOWNLOADS : book.download_count());
+            titles.add(book.title());
+            List<String> bookSummaries = book.summaries() == null ? List.of() : book.summaries();
+            bookSummaries.forEach(summaries::add);
+            summaryLists.add(summaries.count());
+            languages.addRow(book.languages());
+            subjects.addRow(book.subjects());
+            authors.addRow(book.authors());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ColumnarCatalog build() {
+            StringColumn languageEntries = StringColumn.of(languages.entries);
+            StringColumn subjectEntries = StringColumn.of(subjects.entries);
+            StringColumn authorNames = StringColumn.of(authors.entries.stream().map(AuthorDTO::name).toList());
+            int authorCount = authors.entries.size();
+            long length = 4L * Integer.BYTES + source.length
+                    + (long) size * (Long.BYTES + Integer.BYTES)
+                    + titles.bytes() + summaryLists.bytes() + summaries.bytes()
+                    + Integer.BYTES + languageEntries.bytes() + languages.codeBytes()
+                    + Integer.BYTES + subjectEntries.bytes() + subjects.codeBytes()
+                    + Integer.BYTES + (long) authorCount * (Long.BYTES + 2 * Integer.BYTES)
+                    + authorNames.bytes() + authors.codeBytes();
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("La copia del catálogo supera los 2 GiB");
+            }
+
+            ByteBuffer out = ByteBuffer.allocate((int) length);
+            out.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(source.length).put(source);
+            out.asLongBuffer().put(ids, 0, size);
+            out.position(out.position() + Long.BYTES * size);
+            out.asIntBuffer().put(downloads, 0, size);
+            out.position(out.position() + Integer.BYTES * size);
+            titles.writeTo(out);
+            summaryLists.writeTo(out);
+            summaries.writeTo(out);
+
+            out.putInt(languages.entries.size());
+            languageEntries.writeTo(out);
+            languages.writeCodes(out);
+            out.putInt(subjects.entries.size());
+            subjectEntries.writeTo(out);
+            subjects.writeCodes(out);
+
+            out.putInt(authorCount);
+            for (AuthorDTO author : authors.entries) {
+                out.putLong(author.id() == null ? 0 : author.id());
+            }
+            for (AuthorDTO author : authors.entries) {
+                out.putInt(author.birthYear() == null ? NO_YEAR : author.birthYear());
+            }
+            for (AuthorDTO author : authors.entries) {
+                out.putInt(author.deathYear() == null ? NO_YEAR : author.deathYear());
+            }
+            authorNames.writeTo(out);
+            authors.writeCodes(out);
+            return new ColumnarCatalog(out.clear());
+        }
+
+        private void appendRow(long id, int downloadCount) {
+            if (!canAppend(id)) {
+                throw new IllegalArgumentException("Los libros deben agregarse en orden creciente de id: " + id);
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                downloads = Arrays.copyOf(downloads, size * 2);
+            }
+            ids[size] = id;
+            downloads[size] = downloadCount;
+            size++;
+        }
+
+        private Remap remapFrom(ColumnarCatalog source) {
+            return new Remap(languages.codesOf(source.languages.length, code -> source.languages[code]),
+                    subjects.codesOf(source.subjects.length, code -> source.subjects[code]),
+                    authors.codesOf(source.authorCount, source::author));
+        }
+
+        /** Copia los libros {@code [from, to)} de otra copia en bloque, sin pasar por {@link BookDTO}. */
+        private void copy(ColumnarCatalog source, int from, int to, Remap remap) {
+            if (from >= to) {
+                return;
+            }
+            ByteBuffer data = source.data;
+            if (size > 0 && source.id(from) <= ids[size - 1]) {
+                throw new IllegalArgumentException("Los libros deben agregarse en orden creciente de id: " + source.id(from));
+            }
+            int count = to - from;
+            if (size + count > ids.length) {
+                int capacity = Math.max(ids.length * 2, size + count);
+                ids = Arrays.copyOf(ids, capacity);
+                downloads = Arrays.copyOf(downloads, capacity);
+            }
+            data.slice(source.ids + Long.BYTES * from, Long.BYTES * count).asLongBuffer().get(ids, size, count);
+            data.slice(source.downloads + Integer.BYTES * from, Integer.BYTES * count).asIntBuffer()
+                    .get(downloads, size, count);
+            size += count;
+
+            titles.addRaw(data, source.titles, from, to);
+            int summaryBase = summaries.count() - source.summaryLists.from(data, from);
+            summaries.addRaw(data, source.summaries, source.summaryLists.from(data, from), source.summaryLists.from(data, to));
+            for (int i = from + 1; i <= to; i++) {
+                summaryLists.add(source.summaryLists.from(data, i) + summaryBase);
+            }
+            languages.copyRows(data, source.languageCodes, from, to, remap.languages());
+            subjects.copyRows(data, source.subjectCodes, from, to, remap.subjects());
+            authors.copyRows(data, source.authorCodes, from, to, remap.authors());
+        }
+    }
+
+    private static final class IntArray {
+        private int[] values = new int[256];
+        private int size;
+
+        static IntArray startingAtZero() {
+            IntArray array = new IntArray();
+            array.add(0);
+            return array;
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long bytes() {
+            return (long) Integer.BYTES * size;
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.asIntBuffer().put(values, 0, size);
+            out.position(out.position() + Integer.BYTES * size);
+        }
+    }
+
+    private static final class StringColumn {
+        private byte[] bytes = new byte[4096];
+        private int length;
+        private final IntArray offsets = IntArray.startingAtZero();
+
+        static StringColumn of(List<String> values) {
+            StringColumn column = new StringColumn();
+            values.forEach(column::add);
+            return column;
+        }
+
+        void add(String value) {
+            if (value != null) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                ensure(utf8.length);
+                System.arraycopy(utf8, 0, bytes, length, utf8.length);
+                length += utf8.length;
+            }
+            offsets.add(length);
+        }
+
+        /** Copia las cadenas {@code [from, to)} de otra columna tal como están codificadas. */
+        void addRaw(ByteBuffer data, Strings source, int from, int to) {
+            if (from == to) {
+                return;
+            }
+            int start = source.offsets().from(data, from);
+            int end = source.offsets().from(data, to);
+            ensure(end - start);
+            data.get(source.bytes() + start, bytes, length, end - start);
+            int shift = length - start;
+            for (int s = from + 1; s <= to; s++) {
+                offsets.add(source.offsets().from(data, s) + shift);
+            }
+            length += end - start;
+        }
+
+        int count() {
+            return offsets.size - 1;
+        }
+
+        long bytes() {
+            return offsets.bytes() + length;
+        }
+
+        void writeTo(ByteBuffer out) {
+            offsets.writeTo(out);
+            out.put(bytes, 0, length);
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> entries = new ArrayList<>();
+        private final IntArray offsets = IntArray.startingAtZero();
+        private final IntArray values = new IntArray();
+
+        void addRow(List<T> row) {
+            if (row != null) {
+                for (T value : row) {
+                    values.add(codeOf(value));
+                }
+            }
+            offsets.add(values.size);
+        }
+
+        int[] codesOf(int count, IntFunction<T> dictionary) {
+            int[] remap = new int[count];
+            for (int i = 0; i < count; i++) {
+                remap[i] = codeOf(dictionary.apply(i));
+            }
+            return remap;
+        }
+
+        void copyRows(ByteBuffer data, Codes source, int from, int to, int[] remap) {
+            int base = values.size - source.offsets().from(data, from);
+            for (int c = source.offsets().from(data, from); c < source.offsets().from(data, to); c++) {
+                values.add(remap[source.code(data, c)]);
+            }
+            for (int i = from + 1; i <= to; i++) {
+                offsets.add(source.offsets().from(data, i) + base);
+            }
+        }
+
+        long codeBytes() {
+            return offsets.bytes() + values.bytes();
+        }
+
+        void writeCodes(ByteBuffer out) {
+            offsets.writeTo(out);
+            values.writeTo(out);
+        }
+
+        private int codeOf(T value) {
+            return codes.computeIfAbsent(value, v -> {
+                entries.add(v);
+                return entries.size() - 1;
+            });
+        }
+    }
+}
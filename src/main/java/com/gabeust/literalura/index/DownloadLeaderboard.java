@@ -0,0 +1,288 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+/**
+ * Ranking de libros guardados por cantidad de descargas, global y por idioma.
+ * <p>
+ * Cada ranking es un conjunto ordenado de pares (descargas, id) que se actualiza
+ * libro por libro en cada ingesta o actualización, así que pedir los primeros
+ * {@code k} cuesta O(k). Para no duplicar el catálogo en memoria solo se conservan
+ * los DTO de los libros que están entre los primeros {@code retained} de algún
+ * ranking; los demás se cargan de la base si hiciera falta.
+ * <p>
+ * Los libros sin descargas conocidas, como los importados del catálogo CSV antes
+ * de su primera actualización, no entran en ningún ranking: {@link #size(String)}
+ * cuenta solo libros con descargas reales, y quien lo use puede recurrir a
+ * Gutendex mientras no alcancen.
+ */
+@Component
+public class DownloadLeaderboard implements CatalogIndex {
+
+    private static final String ALL = "";
+
+    private record Entry(long bookId, int downloads) {}
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::downloads).reversed()
+            .thenComparingLong(Entry::bookId);
+
+    private final int retained;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, NavigableSet<Entry>> boards = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, Set<String>> scopesByBook = new HashMap<>();
+    private final Map<Long, BookDTO> books = new HashMap<>();
+    /** Último puesto conservado de cada ranking más largo que {@code retained}. */
+    private final Map<String, Entry> cutoffs = new HashMap<>();
+
+    /**
+     * @param retained cantidad de primeros puestos de cada ranking cuyos libros se conservan completos
+     */
+    public DownloadLeaderboard(@Value("${literalura.index.leaderboard.retained:100}") int retained) {
+        this.retained = retained;
+    }
+
+    @Override
+    public void index(Collection<BookDTO> incoming) {
+        lock.writeLock().lock();
+        try {
+            Set<String> touched = new HashSet<>();
+            for (BookDTO book : incoming) {
+                touched.addAll(remove(book.id()));
+                if (book.download_count() == null) {
+                    continue;
+                }
+                Entry entry = new Entry(book.id(), book.download_count());
+                Set<String> scopes = scopes(book);
+                for (String scope : scopes) {
+                    boards.computeIfAbsent(scope, s -> new TreeSet<>(RANKING)).add(entry);
+                }
+                entries.put(book.id(), entry);
+                scopesByBook.put(book.id(), scopes);
+                touched.addAll(scopes);
+            }
+
+            // solo pueden cambiar los cortes de los rankings que se tocaron
+            boolean cutoffsChanged = false;
+            for (String scope : touched) {
+                cutoffsChanged |= updateCutoff(scope);
+            }
+            for (BookDTO book : incoming) {
+                if (isRetained(book.id())) {
+                    books.put(book.id(), book);
+                } else {
+                    books.remove(book.id());
+                }
+            }
+            if (cutoffsChanged) {
+                books.keySet().removeIf(id -> !isRetained(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de los libros más descargados.
+     *
+     * @param language código de idioma, o {@code null} para el ranking global
+     * @param limit    cantidad máxima de libros
+     * @return ids ordenados de más a menos descargas
+     */
+    public List<Long> top(String language, int limit) {
+        return top(language, limit, id -> true);
+    }
+
+    /**
+     * Ids de los libros más descargados que cumplen una condición; el ranking se
+     * recorre en orden hasta juntar {@code limit}.
+     *
+     * @param language código de idioma, o {@code null} para el ranking global
+     * @param limit    cantidad máxima de libros
+     * @param filter   condición sobre el id del libro
+     * @return ids ordenados de más a menos descargas
+     */
+    public List<Long> top(String language, int limit, LongPredicate filter) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> board = boards.get(scope(language));
+            if (board == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(Math.min(limit, board.size()));
+            Iterator<Entry> it = board.iterator();
+            while (ids.size() < limit && it.hasNext()) {
+                long id = it.next().bookId();
+                if (filter.test(id)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ordena un conjunto de libros por descargas y devuelve los primeros. Cuesta
+     * O(k log k) en el tamaño del conjunto, sin recorrer el ranking: conviene cuando
+     * el conjunto es chico frente a la cantidad de libros guardados. Los libros sin
+     * descargas conocidas van al final, por id.
+     *
+     * @param ids   ids de los libros candidatos
+     * @param limit cantidad máxima de libros
+     * @return ids ordenados de más a menos descargas
+     */
+    public List<Long> rank(Collection<Long> ids, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> ranked = new ArrayList<>(ids.size());
+            List<Long> unranked = new ArrayList<>();
+            for (Long id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null) {
+                    ranked.add(entry);
+                } else {
+                    unranked.add(id);
+                }
+            }
+            ranked.sort(RANKING);
+            unranked.sort(null);
+            List<Long> top = new ArrayList<>(Math.min(limit, ids.size()));
+            for (int i = 0; i < ranked.size() && top.size() < limit; i++) {
+                top.add(ranked.get(i).bookId());
+            }
+            for (int i = 0; i < unranked.size() && top.size() < limit; i++) {
+                top.add(unranked.get(i));
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Libros conservados en memoria entre los indicados. Los que falten deben
+     * cargarse de la base.
+     *
+     * @param ids ids de libros, normalmente obtenidos con {@link #top(String, int)}
+     * @return libros disponibles en memoria, por id
+     */
+    public Map<Long, BookDTO> retainedBooks(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            Map<Long, BookDTO> found = new HashMap<>();
+            for (Long id : ids) {
+                BookDTO book = books.get(id);
+                if (book != null) {
+                    found.put(id, book);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de libros en un ranking.
+     *
+     * @param language código de idioma, o {@code null} para el ranking global
+     */
+    public int size(String language) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> board = boards.get(scope(language));
+            return board == null ? 0 : board.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return rankings de los que se quitó el libro
+     */
+    private Set<String> remove(long bookId) {
+        Entry previous = entries.remove(bookId);
+        Set<String> scopes = scopesByBook.remove(bookId);
+        if (previous == null || scopes == null) {
+            return Set.of();
+        }
+        for (String scope : scopes) {
+            NavigableSet<Entry> board = boards.get(scope);
+            if (board != null && board.remove(previous) && board.isEmpty()) {
+                boards.remove(scope);
+            }
+        }
+        return scopes;
+    }
+
+    /**
+     * Recalcula el último puesto conservado de un ranking; los rankings más cortos
+     * que {@code retained} no tienen corte.
+     *
+     * @return si el corte cambió
+     */
+    private boolean updateCutoff(String scope) {
+        NavigableSet<Entry> board = boards.get(scope);
+        Entry cutoff = null;
+        if (board != null && retained > 0 && board.size() > retained) {
+            Iterator<Entry> it = board.iterator();
+            for (int i = 0; i < retained; i++) {
+                cutoff = it.next();
+            }
+        }
+        Entry previous = cutoff == null ? cutoffs.remove(scope) : cutoffs.put(scope, cutoff);
+        return !Objects.equals(previous, cutoff);
+    }
+
+    private boolean isRetained(long bookId) {
+        Entry entry = entries.get(bookId);
+        if (entry == null || retained <= 0) {
+            return false;
+        }
+        for (String scope : scopesByBook.get(bookId)) {
+            Entry cutoff = cutoffs.get(scope);
+            if (cutoff == null || RANKING.compare(entry, cutoff) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> scopes(BookDTO book) {
+        Set<String> scopes = new LinkedHashSet<>();
+        scopes.add(ALL);
+        if (book.languages() != null) {
+            for (String language : book.languages()) {
+                if (language != null && !language.isBlank()) {
+                    scopes.add(scope(language));
+                }
+            }
+        }
+        return scopes;
+    }
+
+    private static String scope(String language) {
+        return language == null ? ALL : language.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,276 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+/**
+ * Índice de facetas (idioma y tema) sobre los libros guardados, con un
+ * {@link CompactBitmap} de ids por cada valor.
+ * <p>
+ * Los filtros se escriben como {@code "es AND fiction"},
+ * {@code "lang:fr OR lang:de AND subject:poetry"} o {@code "en AND NOT poetry"}:
+ * NOT se aplica al término que sigue, AND tiene precedencia sobre OR, y cada
+ * grupo unido por AND necesita al menos un término sin NOT. Los operadores van en
+ * mayúsculas; un filtro vacío o con un operador suelto es inválido.
+ * Un término sin prefijo se toma como idioma si coincide con uno conocido y, si no,
+ * como tema. Los temas de Gutenberg como "Paris (France) -- Fiction" se indexan
+ * completos y también por cada una de sus partes.
+ */
+@Component
+public class FacetIndex implements CatalogIndex {
+
+    private static final Pattern OR = Pattern.compile("\\s+OR\\s+");
+    private static final Pattern AND = Pattern.compile("\\s+AND\\s+");
+    private static final Pattern NOT = Pattern.compile("^NOT\\s+");
+    private static final Pattern OPERATOR = Pattern.compile("(^|\\s)(AND|OR|NOT)(\\s|$)");
+    private static final String SUBJECT_SEPARATOR = "--";
+
+    /**
+     * Cantidad de libros de un conjunto por cada idioma y cada tema.
+     */
+    public record FacetCounts(Map<String, Integer> languages, Map<String, Integer> subjects) {}
+
+    private record Facets(String[] languages, String[] subjects) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, CompactBitmap> languages = new HashMap<>();
+    private final Map<String, CompactBitmap> subjects = new HashMap<>();
+    private final Map<Integer, Facets> facetsByBook = new HashMap<>();
+
+    @Override
+    public void index(Collection<BookDTO> books) {
+        lock.writeLock().lock();
+        try {
+            for (BookDTO book : books) {
+                int id = Math.toIntExact(book.id());
+                remove(id);
+                Facets facets = new Facets(languageKeys(book), subjectKeys(book));
+                for (String language : facets.languages()) {
+                    languages.computeIfAbsent(language, k -> new CompactBitmap()).add(id);
+                }
+                for (String subject : facets.subjects()) {
+                    subjects.computeIfAbsent(subject, k -> new CompactBitmap()).add(id);
+                }
+                facetsByBook.put(id, facets);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Libros que cumplen el filtro.
+     *
+     * @param expression filtro con términos unidos por AND y OR, opcionalmente negados con NOT
+     * @return conjunto nuevo de ids, independiente del índice
+     * @throws IllegalArgumentException si el filtro está vacío, tiene un operador
+     *                                  suelto o un grupo formado solo por términos con NOT
+     */
+    public CompactBitmap select(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("El filtro está vacío");
+        }
+        lock.readLock().lock();
+        try {
+            CompactBitmap result = new CompactBitmap();
+            for (String clause : OR.split(expression.trim(), -1)) {
+                CompactBitmap conjunction = null;
+                List<String> excluded = new ArrayList<>();
+                for (String term : AND.split(clause.trim(), -1)) {
+                    String trimmed = term.trim();
+                    boolean negated = NOT.matcher(trimmed).find();
+                    if (negated) {
+                        trimmed = NOT.matcher(trimmed).replaceFirst("");
+                    }
+                    if (trimmed.isEmpty() || OPERATOR.matcher(trimmed).find()) {
+                        throw new IllegalArgumentException("Filtro inválido: " + expression);
+                    }
+                    if (negated) {
+                        excluded.add(trimmed);
+                    } else if (conjunction == null) {
+                        conjunction = lookup(trimmed).copy();
+                    } else if (!conjunction.isEmpty()) {
+                        conjunction = conjunction.and(lookup(trimmed));
+                    }
+                }
+                if (conjunction == null) {
+                    throw new IllegalArgumentException("Cada grupo del filtro necesita un término sin NOT: " + clause.trim());
+                }
+                for (String term : excluded) {
+                    if (conjunction.isEmpty()) {
+                        break;
+                    }
+                    conjunction = conjunction.andNot(lookup(term));
+                }
+                result = result.or(conjunction);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de libros guardados en un idioma.
+     */
+    public int count(String language) {
+        lock.readLock().lock();
+        try {
+            CompactBitmap bitmap = languages.get(key(language));
+            return bitmap == null ? 0 : bitmap.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cuenta por faceta los libros de un conjunto, sin recorrerlos uno por uno.
+     *
+     * @param selection   conjunto obtenido con {@link #select(String)}
+     * @param maxSubjects cantidad máxima de temas a devolver, los más frecuentes primero
+     * @return conteos distintos de cero, de mayor a menor
+     */
+    public FacetCounts counts(CompactBitmap selection, int maxSubjects) {
+        lock.readLock().lock();
+        try {
+            return new FacetCounts(
+                    counts(languages, selection, Integer.MAX_VALUE),
+                    counts(subjects, selection, maxSubjects));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memoria aproximada ocupada por los bitmaps, en bytes (sin contar las claves).
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (CompactBitmap bitmap : languages.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (CompactBitmap bitmap : subjects.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de libros indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return facetsByBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CompactBitmap lookup(String term) {
+        CompactBitmap bitmap;
+        if (term.regionMatches(true, 0, "lang:", 0, 5)) {
+            bitmap = languages.get(key(term.substring(5)));
+        } else if (term.regionMatches(true, 0, "subject:", 0, 8)) {
+            bitmap = subjects.get(key(term.substring(8)));
+        } else {
+            String key = key(term);
+            bitmap = languages.containsKey(key) ? languages.get(key) : subjects.get(key);
+        }
+        return bitmap == null ? new CompactBitmap() : bitmap;
+    }
+
+    private void remove(int id) {
+        Facets previous = facetsByBook.remove(id);
+        if (previous == null) {
+            return;
+        }
+        removeFrom(languages, previous.languages(), id);
+        removeFrom(subjects, previous.subjects(), id);
+    }
+
+    private static void removeFrom(Map<String, CompactBitmap> facet, String[] keys, int id) {
+        for (String key : keys) {
+            CompactBitmap bitmap = facet.get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    facet.remove(key);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> counts(Map<String, CompactBitmap> facet, CompactBitmap selection, int limit) {
+        Map<String, Integer> counts = new HashMap<>();
+        facet.forEach((key, bitmap) -> {
+            int count = bitmap.andCardinality(selection);
+            if (count > 0) {
+                counts.put(key, count);
+            }
+        });
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    private static String[] languageKeys(BookDTO book) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (book.languages() != null) {
+            for (String language : book.languages()) {
+                String key = key(language);
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys.toArray(String[]::new);
+    }
+
+    private static String[] subjectKeys(BookDTO book) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (book.subjects() != null) {
+            for (String subject : book.subjects()) {
+                String key = key(subject);
+                if (key.isEmpty()) {
+                    continue;
+                }
+                keys.add(key);
+                if (key.contains(SUBJECT_SEPARATOR)) {
+                    for (String part : key.split(SUBJECT_SEPARATOR)) {
+                        String trimmed = part.trim();
+                        if (!trimmed.isEmpty()) {
+                            keys.add(trimmed);
+                        }
+                    }
+                }
+            }
+        }
+        return keys.toArray(String[]::new);
+    }
+
+    private static String key(String value) {
+        return TextNormalizer.fold(value).trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,53 @@
+package com.gabeust.literalura.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+/**
+ * Normalización de texto compartida por los índices locales: descompone los
+ * caracteres (NFKD), elimina los acentos y pasa a minúsculas, de modo que
+ * "Cervantes Saavedra, Miguel de" y "cervantes saavedra miguel de" coincidan.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Quita acentos y pasa a minúsculas, conservando la puntuación.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Divide el texto normalizado en palabras formadas por letras y dígitos.
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Clave de comparación exacta de títulos: sin acentos, en minúsculas y con cada
+     * tramo de puntuación y espacios reducido a un espacio, así "Don Quijote!" y
+     * "don  quijote" tienen la misma clave. Se guarda en {@code books.title_key}.
+     */
+    public static String titleKey(String title) {
+        return String.join(" ", tokens(title));
+    }
+}
@@ -0,0 +1,75 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * Tabla hash de la clave normalizada del título ({@link TextNormalizer#titleKey(String)})
+ * a los ids de los libros guardados, para resolver búsquedas por título exacto en
+ * tiempo constante y sin distinguir acentos, mayúsculas ni puntuación.
+ * <p>
+ * Las lecturas no toman locks: cada clave apunta a un arreglo que no se modifica,
+ * y las altas lo reemplazan por una copia. Si la actualización en segundo plano
+ * cambia el título de un libro, el id se mueve a la clave nueva.
+ */
+@Component
+public class TitleKeyIndex implements CatalogIndex {
+
+    private static final long[] NONE = new long[0];
+
+    private final Map<String, long[]> idsByKey = new ConcurrentHashMap<>();
+    private final Map<Long, String> keysById = new HashMap<>();
+
+    @Override
+    public synchronized void index(Collection<BookDTO> books) {
+        for (BookDTO book : books) {
+            String key = TextNormalizer.titleKey(book.title());
+            String previous = keysById.put(book.id(), key);
+            if (key.equals(previous)) {
+                continue;
+            }
+            if (previous != null) {
+                idsByKey.computeIfPresent(previous, (k, ids) -> without(ids, book.id()));
+            }
+            if (!key.isEmpty()) {
+                idsByKey.merge(key, new long[]{book.id()}, TitleKeyIndex::concat);
+            }
+        }
+    }
+
+    /**
+     * Ids de los libros guardados con esa clave de título.
+     *
+     * @param titleKey clave ya normalizada con {@link TextNormalizer#titleKey(String)}
+     * @return ids en orden de alta; vacío si no hay ninguno
+     */
+    public List<Long> ids(String titleKey) {
+        long[] ids = idsByKey.getOrDefault(titleKey, NONE);
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    /**
+     * Cantidad de títulos distintos indexados.
+     */
+    public int size() {
+        return idsByKey.size();
+    }
+
+    private static long[] concat(long[] ids, long[] added) {
+        long[] result = Arrays.copyOf(ids, ids.length + added.length);
+        System.arraycopy(added, 0, result, ids.length, added.length);
+        return result;
+    }
+
+    /** Devuelve {@code null} si no queda ninguno, para que la clave se quite del mapa. */
+    private static long[] without(long[] ids, long id) {
+        long[] result = Arrays.stream(ids).filter(other -> other != id).toArray();
+        return result.length == 0 ? null : result;
+    }
+}
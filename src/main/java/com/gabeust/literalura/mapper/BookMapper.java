@@ -5,6 +5,7 @@ import com.gabeust.literalura.dto.BookDTO;
 import com.gabeust.literalura.model.Author;
 import com.gabeust.literalura.model.Book;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class BookMapper {
@@ -43,11 +44,17 @@ public class BookMapper {
         return new BookDTO(
                 entity.getId(),
                 entity.getTitle(),
-                entity.getSummaries(),
+                copy(entity.getSummaries()),
                 authorsDTO,
-                entity.getSubjects(),
-                entity.getLanguages(),
+                copy(entity.getSubjects()),
+                copy(entity.getLanguages()),
                 entity.getDownloadCount()
         );
     }
+
+    // las colecciones de la entidad son LAZY: copiarlas las inicializa dentro de la
+    // transacción y evita que el DTO quede atado a la sesión de Hibernate
+    private static List<String> copy(List<String> values) {
+        return values == null ? null : new ArrayList<>(values);
+    }
 }
@@ -3,12 +3,15 @@ package com.gabeust.literalura.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_author_identity", columnNames = "identity_key"))
 public class Author {
 
     @Id
@@ -19,7 +22,23 @@ public class Author {
     private Integer birthYear;
     private Integer deathYear;
 
-    @ManyToMany(mappedBy = "authors", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    /**
+     * Clave compuesta (nombre, nacimiento, fallecimiento) materializada en una sola
+     * columna con índice único: a diferencia de un índice sobre las tres columnas,
+     * los años desconocidos (NULL) también cuentan para detectar duplicados.
+     */
+    @Column(name = "identity_key", length = 400)
+    private String identityKey;
+
+    @ManyToMany(mappedBy = "authors", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Book> books = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void updateIdentityKey() {
+        this.identityKey = AuthorKey.of(this).asString();
+    }
 }
\ No newline at end of file
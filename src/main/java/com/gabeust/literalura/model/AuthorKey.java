@@ -0,0 +1,25 @@
+package com.gabeust.literalura.model;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+/**
+ * Identidad natural de un autor: Gutendex no expone ids de autor, por lo que dos
+ * autores son el mismo si coinciden nombre, año de nacimiento y año de fallecimiento.
+ */
+public record AuthorKey(String name, Integer birthYear, Integer deathYear) {
+
+    public static AuthorKey of(AuthorDTO dto) {
+        return new AuthorKey(dto.name(), dto.birthYear(), dto.deathYear());
+    }
+
+    public static AuthorKey of(Author author) {
+        return new AuthorKey(author.getName(), author.getBirthYear(), author.getDeathYear());
+    }
+
+    /**
+     * Representación textual usada como columna única en la base de datos.
+     * Los años desconocidos se escriben como "?".
+     */
+    public String asString() {
+        return name + "|" + (birthYear == null ? "?" : birthYear) + "|" + (deathYear == null ? "?" : deathYear);
+    }
+}
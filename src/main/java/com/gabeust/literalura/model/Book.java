@@ -1,43 +1,105 @@
 package com.gabeust.literalura.model;
 
+import com.gabeust.literalura.index.TextNormalizer;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
 import java.util.List;
 @Data
 @Entity
-@Table(name = "books")
-public class Book {
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_download_count", columnList = "download_count"),
+        @Index(name = "idx_books_last_refreshed_at", columnList = "last_refreshed_at"),
+        @Index(name = "idx_books_title_key", columnList = "title_key")
+})
+public class Book implements Persistable<Long> {
 
     @Id
     private Long id;
 
     private String title;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    /**
+     * Título normalizado con {@link TextNormalizer#titleKey(String)}, para buscar
+     * por título exacto con el índice sin distinguir acentos ni puntuación.
+     */
+    @Column(name = "title_key", length = 512)
+    @Setter(AccessLevel.NONE)
+    private String titleKey;
+
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "book_summaries", joinColumns = @JoinColumn(name = "book_id"))
     @Column(columnDefinition = "TEXT")
     private List<String> summaries;
 
 
-    @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @ManyToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinTable(
             name = "book_authors",
             joinColumns = @JoinColumn(name = "book_id"),
             inverseJoinColumns = @JoinColumn(name = "author_id")
     )
     @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Author> authors;
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "book_languages", joinColumns = @JoinColumn(name = "book_id"))
-    @Column(name = "language")
+    /**
+     * Los idiomas y temas se guardan como ids de las tablas diccionario
+     * {@code languages} y {@code subjects}; los conversores los traducen a texto.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "book_languages", joinColumns = @JoinColumn(name = "book_id"),
+            indexes = @Index(name = "idx_book_languages_language", columnList = "language_id, book_id"))
+    @Column(name = "language_id", nullable = false)
+    @Convert(converter = LanguageConverter.class)
     private List<String> languages;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "book_subjects", joinColumns = @JoinColumn(name = "book_id"))
-    @Column(name = "subject")
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "book_subjects", joinColumns = @JoinColumn(name = "book_id"),
+            indexes = @Index(name = "idx_book_subjects_subject", columnList = "subject_id, book_id"))
+    @Column(name = "subject_id", nullable = false)
+    @Convert(converter = SubjectConverter.class)
     private List<String> subjects;
 
+    @Column(name = "download_count")
     private Integer downloadCount;
+
+    /**
+     * Última vez que los datos del libro se obtuvieron de Gutendex, al guardarlo o
+     * al actualizarlo en segundo plano.
+     */
+    @Column(name = "last_refreshed_at")
+    private Instant lastRefreshedAt;
+
+    /**
+     * Los ids vienen asignados por Gutendex, así que Spring Data no puede deducir si
+     * la entidad es nueva a partir del id: sin esta marca cada save haría un merge
+     * con un SELECT previo. Se considera nueva hasta que se persiste o se carga.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateTitleKey() {
+        this.titleKey = TextNormalizer.titleKey(title);
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
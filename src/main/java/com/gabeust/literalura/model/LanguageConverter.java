@@ -0,0 +1,30 @@
+package com.gabeust.literalura.model;
+
+import com.gabeust.literalura.service.TermDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+/**
+ * Guarda cada idioma de un libro como el id de su fila en {@code languages}.
+ */
+@Component
+@Converter
+public class LanguageConverter implements AttributeConverter<String, Integer> {
+
+    private final TermDictionary languages;
+
+    public LanguageConverter(@Qualifier("languageDictionary") TermDictionary languages) {
+        this.languages = languages;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String language) {
+        return language == null ? null : languages.idOf(language);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : languages.nameOf(id);
+    }
+}
@@ -0,0 +1,31 @@
+package com.gabeust.literalura.model;
+
+import com.gabeust.literalura.service.TermDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+/**
+ * Guarda cada tema de un libro como el id de su fila en {@code subjects}. Hibernate
+ * obtiene la instancia del contexto de Spring, con el diccionario ya inyectado.
+ */
+@Component
+@Converter
+public class SubjectConverter implements AttributeConverter<String, Integer> {
+
+    private final TermDictionary subjects;
+
+    public SubjectConverter(@Qualifier("subjectDictionary") TermDictionary subjects) {
+        this.subjects = subjects;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String subject) {
+        return subject == null ? null : subjects.idOf(subject);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : subjects.nameOf(id);
+    }
+}
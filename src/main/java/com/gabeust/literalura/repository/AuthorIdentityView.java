@@ -0,0 +1,14 @@
+package com.gabeust.literalura.repository;
+
+/**
+ * Proyección con los datos mínimos para identificar a un autor sin cargar sus libros.
+ */
+public interface AuthorIdentityView {
+    Long getId();
+
+    String getName();
+
+    Integer getBirthYear();
+
+    Integer getDeathYear();
+}
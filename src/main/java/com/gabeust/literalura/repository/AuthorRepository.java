@@ -1,20 +1,29 @@
 package com.gabeust.literalura.repository;
 
 import com.gabeust.literalura.model.Author;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AuthorRepository extends JpaRepository<Author, Long> {
     Optional<Author> findByNameAndBirthYearAndDeathYear(String name, Integer birthYear, Integer deathYear);
 
-    @Query("SELECT a FROM Author a WHERE a.birthYear <= :year AND (a.deathYear IS NULL OR a.deathYear >= :year)")
-    List<Author> findAuthorsAliveInYear(@Param("year") int year);
+    @Query("SELECT a.id AS id, a.name AS name, a.birthYear AS birthYear, a.deathYear AS deathYear FROM Author a WHERE a.name IN :names")
+    List<AuthorIdentityView> findIdentitiesByNameIn(@Param("names") Collection<String> names);
 
-    @Query("SELECT DISTINCT a FROM Author a LEFT JOIN FETCH a.books WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Author> findByNameContainingIgnoreCaseWithBooks(@Param("name") String name);
+    @Query("SELECT a.id FROM Author a WHERE a.identityKey = :identityKey")
+    Optional<Long> findIdByIdentityKey(@Param("identityKey") String identityKey);
+
+    @Query("SELECT a.id AS id, a.name AS name, a.birthYear AS birthYear, a.deathYear AS deathYear FROM Author a ORDER BY a.id DESC")
+    List<AuthorIdentityView> findIdentities(Pageable pageable);
+
+    @Query("SELECT a FROM Author a WHERE a.id > :afterId ORDER BY a.id")
+    List<Author> findPageAfter(@Param("afterId") long afterId, Limit limit);
 
 }
@@ -0,0 +1,12 @@
+package com.gabeust.literalura.repository;
+
+/**
+ * Proyección con los campos de un libro que la actualización en segundo plano compara.
+ */
+public interface BookRefreshView {
+    Long getId();
+
+    String getTitle();
+
+    Integer getDownloadCount();
+}
@@ -1,9 +1,53 @@
 package com.gabeust.literalura.repository;
 
 import com.gabeust.literalura.model.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Página de libros por clave: usa el índice de la clave primaria, por lo que su
+     * costo no crece con la posición de la página como ocurre con OFFSET.
+     */
+    @Query("SELECT b FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Book> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Libros que no se actualizan desde antes de la fecha dada, los más antiguos (o
+     * nunca actualizados) primero.
+     */
+    @Query("SELECT b.id FROM Book b WHERE b.lastRefreshedAt IS NULL OR b.lastRefreshedAt < :before ORDER BY b.lastRefreshedAt ASC NULLS FIRST, b.id")
+    List<Long> findIdsRefreshedBefore(@Param("before") Instant before, Limit limit);
+
+    @Query("SELECT b.id AS id, b.title AS title, b.downloadCount AS downloadCount FROM Book b WHERE b.id IN :ids")
+    List<BookRefreshView> findRefreshViews(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Book b WHERE :language MEMBER OF b.languages ORDER BY b.downloadCount DESC")
+    List<Long> findIdsByLanguage(@Param("language") String language, Limit limit);
+
+    @Query("SELECT b.id FROM Book b WHERE b.titleKey = :titleKey ORDER BY b.downloadCount DESC")
+    List<Long> findIdsByTitleKey(@Param("titleKey") String titleKey, Limit limit);
+
+    @Query("SELECT b.id FROM Book b ORDER BY b.downloadCount DESC")
+    List<Long> findIdsByDownloads(Limit limit);
+
+    @Query("SELECT b.id FROM Book b WHERE EXISTS (SELECT a FROM b.authors a WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))) ORDER BY b.downloadCount DESC")
+    List<Long> findIdsByAuthorName(@Param("name") String name, Limit limit);
+
+    @Query("SELECT b.id FROM Book b WHERE EXISTS (SELECT a FROM b.authors a WHERE a.id IN :authorIds) ORDER BY b.downloadCount DESC")
+    List<Long> findIdsByAuthorIdIn(@Param("authorIds") Collection<Long> authorIds, Limit limit);
+
+    @Query("SELECT b.id FROM Book b WHERE EXISTS (SELECT a FROM b.authors a WHERE a.birthYear <= :endYear AND (a.deathYear IS NULL OR a.deathYear >= :startYear)) ORDER BY b.downloadCount DESC")
+    List<Long> findIdsByAuthorAliveBetween(@Param("startYear") int startYear, @Param("endYear") int endYear, Limit limit);
 }
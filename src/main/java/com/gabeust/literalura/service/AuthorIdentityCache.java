@@ -0,0 +1,154 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.index.AuthorNameIndex;
+import com.gabeust.literalura.mapper.AuthorMapper;
+import com.gabeust.literalura.model.AuthorKey;
+import com.gabeust.literalura.repository.AuthorIdentityView;
+import com.gabeust.literalura.repository.AuthorRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Mapa de identidad concurrente de autores: asocia la clave natural
+ * (nombre, nacimiento, fallecimiento) con el id del autor en la base de datos.
+ * <p>
+ * Se precarga al iniciar con los autores más recientes y está acotado en tamaño.
+ * La unicidad real la garantiza el índice único sobre {@code identity_key}: si dos
+ * hilos crean el mismo autor a la vez, el segundo recibe la violación de la
+ * restricción y relee el id ya insertado, así que la operación es idempotente.
+ */
+@Component
+public class AuthorIdentityCache {
+
+    /**
+     * Contadores de uso del mapa de identidad.
+     */
+    public record Stats(long hits, long misses, long queries, long inserts, long conflicts, int size) {}
+
+    private final AuthorRepository authorRepository;
+    private final AuthorNameIndex nameIndex;
+    private final TransactionTemplate newTransaction;
+    private final int maxEntries;
+
+    private final Map<AuthorKey, Long> ids = new ConcurrentHashMap<>();
+    private final Queue<AuthorKey> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong inserts = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    public AuthorIdentityCache(AuthorRepository authorRepository,
+                               AuthorNameIndex nameIndex,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${literalura.authors.identity-cache.max-entries:50000}") int maxEntries) {
+        this.authorRepository = authorRepository;
+        this.nameIndex = nameIndex;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Precarga el mapa con los autores más recientes, hasta el tamaño máximo.
+     */
+    @PostConstruct
+    void warmUp() {
+        authorRepository.findIdentities(PageRequest.of(0, maxEntries))
+                .forEach(view -> put(key(view), view.getId()));
+    }
+
+    /**
+     * Devuelve el id del autor si está en memoria, sin consultar la base de datos.
+     */
+    public Long get(AuthorKey key) {
+        Long id = ids.get(key);
+        if (id != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return id;
+    }
+
+    /**
+     * Registra un id ya conocido (por ejemplo, resuelto por una consulta por lote).
+     */
+    public void put(AuthorKey key, Long id) {
+        if (ids.putIfAbsent(key, id) == null) {
+            insertionOrder.add(key);
+            while (ids.size() > maxEntries) {
+                AuthorKey eldest = insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                ids.remove(eldest);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el id del autor, creándolo si no existe. Las llamadas concurrentes
+     * para el mismo autor devuelven siempre el mismo id.
+     *
+     * @param dto datos del autor
+     * @return id del autor en la base de datos
+     */
+    public Long findOrCreateId(AuthorDTO dto) {
+        AuthorKey key = AuthorKey.of(dto);
+        Long cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Long id = lookup(key);
+        if (id == null) {
+            try {
+                id = newTransaction.execute(status -> {
+                    inserts.incrementAndGet();
+                    return authorRepository.saveAndFlush(AuthorMapper.toEntity(dto)).getId();
+                });
+            } catch (DataIntegrityViolationException e) {
+                // otro hilo o proceso lo insertó primero: se usa su fila
+                conflicts.incrementAndGet();
+                id = lookup(key);
+                if (id == null) {
+                    throw e;
+                }
+            }
+        }
+        put(key, id);
+        // el autor ya existe aunque la ingesta de sus libros todavía no se confirme
+        nameIndex.add(id, dto.name());
+        return id;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), queries.get(), inserts.get(), conflicts.get(), ids.size());
+    }
+
+    /**
+     * La búsqueda corre en su propia transacción para ver filas confirmadas por
+     * otras transacciones aunque la del llamador ya tenga una instantánea abierta.
+     */
+    private Long lookup(AuthorKey key) {
+        queries.incrementAndGet();
+        return newTransaction.execute(status -> authorRepository.findIdByIdentityKey(key.asString()).orElse(null));
+    }
+
+    private static AuthorKey key(AuthorIdentityView view) {
+        return new AuthorKey(view.getName(), view.getBirthYear(), view.getDeathYear());
+    }
+}
@@ -2,38 +2,83 @@ package com.gabeust.literalura.service;
 
 
 import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.client.AsyncCalls;
+import com.gabeust.literalura.client.GutendexUnavailableException;
 import com.gabeust.literalura.dto.AuthorDTO;
 import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import com.gabeust.literalura.index.AuthorLifespanIndex;
+import com.gabeust.literalura.index.AuthorNameIndex;
+import com.gabeust.literalura.index.CatalogIndexer;
 import com.gabeust.literalura.mapper.AuthorMapper;
-import com.gabeust.literalura.mapper.BookMapper;
 import com.gabeust.literalura.model.Author;
-import com.gabeust.literalura.model.Book;
 import com.gabeust.literalura.repository.AuthorRepository;
 import com.gabeust.literalura.repository.BookRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 /**
  * Servicio para manejar operaciones relacionadas con autores y sus libros.
  * Provee métodos para obtener autores, buscar libros por autor y gestionar persistencia.
  */
 @Service
+@Timed(value = "literalura.service", histogram = true)
 public class AuthorService {
+    private static final Logger log = LoggerFactory.getLogger(AuthorService.class);
+    private static final int AUTHOR_MATCHES = 10;
+
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final AuthorLifespanIndex lifespanIndex;
+    private final AuthorNameIndex nameIndex;
+    private final CatalogIndexer catalogIndexer;
+    private final BookIngestService ingestService;
+    private final AuthorIdentityCache identityCache;
     private final ApiConsumer apiConsumer;
+    private final ExecutorService lookupExecutor;
     /**
      * Constructor con inyección de dependencias.
      *
      * @param authorRepository repositorio para operaciones con autores en la base de datos
-     * @param bookRepository repositorio para operaciones con libros en la base de datos
+     * @param bookRepository repositorio de libros, usado cuando Gutendex no está disponible
+     * @param bookService servicio de libros, para cargar los guardados
+     * @param lifespanIndex índice de años de vida de los autores guardados
+     * @param nameIndex índice de trigramas de los nombres de autores guardados
+     * @param catalogIndexer carga de los índices locales, para saber si ya están completos
+     * @param ingestService servicio de ingesta por lotes de libros y autores
+     * @param identityCache mapa de identidad en memoria de autores
      * @param apiConsumer cliente para consumir APIs externas de búsqueda de libros
+     * @param lookupExecutor ejecutor de las búsquedas asíncronas
      */
-    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository, ApiConsumer apiConsumer) {
+    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository, BookService bookService,
+                         AuthorLifespanIndex lifespanIndex, AuthorNameIndex nameIndex, CatalogIndexer catalogIndexer,
+                         BookIngestService ingestService,
+                         AuthorIdentityCache identityCache, ApiConsumer apiConsumer,
+                         ExecutorService lookupExecutor) {
         this.authorRepository = authorRepository;
         this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.lifespanIndex = lifespanIndex;
+        this.nameIndex = nameIndex;
+        this.catalogIndexer = catalogIndexer;
+        this.ingestService = ingestService;
+        this.identityCache = identityCache;
         this.apiConsumer = apiConsumer;
+        this.lookupExecutor = lookupExecutor;
     }
 
     /**
@@ -47,21 +92,62 @@ public class AuthorService {
                .toList();
     }
     /**
-     * Busca un autor en la base de datos por nombre y años de nacimiento y muerte.
-     * Si no existe, lo crea y guarda.
+     * Recupera una página de autores almacenados ordenados por id.
+     *
+     * @param afterId id del último autor de la página anterior, o {@code null} para la primera
+     * @param size    cantidad máxima de autores de la página
+     * @return autores de la página y cursor para la siguiente
+     */
+    public KeysetPageDTO<AuthorDTO> findPage(Long afterId, int size) {
+        List<Author> authors = authorRepository.findPageAfter(afterId == null ? 0L : afterId, Limit.of(size));
+        List<AuthorDTO> items = authors.stream()
+                .map(AuthorMapper::toDTO)
+                .toList();
+        Long nextCursor = authors.size() < size ? null : authors.get(authors.size() - 1).getId();
+        return new KeysetPageDTO<>(items, nextCursor);
+    }
+    /**
+     * Busca autores guardados por nombre con el índice de trigramas: tolera errores
+     * de tipeo, acentos y el orden de las palabras ("miguel cervantes" encuentra a
+     * "Cervantes Saavedra, Miguel de"). Los autores se cargan por id en una consulta.
+     *
+     * @param query nombre completo o parcial
+     * @param limit cantidad máxima de autores
+     * @return autores de más a menos parecidos
+     */
+    public List<AuthorDTO> searchAuthors(String query, int limit) {
+        List<Long> ids = nameIndex.search(query, limit).stream()
+                .map(AuthorNameIndex.Match::authorId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, AuthorDTO> byId = new HashMap<>();
+        authorRepository.findAllById(ids).forEach(author -> byId.put(author.getId(), AuthorMapper.toDTO(author)));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    /**
+     * Busca un autor por nombre y años de nacimiento y muerte. Si no existe, lo crea y guarda.
+     * El id se resuelve a través del mapa de identidad, que evita la consulta en la
+     * mayoría de los casos y hace que las llamadas concurrentes no creen duplicados.
      *
      * @param dto DTO con datos del autor
-     * @return entidad Author existente o creada
+     * @return referencia a la entidad Author existente o creada, para asociarla dentro de la transacción actual
      */
+    @Transactional
     public Author findOrCreate(AuthorDTO dto) {
-        return authorRepository.findByNameAndBirthYearAndDeathYear(dto.name(), dto.birthYear(), dto.deathYear())
-                .orElseGet(() -> authorRepository.save(AuthorMapper.toEntity(dto)));
+        return authorRepository.getReferenceById(identityCache.findOrCreateId(dto));
     }
 
     /**
      * Busca libros por el nombre del autor usando una API externa,
      * y guarda los libros en la base de datos si no existen.
      * Además, asegura que los autores relacionados no se dupliquen en la base.
+     * Si Gutendex no está disponible, devuelve los libros guardados de los autores
+     * que se le parecen según el índice de trigramas.
      *
      * @param authorName nombre del autor para búsqueda
      * @return lista de DTOs de libros encontrados
@@ -69,24 +155,68 @@ public class AuthorService {
      * @throws IOException si ocurre un error de entrada/salida durante la llamada a la API
      */
     public List<BookDTO> findByAuthor(String authorName) throws InterruptedException, IOException {
-        List<BookDTO> books = apiConsumer.searchByAuthor(authorName);
-
-        books.forEach(book -> {
-            if (!bookRepository.existsById(book.id())) {
-                Book entity = BookMapper.toEntity(book);
-                // Antes de guardar el libro, aseguramos que autores no se dupliquen
-                entity.setAuthors(entity.getAuthors().stream()
-                        .map(author -> findOrCreate(AuthorMapper.toDTO(author)))
-                        .toList());
-                bookRepository.save(entity);
-            }
-        });
-
+        // los autores se resuelven por lote para que no se dupliquen
+        return findByAuthor(authorName, ingestService::saveAllIfNotExists);
+    }
+    /**
+     * Igual que {@link #findByAuthor(String)}, pero los libros traídos de la API se
+     * entregan a {@code newBooks} en lugar de guardarse, para que quien llama los
+     * guarde junto con otros en un solo lote.
+     *
+     * @param authorName nombre del autor para búsqueda
+     * @param newBooks   recibe los libros de la API que pueden no estar guardados
+     * @return lista de DTOs de libros encontrados
+     * @throws InterruptedException si la operación es interrumpida
+     * @throws IOException si ocurre un error de entrada/salida durante la llamada a la API
+     */
+    public List<BookDTO> findByAuthor(String authorName, Consumer<List<BookDTO>> newBooks)
+            throws InterruptedException, IOException {
+        List<BookDTO> books;
+        try {
+            books = apiConsumer.searchByAuthor(authorName);
+        } catch (GutendexUnavailableException e) {
+            log.warn("Gutendex no disponible; se responde con los libros guardados: {}", e.getMessage());
+            return bookService.findByIds(findStoredBookIdsByAuthor(authorName));
+        }
+        newBooks.accept(books);
         return books;
     }
+    private List<Long> findStoredBookIdsByAuthor(String authorName) {
+        Limit limit = Limit.of(BookService.LOCAL_FALLBACK_LIMIT);
+        if (!catalogIndexer.isReady()) {
+            return bookRepository.findIdsByAuthorName(authorName, limit);
+        }
+        List<Long> authorIds = nameIndex.search(authorName, AUTHOR_MATCHES).stream()
+                .map(AuthorNameIndex.Match::authorId)
+                .toList();
+        return authorIds.isEmpty() ? List.of() : bookRepository.findIdsByAuthorIdIn(authorIds, limit);
+    }
     /**
-     * Busca libros cuyos autores estuvieron vivos entre un rango de años específico,
-     * usando una API externa.
+     * Variante asíncrona de {@link #findByAuthor(String)}; varias búsquedas lanzadas
+     * juntas se resuelven en paralelo.
+     *
+     * @param authorName nombre del autor para búsqueda
+     * @return futuro con la lista de DTOs de libros encontrados
+     */
+    public CompletableFuture<List<BookDTO>> findByAuthorAsync(String authorName) {
+        return AsyncCalls.supply(() -> findByAuthor(authorName), lookupExecutor);
+    }
+    /**
+     * Autores guardados que estaban vivos en un año dado, según el índice de años de vida.
+     *
+     * @param year año a consultar
+     * @return autores ordenados por año de nacimiento
+     */
+    public List<AuthorDTO> findAuthorsAliveInYear(int year) {
+        return lifespanIndex.authorsAliveBetween(year, year);
+    }
+    /**
+     * Busca libros cuyos autores estuvieron vivos entre un rango de años específico.
+     * <p>
+     * Se responde con el índice de años de vida de los autores guardados, los libros
+     * más descargados primero; solo si no hay coincidencias locales (o falta la carga
+     * inicial) se consulta la API, y lo recibido se guarda. Si Gutendex no está
+     * disponible, se buscan en la base.
      *
      * @param startYear año inicial del rango
      * @param endYear año final del rango
@@ -95,6 +225,20 @@ public class AuthorService {
      * @throws InterruptedException si la operación es interrumpida
      */
     public List<BookDTO> findBooksByAuthorsAliveBetween(int startYear, int endYear) throws IOException, InterruptedException {
-        return apiConsumer.searchBooksByAuthorYearRange(startYear, endYear);
+        if (catalogIndexer.isReady()) {
+            Set<Long> bookIds = lifespanIndex.booksByAuthorsAliveBetween(startYear, endYear);
+            if (!bookIds.isEmpty()) {
+                return bookService.findMostDownloadedOf(bookIds, BookService.LOCAL_FALLBACK_LIMIT);
+            }
+        }
+        try {
+            List<BookDTO> books = apiConsumer.searchBooksByAuthorYearRange(startYear, endYear);
+            ingestService.saveAllIfNotExists(books);
+            return books;
+        } catch (GutendexUnavailableException e) {
+            log.warn("Gutendex no disponible; se responde con los libros guardados: {}", e.getMessage());
+            return bookService.findByIds(bookRepository.findIdsByAuthorAliveBetween(startYear, endYear,
+                    Limit.of(BookService.LOCAL_FALLBACK_LIMIT)));
+        }
     }
 }
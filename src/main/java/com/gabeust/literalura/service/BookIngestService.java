@@ -0,0 +1,210 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.mapper.BookMapper;
+import com.gabeust.literalura.model.Author;
+import com.gabeust.literalura.model.AuthorKey;
+import com.gabeust.literalura.model.Book;
+import com.gabeust.literalura.repository.AuthorRepository;
+import com.gabeust.literalura.repository.BookRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+/**
+ * Servicio de ingesta por lotes de libros obtenidos de la API.
+ * <p>
+ * En lugar de consultar libro por libro y autor por autor, resuelve los ids de
+ * libros existentes y los autores de cada lote con una consulta cada uno, y
+ * escribe los libros nuevos con el batching JDBC de Hibernate. Los temas e idiomas
+ * nuevos de cada lote se registran antes en sus diccionarios. Al terminar publica
+ * un {@link BooksSavedEvent} para mantener actualizados los índices en memoria.
+ */
+@Service
+@Timed(value = "literalura.service", histogram = true)
+public class BookIngestService {
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final AuthorIdentityCache identityCache;
+    private final TermDictionary subjectDictionary;
+    private final TermDictionary languageDictionary;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public BookIngestService(BookRepository bookRepository,
+                             AuthorRepository authorRepository,
+                             AuthorIdentityCache identityCache,
+                             @Qualifier("subjectDictionary") TermDictionary subjectDictionary,
+                             @Qualifier("languageDictionary") TermDictionary languageDictionary,
+                             EntityManager entityManager,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.identityCache = identityCache;
+        this.subjectDictionary = subjectDictionary;
+        this.languageDictionary = languageDictionary;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Guarda los libros que todavía no existen en la base de datos, reutilizando
+     * los autores ya registrados. Los libros repetidos dentro de la entrada se
+     * guardan una sola vez.
+     *
+     * @param books libros a guardar
+     * @return cantidad de libros nuevos guardados
+     */
+    @Transactional
+    public int saveAllIfNotExists(Collection<BookDTO> books) {
+        Map<Long, BookDTO> byId = new LinkedHashMap<>();
+        for (BookDTO book : books) {
+            if (book != null && book.id() != null) {
+                byId.putIfAbsent(book.id(), book);
+            }
+        }
+        if (byId.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> ids : partition(new ArrayList<>(byId.keySet()), IN_CLAUSE_LIMIT)) {
+            existing.addAll(bookRepository.findExistingIds(ids));
+        }
+        List<BookDTO> pending = byId.values().stream()
+                .filter(book -> !existing.contains(book.id()))
+                .toList();
+
+        List<BookDTO> saved = new ArrayList<>(pending.size());
+        for (List<BookDTO> chunk : partition(pending, batchSize)) {
+            Map<AuthorKey, Author> authors = resolveAuthors(chunk.stream()
+                    .filter(book -> book.authors() != null)
+                    .flatMap(book -> book.authors().stream())
+                    .toList());
+            subjectDictionary.ensure(chunk.stream()
+                    .filter(book -> book.subjects() != null)
+                    .flatMap(book -> book.subjects().stream())
+                    .toList());
+            languageDictionary.ensure(chunk.stream()
+                    .filter(book -> book.languages() != null)
+                    .flatMap(book -> book.languages().stream())
+                    .toList());
+
+            List<Book> entities = chunk.stream()
+                    .map(dto -> toEntity(dto, authors))
+                    .toList();
+            bookRepository.saveAll(entities);
+            chunk.forEach(dto -> saved.add(withAuthorIds(dto, authors)));
+
+            // vaciar el contexto de persistencia mantiene acotada la memoria en ingestas grandes
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (!saved.isEmpty()) {
+            eventPublisher.publishEvent(new BooksSavedEvent(saved));
+        }
+        return pending.size();
+    }
+
+    /**
+     * Resuelve los autores de un lote: primero en el mapa de identidad en memoria,
+     * luego con una sola consulta para los que falten, y por último crea los que
+     * no existen de forma idempotente.
+     *
+     * @param authors autores a resolver, posiblemente repetidos
+     * @return referencias gestionadas a los autores indexadas por su identidad natural
+     */
+    @Transactional
+    public Map<AuthorKey, Author> resolveAuthors(Collection<AuthorDTO> authors) {
+        Map<AuthorKey, AuthorDTO> wanted = new LinkedHashMap<>();
+        authors.forEach(dto -> wanted.putIfAbsent(AuthorKey.of(dto), dto));
+
+        Map<AuthorKey, Long> ids = new HashMap<>();
+        Set<String> unknownNames = new HashSet<>();
+        wanted.keySet().forEach(key -> {
+            Long id = identityCache.get(key);
+            if (id != null) {
+                ids.put(key, id);
+            } else {
+                unknownNames.add(key.name());
+            }
+        });
+
+        for (List<String> chunk : partition(new ArrayList<>(unknownNames), IN_CLAUSE_LIMIT)) {
+            authorRepository.findIdentitiesByNameIn(chunk).forEach(view -> {
+                AuthorKey key = new AuthorKey(view.getName(), view.getBirthYear(), view.getDeathYear());
+                identityCache.put(key, view.getId());
+                if (wanted.containsKey(key)) {
+                    ids.putIfAbsent(key, view.getId());
+                }
+            });
+        }
+
+        Map<AuthorKey, Author> resolved = new HashMap<>();
+        wanted.forEach((key, dto) -> {
+            Long id = ids.computeIfAbsent(key, missing -> identityCache.findOrCreateId(dto));
+            resolved.put(key, authorRepository.getReferenceById(id));
+        });
+        return resolved;
+    }
+
+    private Book toEntity(BookDTO dto, Map<AuthorKey, Author> authors) {
+        Book entity = BookMapper.toEntity(dto);
+        entity.setLastRefreshedAt(Instant.now());
+        entity.setSubjects(withoutNulls(dto.subjects()));
+        entity.setLanguages(withoutNulls(dto.languages()));
+        if (dto.authors() != null) {
+            entity.setAuthors(dto.authors().stream()
+                    .map(AuthorKey::of)
+                    .distinct()
+                    .map(authors::get)
+                    .toList());
+        }
+        return entity;
+    }
+
+    private static BookDTO withAuthorIds(BookDTO dto, Map<AuthorKey, Author> authors) {
+        if (dto.authors() == null) {
+            return dto;
+        }
+        List<AuthorDTO> linked = dto.authors().stream()
+                .map(author -> new AuthorDTO(authors.get(AuthorKey.of(author)).getId(),
+                        author.name(), author.birthYear(), author.deathYear()))
+                .toList();
+        return new BookDTO(dto.id(), dto.title(), dto.summaries(), linked, dto.subjects(),
+                dto.languages(), dto.download_count());
+    }
+
+    // las columnas de ids de temas e idiomas no admiten nulos
+    private static List<String> withoutNulls(List<String> values) {
+        return values == null ? null : values.stream().filter(Objects::nonNull).toList();
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(items.size(), i + size)));
+        }
+        return chunks;
+    }
+}
@@ -4,68 +4,174 @@ import com.gabeust.literalura.dto.AuthorDTO;
 import com.gabeust.literalura.dto.BookDTO;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
-import java.util.stream.Collectors;
 /**
  * Servicio responsable de imprimir en consola información formateada
  * sobre libros y autores.
+ * <p>
+ * Cada llamada arma todo el texto en un buffer reutilizado y lo escribe de una
+ * sola vez a través de un writer con buffer, con un único flush al final, en
+ * lugar de una escritura sincronizada por línea.
  */
 @Service
 public class BookPrinterService {
+
+    private static final String BOOK_SEPARATOR = "=".repeat(60);
+    private static final String AUTHOR_SEPARATOR = "-".repeat(50);
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+
+    public BookPrinterService() {
+        this(new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), BUFFER_SIZE));
+    }
+
+    /**
+     * @param out destino de la salida; se vacía después de cada impresión
+     */
+    public BookPrinterService(Writer out) {
+        this.out = out;
+    }
+
     /**
      * Imprime una lista de libros con detalles como título, autores,
      * resúmenes, temas, idiomas y cantidad de descargas.
      *
      * @param books lista de DTOs de libros a imprimir
      */
-    public void printBooks(List<BookDTO> books) {
+    public synchronized void printBooks(List<BookDTO> books) {
+        buffer.setLength(0);
         if (books == null || books.isEmpty()) {
-            System.out.println("📚 No se encontraron libros.");
-            return;
+            line("📚 No se encontraron libros.");
+        } else {
+            for (BookDTO book : books) {
+                appendBook(book);
+            }
+        }
+        flush();
+    }
+    /**
+     * Imprime una página de libros con su número y las opciones de navegación.
+     *
+     * @param books       libros de la página
+     * @param pageNumber  número de página, empezando en 1
+     * @param hasPrevious si hay una página anterior
+     * @param hasNext     si hay una página siguiente
+     */
+    public synchronized void printPage(List<BookDTO> books, int pageNumber, boolean hasPrevious, boolean hasNext) {
+        buffer.setLength(0);
+        if (books.isEmpty()) {
+            line("📚 No se encontraron libros.");
         }
-
         for (BookDTO book : books) {
-            System.out.println("=".repeat(60));
-            System.out.println("📖 Título: " + book.title());
-
-            String authors = book.authors().stream()
-                    .map(AuthorDTO::name)
-                    .collect(Collectors.joining(", "));
-            System.out.println("✍️ Autor(es): " + authors);
-
-            System.out.println("📝 Resumen(es):");
-            book.summaries().forEach(s -> System.out.println("   " + s));
-
-            System.out.println("📚 Temas: " + String.join(", ", book.subjects()));
-            System.out.println("🗣 Idiomas: " + String.join(", ", book.languages()));
-            System.out.println("⬇️ Descargas: " + book.download_count());
+            appendBook(book);
+        }
+        buffer.append(NEW_LINE).append("📄 Página ").append(pageNumber).append(" — ");
+        if (hasNext) {
+            buffer.append("[Enter] siguiente  ");
+        }
+        if (hasPrevious) {
+            buffer.append("[p] anterior  ");
         }
+        buffer.append("[q] volver al menú: ");
+        flush();
     }
     /**
      * Imprime una lista de autores con sus detalles básicos.
      *
      * @param authors lista de DTOs de autores a imprimir
      */
-    public void printAuthors(List<AuthorDTO> authors) {
+    public synchronized void printAuthors(List<AuthorDTO> authors) {
+        buffer.setLength(0);
         if (authors == null || authors.isEmpty()) {
-            System.out.println("✍️ No se encontraron autores.");
-            return;
-        }
-
-        for (AuthorDTO author : authors) {
-            System.out.println("=".repeat(60));
-            printAuthor(author); // reutiliza el método individual
+            line("✍️ No se encontraron autores.");
+        } else {
+            for (AuthorDTO author : authors) {
+                line(BOOK_SEPARATOR);
+                appendAuthor(author);
+            }
         }
+        flush();
     }
     /**
      * Imprime la información detallada de un autor.
      *
      * @param author DTO del autor a imprimir
      */
-    public void printAuthor(AuthorDTO author) {
-        System.out.println("👤 Nombre: " + author.name());
-        System.out.println("📅 Año de nacimiento: " + (author.birthYear() != null ? author.birthYear() : "Desconocido"));
-        System.out.println("🪦 Año de fallecimiento: " + (author.deathYear() != null ? author.deathYear() : "Desconocido"));
-        System.out.println("-".repeat(50));
+    public synchronized void printAuthor(AuthorDTO author) {
+        buffer.setLength(0);
+        appendAuthor(author);
+        flush();
+    }
+
+    private void appendBook(BookDTO book) {
+        line(BOOK_SEPARATOR);
+        buffer.append("📖 Título: ").append(book.title()).append(NEW_LINE);
+
+        buffer.append("✍️ Autor(es): ");
+        List<AuthorDTO> authors = book.authors();
+        for (int i = 0; i < authors.size(); i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(authors.get(i).name());
+        }
+        buffer.append(NEW_LINE);
+
+        line("📝 Resumen(es):");
+        for (String summary : book.summaries()) {
+            buffer.append("   ").append(summary).append(NEW_LINE);
+        }
+
+        buffer.append("📚 Temas: ");
+        join(book.subjects());
+        buffer.append("🗣 Idiomas: ");
+        join(book.languages());
+        buffer.append("⬇️ Descargas: ").append(book.download_count() != null ? book.download_count() : "Desconocido").append(NEW_LINE);
+    }
+
+    private void appendAuthor(AuthorDTO author) {
+        buffer.append("👤 Nombre: ").append(author.name()).append(NEW_LINE);
+        buffer.append("📅 Año de nacimiento: ")
+                .append(author.birthYear() != null ? author.birthYear() : "Desconocido").append(NEW_LINE);
+        buffer.append("🪦 Año de fallecimiento: ")
+                .append(author.deathYear() != null ? author.deathYear() : "Desconocido").append(NEW_LINE);
+        line(AUTHOR_SEPARATOR);
+    }
+
+    private void join(List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(values.get(i));
+        }
+        buffer.append(NEW_LINE);
+    }
+
+    private void line(String text) {
+        buffer.append(text).append(NEW_LINE);
+    }
+
+    private void flush() {
+        try {
+            out.append(buffer);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // un listado muy grande no debe dejar retenido un buffer enorme
+        if (buffer.capacity() > 4 * BUFFER_SIZE) {
+            buffer.setLength(0);
+            buffer.trimToSize();
+            buffer.ensureCapacity(BUFFER_SIZE);
+        }
     }
-}
\ No newline at end of file
+}
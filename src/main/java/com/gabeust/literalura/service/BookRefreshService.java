@@ -0,0 +1,175 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.client.GutendexUnavailableException;
+import com.gabeust.literalura.config.InteractiveModeCondition;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.index.TextNormalizer;
+import com.gabeust.literalura.repository.BookRefreshView;
+import com.gabeust.literalura.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+/**
+ * Actualiza en segundo plano los libros guardados con los datos actuales de Gutendex.
+ * <p>
+ * En cada ciclo se toman los libros que no se actualizan hace más de {@code max-age},
+ * los más antiguos primero, y se piden por lotes con el filtro {@code ids}. Solo los
+ * libros cuyo título o cantidad de descargas cambió se escriben, con una actualización
+ * JDBC por lotes; a todos los consultados se les renueva la fecha de actualización,
+ * así el ciclo siguiente continúa con otros. Los libros modificados se reenvían a los
+ * índices en memoria.
+ * <p>
+ * La tasa queda dada por {@code batch-size} y {@code batches-per-run} en cada
+ * {@code interval}; las solicitudes pasan además por el límite de tasa del cliente.
+ * Solo existe en los modos interactivos: un comando que termina solo no actualiza.
+ */
+@Service
+@Lazy(false)
+@ConditionalOnProperty(name = "literalura.refresh.enabled", havingValue = "true", matchIfMissing = true)
+@Conditional(InteractiveModeCondition.class)
+public class BookRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookRefreshService.class);
+
+    /**
+     * Resultado de un lote de actualización.
+     */
+    public record RefreshReport(int checked, int changed, int missing) {}
+
+    private final BookRepository bookRepository;
+    private final ApiConsumer apiConsumer;
+    private final BookService bookService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int batchesPerRun;
+    private final Duration maxAge;
+
+    public BookRefreshService(BookRepository bookRepository, ApiConsumer apiConsumer, BookService bookService,
+                              JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                              @Value("${literalura.refresh.batch-size:32}") int batchSize,
+                              @Value("${literalura.refresh.batches-per-run:1}") int batchesPerRun,
+                              @Value("${literalura.refresh.max-age:P7D}") Duration maxAge) {
+        this.bookRepository = bookRepository;
+        this.apiConsumer = apiConsumer;
+        this.bookService = bookService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.batchesPerRun = batchesPerRun;
+        this.maxAge = maxAge;
+    }
+
+    @Scheduled(initialDelayString = "${literalura.refresh.initial-delay:PT2M}",
+            fixedDelayString = "${literalura.refresh.interval:PT1M}")
+    public void refreshStale() {
+        for (int i = 0; i < batchesPerRun; i++) {
+            try {
+                RefreshReport report = refreshBatch();
+                if (report.checked() < batchSize) {
+                    return;
+                }
+            } catch (GutendexUnavailableException e) {
+                log.debug("Gutendex no disponible; la actualización sigue en el próximo ciclo: {}", e.getMessage());
+                return;
+            } catch (IOException e) {
+                log.warn("No se pudo actualizar un lote de libros", e);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Actualiza el siguiente lote de libros vencidos.
+     *
+     * @return cantidad de libros consultados, modificados y ausentes en Gutendex
+     * @throws IOException          si falla la consulta a Gutendex
+     * @throws InterruptedException si la consulta es interrumpida
+     */
+    public RefreshReport refreshBatch() throws IOException, InterruptedException {
+        Instant now = Instant.now();
+        List<Long> ids = bookRepository.findIdsRefreshedBefore(now.minus(maxAge), Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return new RefreshReport(0, 0, 0);
+        }
+
+        Map<Long, BookDTO> fetched = new HashMap<>();
+        for (BookDTO book : apiConsumer.searchByIds(ids)) {
+            fetched.put(book.id(), book);
+        }
+
+        List<BookDTO> changed = new ArrayList<>();
+        for (BookRefreshView stored : bookRepository.findRefreshViews(ids)) {
+            BookDTO current = fetched.get(stored.getId());
+            if (current != null && (!Objects.equals(stored.getTitle(), current.title())
+                    || !Objects.equals(stored.getDownloadCount(), current.download_count()))) {
+                changed.add(current);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!changed.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE books SET title = ?, title_key = ?, download_count = ? WHERE id = ?",
+                        changed, changed.size(), (ps, book) -> {
+                            ps.setString(1, book.title());
+                            ps.setString(2, TextNormalizer.titleKey(book.title()));
+                            ps.setObject(3, book.download_count(), Types.INTEGER);
+                            ps.setLong(4, book.id());
+                        });
+            }
+            // también los ausentes, para no volver a pedirlos en cada ciclo
+            Timestamp refreshedAt = Timestamp.from(now);
+            jdbcTemplate.batchUpdate("UPDATE books SET last_refreshed_at = ? WHERE id = ?",
+                    ids, ids.size(), (ps, id) -> {
+                        ps.setTimestamp(1, refreshedAt);
+                        ps.setLong(2, id);
+                    });
+        });
+
+        if (!changed.isEmpty()) {
+            // se recargan de la base para que los autores lleguen con su id
+            eventPublisher.publishEvent(new BooksSavedEvent(
+                    bookService.findStoredByIds(changed.stream().map(BookDTO::id).toList())));
+        }
+
+        RefreshReport report = new RefreshReport(ids.size(), changed.size(), ids.size() - fetched.size());
+        meterRegistry.counter("literalura.refresh.books", "result", "changed").increment(report.changed());
+        meterRegistry.counter("literalura.refresh.books", "result", "unchanged")
+                .increment(report.checked() - report.changed() - report.missing());
+        meterRegistry.counter("literalura.refresh.books", "result", "missing").increment(report.missing());
+        log.debug("Actualización de libros: {} consultados, {} modificados, {} ausentes",
+                report.checked(), report.changed(), report.missing());
+        return report;
+    }
+}
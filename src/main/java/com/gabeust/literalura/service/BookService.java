@@ -1,36 +1,94 @@
 package com.gabeust.literalura.service;
 
 import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.client.AsyncCalls;
+import com.gabeust.literalura.client.GutendexUnavailableException;
 import com.gabeust.literalura.dto.BookDTO;
-import com.gabeust.literalura.mapper.AuthorMapper;
+import com.gabeust.literalura.dto.FacetResultDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import com.gabeust.literalura.index.BookSearchIndex;
+import com.gabeust.literalura.index.CatalogIndexer;
+import com.gabeust.literalura.index.CatalogSnapshotStore;
+import com.gabeust.literalura.index.ColumnarCatalog;
+import com.gabeust.literalura.index.CompactBitmap;
+import com.gabeust.literalura.index.DownloadLeaderboard;
+import com.gabeust.literalura.index.FacetIndex;
+import com.gabeust.literalura.index.TextNormalizer;
+import com.gabeust.literalura.index.TitleKeyIndex;
 import com.gabeust.literalura.mapper.BookMapper;
 import com.gabeust.literalura.model.Book;
 import com.gabeust.literalura.repository.BookRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 /**
  * Servicio encargado de gestionar la lógica relacionada con los libros,
  * incluyendo búsqueda, persistencia y sincronización con APIs externas.
  */
 @Service
+@Timed(value = "literalura.service", histogram = true)
 public class BookService {
+    private static final Logger log = LoggerFactory.getLogger(BookService.class);
+    private static final int LOCAL_TITLE_CANDIDATES = 20;
+    /**
+     * Cantidad de libros que se devuelven desde la base cuando Gutendex no responde,
+     * igual al tamaño de página de la API.
+     */
+    static final int LOCAL_FALLBACK_LIMIT = 32;
+    private static final int FACET_SUBJECTS = 20;
+
     private final BookRepository bookRepository;
     private final ApiConsumer apiConsumer;
-    private final AuthorService authorService;
+    private final BookIngestService ingestService;
+    private final BookSearchIndex searchIndex;
+    private final TitleKeyIndex titleKeyIndex;
+    private final DownloadLeaderboard leaderboard;
+    private final FacetIndex facetIndex;
+    private final CatalogIndexer catalogIndexer;
+    private final CatalogSnapshotStore snapshotStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService lookupExecutor;
 
-    public BookService(BookRepository bookRepository, ApiConsumer apiConsumer, AuthorService authorService) {
+    public BookService(BookRepository bookRepository, ApiConsumer apiConsumer, BookIngestService ingestService,
+                       BookSearchIndex searchIndex, TitleKeyIndex titleKeyIndex, DownloadLeaderboard leaderboard, FacetIndex facetIndex,
+                       CatalogIndexer catalogIndexer, CatalogSnapshotStore snapshotStore,
+                       PlatformTransactionManager transactionManager, ExecutorService lookupExecutor) {
         this.bookRepository = bookRepository;
         this.apiConsumer = apiConsumer;
-        this.authorService = authorService;
+        this.ingestService = ingestService;
+        this.searchIndex = searchIndex;
+        this.titleKeyIndex = titleKeyIndex;
+        this.leaderboard = leaderboard;
+        this.facetIndex = facetIndex;
+        this.catalogIndexer = catalogIndexer;
+        this.snapshotStore = snapshotStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lookupExecutor = lookupExecutor;
 
     }
     /**
-     * Busca un libro por título utilizando una API externa.
-     * Si el libro no existe en la base de datos local, lo guarda.
+     * Busca un libro por título. Primero se consulta la clave normalizada del título
+     * entre los libros guardados, sin distinguir acentos, mayúsculas ni puntuación;
+     * solo si no está se recurre a la API externa.
+     * Si el libro no existe en la base de datos local, lo guarda. Si Gutendex no
+     * está disponible se responde como si no se hubiera encontrado.
      *
      * @param title título exacto del libro a buscar
      * @return un Optional con el BookDTO encontrado o vacío si no existe
@@ -38,20 +96,96 @@ public class BookService {
      * @throws IOException si ocurre un error de entrada/salida en la llamada a la API
      */
     public Optional<BookDTO> findByTitle(String title) throws InterruptedException, IOException {
-        return apiConsumer.searchByTitle(title).stream()
-                .filter(book -> book.title().equalsIgnoreCase(title))
+        return findByTitle(title, ingestService::saveAllIfNotExists);
+    }
+
+    /**
+     * Igual que {@link #findByTitle(String)}, pero el libro traído de la API se
+     * entrega a {@code newBooks} en lugar de guardarse, para que quien llama lo
+     * guarde junto con otros en un solo lote.
+     *
+     * @param title    título exacto del libro a buscar
+     * @param newBooks recibe los libros de la API que pueden no estar guardados
+     * @return un Optional con el BookDTO encontrado o vacío si no existe
+     * @throws InterruptedException si la llamada a la API es interrumpida
+     * @throws IOException si ocurre un error de entrada/salida en la llamada a la API
+     */
+    public Optional<BookDTO> findByTitle(String title, Consumer<List<BookDTO>> newBooks)
+            throws InterruptedException, IOException {
+        String titleKey = TextNormalizer.titleKey(title);
+        Optional<BookDTO> local = findStoredByTitleKey(titleKey);
+        if (local.isPresent()) {
+            return local;
+        }
+        List<BookDTO> found;
+        try {
+            found = apiConsumer.searchByTitle(title);
+        } catch (GutendexUnavailableException e) {
+            log.warn("Gutendex no disponible; la búsqueda de '{}' solo usó los libros guardados: {}", title, e.getMessage());
+            return Optional.empty();
+        }
+        return found.stream()
+                .filter(book -> titleKey.equals(TextNormalizer.titleKey(book.title())))
                 .findFirst()
                 .map(book -> {
-                    if (!bookRepository.existsById(book.id())) {
-                        Book entity = BookMapper.toEntity(book);
-                        bookRepository.save(entity);
-                    }
+                    newBooks.accept(List.of(book));
                     return book;
                 });
     }
 
+    /**
+     * El libro guardado más descargado con esa clave de título: del índice en
+     * memoria si ya terminó la carga inicial y, mientras tanto, de la base por
+     * el índice sobre {@code title_key}.
+     */
+    private Optional<BookDTO> findStoredByTitleKey(String titleKey) {
+        if (titleKey.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Long> ids = catalogIndexer.isReady()
+                ? titleKeyIndex.ids(titleKey)
+                : bookRepository.findIdsByTitleKey(titleKey, Limit.of(LOCAL_TITLE_CANDIDATES));
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        return findByIds(ids.size() > LOCAL_TITLE_CANDIDATES ? ids.subList(0, LOCAL_TITLE_CANDIDATES) : ids).stream()
+                .max(Comparator.comparing(BookDTO::download_count, Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
+
+    /**
+     * Variante asíncrona de {@link #findByTitle(String)}; varias búsquedas lanzadas
+     * juntas se resuelven en paralelo.
+     *
+     * @param title título exacto del libro a buscar
+     * @return futuro con el libro encontrado o vacío si no existe
+     */
+    public CompletableFuture<Optional<BookDTO>> findByTitleAsync(String title) {
+        return AsyncCalls.supply(() -> findByTitle(title), lookupExecutor);
+    }
+
+    /**
+     * Busca entre los libros guardados usando el índice de texto local, por
+     * título, autores, temas y resúmenes, sin consultar la API.
+     *
+     * @param query texto a buscar
+     * @param limit cantidad máxima de resultados
+     * @return libros ordenados por relevancia
+     */
+    public List<BookDTO> searchLocal(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit).stream()
+                .map(BookSearchIndex.SearchHit::bookId)
+                .toList();
+        return findByIds(ids);
+    }
+
     /**
      * Busca libros que estén en un idioma específico.
+     * <p>
+     * Si ya hay guardados al menos una página de libros en ese idioma con descargas
+     * conocidas, se responde con el ranking en memoria de ese idioma, los más
+     * descargados primero; mientras falta la carga inicial, con la copia del
+     * catálogo del arranque anterior. Si no alcanza, se consulta la API. Si
+     * Gutendex no está disponible, se usa la base.
      *
      * @param lang código de idioma (ej. "en", "es")
      * @return lista de libros encontrados en ese idioma
@@ -59,10 +193,45 @@ public class BookService {
      * @throws InterruptedException si la llamada a la API es interrumpida
      */
     public List<BookDTO> findByLanguage(String lang) throws IOException, InterruptedException {
-        return apiConsumer.searchByLanguage(lang);
+        Optional<List<BookDTO>> local = fromLeaderboard(lang, LOCAL_FALLBACK_LIMIT);
+        if (local.isPresent()) {
+            return local.get();
+        }
+        try {
+            return apiConsumer.searchByLanguage(lang);
+        } catch (GutendexUnavailableException e) {
+            log.warn("Gutendex no disponible; se responde con los libros guardados: {}", e.getMessage());
+            return findByIds(bookRepository.findIdsByLanguage(lang, Limit.of(LOCAL_FALLBACK_LIMIT)));
+        }
+    }
+    /**
+     * Filtra los libros guardados por idioma y tema, sin consultar la API, y cuenta
+     * cuántos libros del resultado hay por cada faceta.
+     *
+     * @param expression filtro como {@code "es AND fiction"} o {@code "lang:fr OR lang:de"}
+     * @param limit      cantidad máxima de libros a devolver, los más descargados primero
+     * @return libros, total y conteos por idioma y tema
+     */
+    public FacetResultDTO findByFacets(String expression, int limit) {
+        CompactBitmap selection = facetIndex.select(expression);
+        FacetIndex.FacetCounts counts = facetIndex.counts(selection, FACET_SUBJECTS);
+        return new FacetResultDTO(selection.cardinality(), topOf(selection, limit), counts.languages(), counts.subjects());
+    }
+    /**
+     * Variante asíncrona de {@link #findByLanguage(String)}.
+     *
+     * @param lang código de idioma (ej. "en", "es")
+     * @return futuro con la lista de libros encontrados en ese idioma
+     */
+    public CompletableFuture<List<BookDTO>> findByLanguageAsync(String lang) {
+        return AsyncCalls.supply(() -> findByLanguage(lang), lookupExecutor);
     }
     /**
      * Obtiene los libros más descargados, limitado a una cantidad específica.
+     * <p>
+     * Se responde desde el ranking en memoria de los libros guardados; solo si todavía
+     * no hay suficientes se consulta la API, y lo recibido se guarda para alimentar el
+     * ranking. Si Gutendex no está disponible, se usa la base.
      *
      * @param quantity cantidad máxima de libros a obtener
      * @return lista de libros más descargados
@@ -70,7 +239,105 @@ public class BookService {
      * @throws InterruptedException si la llamada a la API es interrumpida
      */
     public List<BookDTO> findTopDownloadedBooks(int quantity) throws IOException, InterruptedException {
-        return apiConsumer.getTopDownloadedBooks(quantity);
+        Optional<List<BookDTO>> local = fromLeaderboard(null, quantity);
+        if (local.isPresent()) {
+            return local.get();
+        }
+        try {
+            List<BookDTO> books = apiConsumer.getTopDownloadedBooks(quantity);
+            ingestService.saveAllIfNotExists(books);
+            return books;
+        } catch (GutendexUnavailableException e) {
+            log.warn("Gutendex no disponible; se responde con los libros guardados: {}", e.getMessage());
+            return findByIds(bookRepository.findIdsByDownloads(Limit.of(quantity)));
+        }
+    }
+    /**
+     * Obtiene los libros más descargados en un idioma, con la misma estrategia que
+     * {@link #findTopDownloadedBooks(int)}. Gutendex ordena por popularidad por
+     * defecto, así que la primera página del idioma sirve de respaldo.
+     *
+     * @param lang     código de idioma (ej. "en", "es")
+     * @param quantity cantidad máxima de libros a obtener
+     * @return lista de libros más descargados en ese idioma
+     * @throws IOException si ocurre un error de entrada/salida en la llamada a la API
+     * @throws InterruptedException si la llamada a la API es interrumpida
+     */
+    public List<BookDTO> findTopDownloadedBooks(String lang, int quantity) throws IOException, InterruptedException {
+        Optional<List<BookDTO>> local = fromLeaderboard(lang, quantity);
+        if (local.isPresent()) {
+            return local.get();
+        }
+        try {
+            List<BookDTO> books = apiConsumer.searchByLanguage(lang).stream().limit(quantity).toList();
+            ingestService.saveAllIfNotExists(books);
+            return books;
+        } catch (GutendexUnavailableException e) {
+            log.warn("Gutendex no disponible; se responde con los libros guardados: {}", e.getMessage());
+            return findByIds(bookRepository.findIdsByLanguage(lang, Limit.of(quantity)));
+        }
+    }
+    /**
+     * Primeros puestos del ranking en memoria, si ya está cargado y tiene al menos
+     * {@code quantity} libros.
+     */
+    private Optional<List<BookDTO>> fromLeaderboard(String language, int quantity) {
+        if (!catalogIndexer.isReady()) {
+            return fromSnapshot(language, quantity);
+        }
+        if (leaderboard.size(language) < quantity) {
+            return Optional.empty();
+        }
+        return Optional.of(loadRanked(leaderboard.top(language, quantity)));
+    }
+    /**
+     * Los más descargados según la copia del catálogo, mientras los índices todavía
+     * se cargan, si tiene al menos {@code quantity} libros.
+     */
+    private Optional<List<BookDTO>> fromSnapshot(String language, int quantity) {
+        if (catalogIndexer.isReady()) {
+            return Optional.empty();
+        }
+        return snapshotStore.current()
+                .map(snapshot -> snapshot.top(language, quantity))
+                .filter(books -> books.size() >= quantity);
+    }
+    /**
+     * Los más descargados de un conjunto de ids, según el ranking en memoria.
+     */
+    private List<BookDTO> topOf(CompactBitmap selection, int limit) {
+        if (selection.isEmpty()) {
+            return List.of();
+        }
+        // la selección puede ser enorme: se recorre el ranking filtrando por el bitmap
+        return loadRanked(leaderboard.top(null, limit, id -> selection.contains((int) id)));
+    }
+    /**
+     * Los libros guardados más descargados de un conjunto chico de ids, ordenando
+     * solo esos candidatos por sus descargas. Los libros sin descargas conocidas van
+     * al final.
+     *
+     * @param ids   ids de los libros candidatos
+     * @param limit cantidad máxima de libros
+     * @return libros ordenados de más a menos descargas
+     */
+    public List<BookDTO> findMostDownloadedOf(Collection<Long> ids, int limit) {
+        return loadRanked(leaderboard.rank(ids, limit));
+    }
+    /**
+     * Libros en el orden recibido, tomando de memoria los que conserva el ranking
+     * y cargando los demás de la base en una sola consulta.
+     */
+    private List<BookDTO> loadRanked(List<Long> ids) {
+        Map<Long, BookDTO> books = new HashMap<>(leaderboard.retainedBooks(ids));
+        if (books.size() < ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !books.containsKey(id)).toList();
+            findByIds(missing).forEach(book -> books.put(book.id(), book));
+        }
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
     /**
      * Recupera todos los libros almacenados en la base de datos local.
@@ -83,23 +350,81 @@ public class BookService {
                 .map(BookMapper::toDTO)
                 .toList();
     }
+    /**
+     * Recupera una página de libros almacenados ordenados por id.
+     * <p>
+     * Si hay una copia del catálogo se responde con ella, sin consultar la base. Si
+     * no, las colecciones de cada libro se cargan de forma diferida y por lotes
+     * ({@code default_batch_fetch_size}), así que cada página cuesta una cantidad
+     * fija de consultas sin importar cuántos libros haya guardados.
+     *
+     * @param afterId id del último libro de la página anterior, o {@code null} para la primera
+     * @param size    cantidad máxima de libros de la página
+     * @return libros de la página y cursor para la siguiente
+     */
+    public KeysetPageDTO<BookDTO> findPage(Long afterId, int size) {
+        Optional<ColumnarCatalog> snapshot = snapshotStore.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().page(afterId, size);
+        }
+        return transactionTemplate.execute(status -> {
+            List<Book> books = bookRepository.findPageAfter(afterId == null ? 0L : afterId, Limit.of(size));
+            List<BookDTO> items = books.stream()
+                    .map(BookMapper::toDTO)
+                    .toList();
+            Long nextCursor = books.size() < size ? null : books.get(books.size() - 1).getId();
+            return new KeysetPageDTO<>(items, nextCursor);
+        });
+    }
+    /**
+     * Carga libros guardados por id conservando el orden recibido. Se toman de la
+     * copia del catálogo los que estén en ella; el resto se lee de la base, con las
+     * colecciones inicializadas por lotes dentro de una única transacción.
+     *
+     * @param ids ids de los libros, en el orden deseado
+     * @return los libros encontrados, en ese orden
+     */
+    public List<BookDTO> findByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookDTO> byId = new HashMap<>();
+        snapshotStore.current().ifPresent(snapshot -> ids.forEach(id -> {
+            BookDTO book = snapshot.find(id);
+            if (book != null) {
+                byId.put(id, book);
+            }
+        }));
+        List<Long> missing = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+        findStoredByIds(missing).forEach(book -> byId.put(book.id(), book));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    /**
+     * Carga libros por id directamente de la base, sin pasar por la copia del
+     * catálogo, para quien necesita el estado recién confirmado.
+     *
+     * @param ids ids de los libros
+     * @return los libros encontrados, sin un orden definido
+     */
+    public List<BookDTO> findStoredByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> bookRepository.findAllById(ids).stream()
+                .map(BookMapper::toDTO)
+                .toList());
+    }
     /**
      * Guarda una lista de libros en la base de datos local si no existen.
-     * Para cada libro, también verifica y crea los autores si no existen.
+     * Los libros existentes y los autores se resuelven por lotes, sin consultas por libro.
      *
      * @param books lista de libros a guardar
      */
     public void saveAllIfNotExists(List<BookDTO> books) {
-        books.forEach(bookDTO -> {
-            if (!bookRepository.existsById(bookDTO.id())) {
-                Book book = BookMapper.toEntity(bookDTO);
-                // Controlamos autores con findOrCreate también
-                book.setAuthors(book.getAuthors().stream()
-                        .map(author -> authorService.findOrCreate(AuthorMapper.toDTO(author)))
-                        .toList());
-                bookRepository.save(book);
-            }
-        });
+        ingestService.saveAllIfNotExists(books);
     }
 }
 
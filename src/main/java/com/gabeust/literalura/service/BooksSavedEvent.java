@@ -0,0 +1,13 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.dto.BookDTO;
+
+import java.util.List;
+/**
+ * Evento publicado tras guardar libros nuevos o actualizar libros existentes. Los
+ * autores de cada libro llevan su id de la base de datos para que los índices en
+ * memoria puedan enlazarlos.
+ *
+ * @param books libros guardados o actualizados
+ */
+public record BooksSavedEvent(List<BookDTO> books) {}
@@ -0,0 +1,80 @@
+package com.gabeust.literalura.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+/**
+ * Escribe periódicamente en el log un resumen de las métricas de la aplicación
+ * (API, servicios, repositorios y cachés), útil en el modo consola donde no hay
+ * un endpoint de scrape a mano.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "literalura.metrics.summary.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsSummaryReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsSummaryReporter.class);
+
+    private final MeterRegistry registry;
+
+    public MetricsSummaryReporter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Scheduled(initialDelayString = "${literalura.metrics.summary.interval:PT5M}",
+            fixedRateString = "${literalura.metrics.summary.interval:PT5M}")
+    public void report() {
+        StringBuilder summary = new StringBuilder("Resumen de métricas:");
+        registry.getMeters().stream()
+                .filter(MetricsSummaryReporter::isReported)
+                .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName())
+                        .thenComparing(meter -> meter.getId().getTags().toString()))
+                .forEach(meter -> append(summary, meter));
+        log.info(summary.toString());
+    }
+
+    private static boolean isReported(Meter meter) {
+        String name = meter.getId().getName();
+        return name.startsWith("gutendex.") || name.startsWith("literalura.") || name.startsWith("spring.data.repository");
+    }
+
+    private static void append(StringBuilder summary, Meter meter) {
+        if (meter instanceof Timer timer) {
+            if (timer.count() == 0) {
+                return;
+            }
+            summary.append(String.format("%n  %s %s n=%d media=%.1fms max=%.1fms",
+                    meter.getId().getName(), tags(meter), timer.count(),
+                    timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                summary.append(String.format(" p%.0f=%.1fms", percentile.percentile() * 100,
+                        percentile.value(TimeUnit.MILLISECONDS)));
+            }
+        } else if (meter instanceof Counter counter) {
+            summary.append(String.format("%n  %s %s %.0f", meter.getId().getName(), tags(meter), counter.count()));
+        } else if (meter instanceof FunctionCounter counter) {
+            summary.append(String.format("%n  %s %s %.0f", meter.getId().getName(), tags(meter), counter.count()));
+        } else if (meter instanceof Gauge gauge) {
+            summary.append(String.format("%n  %s %s %.0f", meter.getId().getName(), tags(meter), gauge.value()));
+        }
+    }
+
+    private static String tags(Meter meter) {
+        StringBuilder tags = new StringBuilder();
+        meter.getId().getTags().forEach(tag -> tags.append(tag.getKey()).append('=').append(tag.getValue()).append(' '));
+        return tags.toString().trim();
+    }
+}
@@ -0,0 +1,162 @@
+package com.gabeust.literalura.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * Diccionario de términos repetidos entre libros (temas o idiomas): cada texto se
+ * guarda una sola vez en su tabla y los libros lo referencian por un id entero.
+ * <p>
+ * La tabla completa se carga en memoria la primera vez que se usa; es chica
+ * comparada con las filas que la referencian. Los términos nuevos se insertan en
+ * una transacción propia con {@code INSERT IGNORE}, así que dos ingestas que traen
+ * el mismo término a la vez terminan con el mismo id, como en
+ * {@link AuthorIdentityCache}.
+ * <p>
+ * Los términos se comparan exactamente: las columnas usan la colación
+ * {@code utf8mb4_bin}.
+ */
+public class TermDictionary {
+
+    /**
+     * Id que no corresponde a ningún término: una consulta por un término que no
+     * está en el diccionario no encuentra filas.
+     */
+    public static final int UNKNOWN = 0;
+
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
+    private final String table;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile TransactionTemplate newTransaction;
+
+    /**
+     * El gestor de transacciones se obtiene al primer uso: los conversores de JPA
+     * que usan el diccionario se crean mientras se arma el EntityManagerFactory,
+     * del que depende el gestor.
+     *
+     * @param table              tabla con columnas {@code id} y {@code name}
+     * @param jdbcTemplate       acceso JDBC a la base
+     * @param transactionManager gestor de transacciones, resuelto de forma diferida
+     */
+    public TermDictionary(String table, JdbcTemplate jdbcTemplate,
+                          ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.table = table;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * @param term texto del término
+     * @return su id, o {@link #UNKNOWN} si todavía no está en el diccionario
+     */
+    public int idOf(String term) {
+        ensureLoaded();
+        Integer id = ids.get(term);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * @param id id del término
+     * @return el texto del término
+     * @throws IllegalStateException si el id no existe en la tabla
+     */
+    public String nameOf(int id) {
+        ensureLoaded();
+        String name = names.get(id);
+        if (name == null) {
+            // insertado por otra instancia después de la carga
+            List<String> found = jdbcTemplate.queryForList("SELECT name FROM " + table + " WHERE id = ?", String.class, id);
+            if (found.isEmpty()) {
+                throw new IllegalStateException("Término " + id + " inexistente en " + table);
+            }
+            name = found.get(0);
+            register(id, name);
+        }
+        return name;
+    }
+
+    /**
+     * Se asegura de que todos los términos tengan id, insertando los que falten.
+     *
+     * @param terms términos a registrar; se ignoran los nulos y repetidos
+     */
+    public void ensure(Collection<String> terms) {
+        ensureLoaded();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String term : terms) {
+            if (term != null && !ids.containsKey(term)) {
+                missing.add(term);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<String> pending = new ArrayList<>(missing);
+        newTransaction().executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT IGNORE INTO " + table + " (name) VALUES (?)", pending, pending.size(),
+                    (ps, term) -> ps.setString(1, term));
+            for (int i = 0; i < pending.size(); i += IN_CLAUSE_LIMIT) {
+                List<String> chunk = pending.subList(i, Math.min(pending.size(), i + IN_CLAUSE_LIMIT));
+                namedJdbcTemplate.query("SELECT id, name FROM " + table + " WHERE name IN (:names)",
+                        new MapSqlParameterSource("names", chunk),
+                        rs -> {
+                            register(rs.getInt("id"), rs.getString("name"));
+                        });
+            }
+        });
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                jdbcTemplate.query("SELECT id, name FROM " + table, rs -> {
+                    register(rs.getInt("id"), rs.getString("name"));
+                });
+                loaded = true;
+            }
+        }
+    }
+
+    private void register(int id, String name) {
+        ids.put(name, id);
+        names.put(id, name);
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = newTransaction;
+        if (template == null) {
+            template = new TransactionTemplate(Objects.requireNonNull(transactionManager.getObject()));
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            newTransaction = template;
+        }
+        return template;
+    }
+}
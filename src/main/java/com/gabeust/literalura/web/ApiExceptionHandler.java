@@ -0,0 +1,49 @@
+package com.gabeust.literalura.web;
+
+import com.gabeust.literalura.client.GutendexException;
+import com.gabeust.literalura.client.GutendexUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+/**
+ * Traduce los errores de los servicios a respuestas HTTP: Gutendex caído o con
+ * el circuito abierto es un 503, cualquier otro fallo al consultarlo es un 502 y
+ * los parámetros inválidos son un 400.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    @ExceptionHandler(GutendexUnavailableException.class)
+    public ProblemDetail unavailable(GutendexUnavailableException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler(GutendexException.class)
+    public ProblemDetail gutendex(GutendexException e) {
+        log.warn("Error de Gutendex ({}): {}", e.statusCode(), e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_GATEWAY, e.getMessage());
+    }
+
+    @ExceptionHandler(IOException.class)
+    public ProblemDetail io(IOException e) {
+        log.warn("Error al consultar Gutendex: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_GATEWAY, "No se pudo consultar Gutendex");
+    }
+
+    @ExceptionHandler(InterruptedException.class)
+    public ProblemDetail interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Petición interrumpida");
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -0,0 +1,75 @@
+package com.gabeust.literalura.web;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import com.gabeust.literalura.service.AuthorService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+/**
+ * Endpoints JSON de autores para el modo sin consola.
+ */
+@RestController
+@RequestMapping("/api/authors")
+public class AuthorController {
+
+    private final AuthorService authorService;
+    private final int maxPageSize;
+
+    public AuthorController(AuthorService authorService,
+                            @Value("${literalura.web.max-page-size:100}") int maxPageSize) {
+        this.authorService = authorService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Autores guardados, ordenados por id.
+     *
+     * @param after id del último autor de la página anterior; se omite para la primera
+     * @param size  cantidad de autores de la página
+     * @return página de autores y cursor para la siguiente
+     */
+    @GetMapping
+    public KeysetPageDTO<AuthorDTO> list(@RequestParam(required = false) Long after,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return authorService.findPage(after, Math.clamp(size, 1, maxPageSize));
+    }
+
+    /**
+     * Autores guardados cuyo nombre se parece a la consulta, en cualquier orden de palabras.
+     */
+    @GetMapping("/search")
+    public List<AuthorDTO> search(@RequestParam("q") String query,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return authorService.searchAuthors(query, Math.clamp(limit, 1, maxPageSize));
+    }
+
+    @GetMapping("/books")
+    public List<BookDTO> booksByAuthor(@RequestParam String name) throws IOException, InterruptedException {
+        return authorService.findByAuthor(name);
+    }
+
+    /**
+     * Libros cuyos autores estuvieron vivos en algún momento del rango.
+     */
+    @GetMapping("/alive")
+    public List<BookDTO> booksByAuthorsAlive(@RequestParam int from, @RequestParam int to)
+            throws IOException, InterruptedException {
+        if (from > to) {
+            throw new IllegalArgumentException("El año inicial no puede ser mayor que el final");
+        }
+        return authorService.findBooksByAuthorsAliveBetween(from, to);
+    }
+
+    @GetMapping("/alive-in/{year}")
+    public List<AuthorDTO> aliveIn(@PathVariable int year) {
+        return authorService.findAuthorsAliveInYear(year);
+    }
+}
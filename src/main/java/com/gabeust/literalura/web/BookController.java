@@ -0,0 +1,92 @@
+package com.gabeust.literalura.web;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.FacetResultDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import com.gabeust.literalura.service.BookService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+/**
+ * Endpoints JSON de libros para el modo sin consola. Expone las mismas
+ * operaciones que el menú; los listados de libros guardados se paginan por clave
+ * con el parámetro {@code after}.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookController {
+
+    private final BookService bookService;
+    private final int maxPageSize;
+
+    public BookController(BookService bookService,
+                          @Value("${literalura.web.max-page-size:100}") int maxPageSize) {
+        this.bookService = bookService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Libros guardados, ordenados por id.
+     *
+     * @param after id del último libro de la página anterior; se omite para la primera
+     * @param size  cantidad de libros de la página
+     * @return página de libros y cursor para la siguiente
+     */
+    @GetMapping
+    public KeysetPageDTO<BookDTO> list(@RequestParam(required = false) Long after,
+                                       @RequestParam(defaultValue = "20") int size) {
+        return bookService.findPage(after, clamp(size));
+    }
+
+    /**
+     * Búsqueda de texto entre los libros guardados, sin consultar la API.
+     */
+    @GetMapping("/search")
+    public List<BookDTO> search(@RequestParam("q") String query,
+                                @RequestParam(defaultValue = "20") int limit) {
+        return bookService.searchLocal(query, clamp(limit));
+    }
+
+    /**
+     * Primer libro cuyo título coincide; responde 404 si no hay ninguno.
+     */
+    @GetMapping("/title")
+    public ResponseEntity<BookDTO> byTitle(@RequestParam String title) throws IOException, InterruptedException {
+        return ResponseEntity.of(bookService.findByTitle(title));
+    }
+
+    @GetMapping("/language/{lang}")
+    public List<BookDTO> byLanguage(@PathVariable String lang) throws IOException, InterruptedException {
+        return bookService.findByLanguage(lang);
+    }
+
+    @GetMapping("/top")
+    public List<BookDTO> top(@RequestParam(defaultValue = "10") int limit,
+                             @RequestParam(required = false) String language) throws IOException, InterruptedException {
+        return language == null || language.isBlank()
+                ? bookService.findTopDownloadedBooks(clamp(limit))
+                : bookService.findTopDownloadedBooks(language, clamp(limit));
+    }
+
+    /**
+     * Libros que cumplen una expresión de facetas (por ejemplo
+     * {@code lang:es AND subject:Fiction} o {@code en AND NOT Poetry}) con los
+     * conteos por idioma y tema. Un filtro mal formado responde 400.
+     */
+    @GetMapping("/facets")
+    public FacetResultDTO facets(@RequestParam("q") String expression,
+                                 @RequestParam(defaultValue = "20") int limit) {
+        return bookService.findByFacets(expression, clamp(limit));
+    }
+
+    private int clamp(int size) {
+        return Math.clamp(size, 1, maxPageSize);
+    }
+}
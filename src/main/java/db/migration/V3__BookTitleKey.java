@@ -0,0 +1,67 @@
+package db.migration;
+
+import com.gabeust.literalura.index.TextNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Agrega {@code books.title_key} y la completa para los libros existentes.
+ * <p>
+ * La clave la calcula {@link TextNormalizer#titleKey(String)} (NFKD, sin acentos,
+ * minúsculas y puntuación reducida a espacios), que no tiene equivalente en SQL,
+ * por eso esta migración es en Java. Los libros se recorren por id en páginas y se
+ * actualizan por lotes; el índice se crea al final, sobre la columna ya completa.
+ */
+public class V3__BookTitleKey extends BaseJavaMigration {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE books ADD COLUMN title_key VARCHAR(512) "
+                    + "CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NULL AFTER title");
+        }
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, title FROM books WHERE id > ? ORDER BY id LIMIT " + PAGE_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE books SET title_key = ? WHERE id = ?")) {
+            long cursor = 0;
+            int read;
+            do {
+                List<Long> ids = new ArrayList<>(PAGE_SIZE);
+                List<String> titles = new ArrayList<>(PAGE_SIZE);
+                select.setLong(1, cursor);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        ids.add(rows.getLong(1));
+                        titles.add(rows.getString(2));
+                    }
+                }
+                read = ids.size();
+                for (int i = 0; i < read; i++) {
+                    update.setString(1, TextNormalizer.titleKey(titles.get(i)));
+                    update.setLong(2, ids.get(i));
+                    update.addBatch();
+                }
+                if (read > 0) {
+                    update.executeBatch();
+                    cursor = ids.get(read - 1);
+                }
+            } while (read == PAGE_SIZE);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_books_title_key ON books (title_key)");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+-- Columnas e índices que las entidades ganaron antes de pasar a Flyway; las bases
+-- marcadas en V1 no los tienen.
+
+-- clave natural de los autores (nombre|nacimiento|fallecimiento); V1.2 la completa
+-- y agrega el índice único. Se compara exactamente (utf8mb4_bin), igual que
+-- AuthorKey en memoria: "Hugo, Victor" y "Hugo, Víctor" son claves distintas
+ALTER TABLE author ADD COLUMN identity_key VARCHAR(400) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin;
+
+-- ranking de descargas y actualización en segundo plano
+ALTER TABLE books ADD COLUMN last_refreshed_at DATETIME(6);
+CREATE INDEX idx_books_download_count ON books (download_count);
+CREATE INDEX idx_books_last_refreshed_at ON books (last_refreshed_at);
+
+-- filtros por idioma y tema
+CREATE INDEX idx_book_languages_language ON book_languages (language);
+CREATE INDEX idx_book_subjects_subject ON book_subjects (subject);
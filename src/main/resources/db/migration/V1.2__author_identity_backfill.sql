@@ -0,0 +1,40 @@
+-- Completa identity_key en los autores guardados antes de que existiera y unifica
+-- los duplicados, para que el índice único se pueda crear y los autores viejos se
+-- encuentren por su clave en lugar de insertarse otra vez.
+
+-- mismo formato que AuthorKey.asString(): nombre|nacimiento|fallecimiento, "?" si falta
+UPDATE author
+SET identity_key = CONCAT(COALESCE(name, 'null'), '|', COALESCE(birth_year, '?'), '|', COALESCE(death_year, '?'))
+WHERE identity_key IS NULL;
+
+-- cada grupo con exactamente la misma clave se queda con el id más bajo. La
+-- agrupación y el cruce usan utf8mb4_bin de forma explícita, la misma comparación
+-- que aplica después el índice único y que usa AuthorKey en memoria: claves que
+-- solo difieren en mayúsculas o acentos siguen siendo autores distintos
+CREATE TEMPORARY TABLE author_merge (
+    duplicate_id BIGINT NOT NULL PRIMARY KEY,
+    keep_id      BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO author_merge (duplicate_id, keep_id)
+SELECT a.id, k.keep_id
+FROM author a
+JOIN (SELECT identity_key COLLATE utf8mb4_bin AS identity_key, MIN(id) AS keep_id
+      FROM author
+      GROUP BY identity_key COLLATE utf8mb4_bin
+      HAVING COUNT(*) > 1) k ON k.identity_key = a.identity_key COLLATE utf8mb4_bin
+WHERE a.id <> k.keep_id;
+
+-- los libros de los duplicados pasan al autor que se conserva, sin repetir filas
+INSERT INTO book_authors (book_id, author_id)
+SELECT DISTINCT ba.book_id, m.keep_id
+FROM book_authors ba
+JOIN author_merge m ON m.duplicate_id = ba.author_id
+WHERE NOT EXISTS (SELECT 1 FROM book_authors x WHERE x.book_id = ba.book_id AND x.author_id = m.keep_id);
+
+DELETE ba FROM book_authors ba JOIN author_merge m ON m.duplicate_id = ba.author_id;
+DELETE a FROM author a JOIN author_merge m ON m.duplicate_id = a.id;
+
+DROP TEMPORARY TABLE author_merge;
+
+ALTER TABLE author ADD CONSTRAINT uk_author_identity UNIQUE (identity_key);
@@ -0,0 +1,45 @@
+-- Esquema inicial, el mismo que generaba Hibernate con ddl-auto=update antes de
+-- las migraciones: solo las columnas de las entidades originales, sin índices
+-- propios. Las bases existentes se marcan en esta versión (baseline-on-migrate)
+-- sin ejecutarlo; todo lo agregado después va en las versiones siguientes.
+-- Hibernate nombraba las claves foráneas con un hash; ninguna migración se refiere a ellas.
+
+CREATE TABLE author (
+    birth_year INT,
+    death_year INT,
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE books (
+    download_count INT,
+    id             BIGINT NOT NULL,
+    title          VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE book_authors (
+    author_id BIGINT NOT NULL,
+    book_id   BIGINT NOT NULL,
+    CONSTRAINT fk_book_authors_author FOREIGN KEY (author_id) REFERENCES author (id),
+    CONSTRAINT fk_book_authors_book FOREIGN KEY (book_id) REFERENCES books (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE book_summaries (
+    book_id   BIGINT NOT NULL,
+    summaries TEXT,
+    CONSTRAINT fk_book_summaries_book FOREIGN KEY (book_id) REFERENCES books (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE book_languages (
+    book_id  BIGINT NOT NULL,
+    language VARCHAR(255),
+    CONSTRAINT fk_book_languages_book FOREIGN KEY (book_id) REFERENCES books (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE book_subjects (
+    book_id BIGINT NOT NULL,
+    subject VARCHAR(255),
+    CONSTRAINT fk_book_subjects_book FOREIGN KEY (book_id) REFERENCES books (id)
+) ENGINE = InnoDB;
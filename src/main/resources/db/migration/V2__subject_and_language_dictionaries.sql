@@ -0,0 +1,59 @@
+-- Temas e idiomas como filas compartidas: cada texto se guarda una vez y los
+-- libros lo referencian por id. Las filas existentes se migran en el lugar.
+-- Los textos se comparan exactamente (utf8mb4_bin), igual que en memoria.
+
+CREATE TABLE subjects (
+    id   INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_subjects_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE languages (
+    id   INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_languages_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+INSERT INTO subjects (name)
+SELECT DISTINCT CONVERT(subject USING utf8mb4) COLLATE utf8mb4_bin
+FROM book_subjects
+WHERE subject IS NOT NULL;
+
+INSERT INTO languages (name)
+SELECT DISTINCT CONVERT(language USING utf8mb4) COLLATE utf8mb4_bin
+FROM book_languages
+WHERE language IS NOT NULL;
+
+CREATE TABLE book_subject_ids (
+    book_id    BIGINT NOT NULL,
+    subject_id INT NOT NULL,
+    CONSTRAINT fk_book_subject_ids_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_book_subject_ids_subject FOREIGN KEY (subject_id) REFERENCES subjects (id)
+) ENGINE = InnoDB;
+
+INSERT INTO book_subject_ids (book_id, subject_id)
+SELECT bs.book_id, s.id
+FROM book_subjects bs
+JOIN subjects s ON s.name = CONVERT(bs.subject USING utf8mb4) COLLATE utf8mb4_bin;
+
+CREATE TABLE book_language_ids (
+    book_id     BIGINT NOT NULL,
+    language_id INT NOT NULL,
+    CONSTRAINT fk_book_language_ids_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_book_language_ids_language FOREIGN KEY (language_id) REFERENCES languages (id)
+) ENGINE = InnoDB;
+
+INSERT INTO book_language_ids (book_id, language_id)
+SELECT bl.book_id, l.id
+FROM book_languages bl
+JOIN languages l ON l.name = CONVERT(bl.language USING utf8mb4) COLLATE utf8mb4_bin;
+
+DROP TABLE book_subjects;
+DROP TABLE book_languages;
+RENAME TABLE book_subject_ids TO book_subjects, book_language_ids TO book_languages;
+
+-- (término, libro): el filtro por tema o idioma se resuelve solo con el índice
+CREATE INDEX idx_book_subjects_subject ON book_subjects (subject_id, book_id);
+CREATE INDEX idx_book_languages_language ON book_languages (language_id, book_id);
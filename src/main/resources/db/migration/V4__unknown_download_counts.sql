@@ -0,0 +1,6 @@
+-- El catálogo CSV no trae descargas y la importación las guardaba como 0. Un 0
+-- nunca confirmado por Gutendex pasa a NULL (desconocido), para que esos libros no
+-- entren en el ranking de más descargados hasta que la actualización periódica
+-- traiga la cifra real. Si algún libro tenía 0 descargas de verdad, esa
+-- actualización se lo vuelve a poner.
+UPDATE books SET download_count = NULL WHERE download_count = 0 AND last_refreshed_at IS NULL;
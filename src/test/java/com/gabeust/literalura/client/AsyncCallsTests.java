@@ -0,0 +1,120 @@
+package com.gabeust.literalura.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncCallsTests {
+
+    /** Un solo hilo, para comprobar qué le queda a la tarea siguiente. */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void completesWithTheResult() throws Exception {
+        assertEquals("Emma", AsyncCalls.supply(() -> "Emma", executor).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void carriesTheOriginalCheckedAndUncheckedFailures() {
+        IOException io = new IOException("Gutendex no respondió");
+        CompletableFuture<String> failed = AsyncCalls.supply(() -> {
+            throw io;
+        }, executor);
+
+        ExecutionException fromGet = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertSame(io, fromGet.getCause());
+        CompletionException fromJoin = assertThrows(CompletionException.class, failed::join);
+        assertSame(io, fromJoin.getCause());
+        // las etapas siguientes ven la excepción envuelta, como con supplyAsync
+        Throwable seen = failed.handle((value, error) -> error).join();
+        assertInstanceOf(CompletionException.class, seen);
+        assertSame(io, seen.getCause());
+
+        GutendexException status = new GutendexException("No encontrado", 404);
+        CompletableFuture<String> rejected = AsyncCalls.supply(() -> {
+            throw status;
+        }, executor);
+        assertSame(status, assertThrows(CompletionException.class, rejected::join).getCause());
+    }
+
+    @Test
+    void cancellingInterruptsTheRunningCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> future = AsyncCalls.supply(() -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return "nunca";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }, executor);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(future.cancel(true));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "la operación siguió bloqueada");
+        assertTrue(future.isCancelled());
+        assertThrows(CancellationException.class, future::join);
+        // el hilo vuelve al ejecutor sin la marca de interrupción
+        assertFalse(AsyncCalls.supply(() -> Thread.currentThread().isInterrupted(), executor).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aCallCancelledBeforeStartingNeverRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> queued = AsyncCalls.supply(() -> {
+            ran.set(true);
+            return "Emma";
+        }, executor);
+
+        assertTrue(queued.cancel(true));
+        release.countDown();
+
+        // la tarea siguiente en la cola confirma que la cancelada ya pasó
+        assertEquals("listo", AsyncCalls.supply(() -> "listo", executor).get(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void cancellingAFinishedCallChangesNothing() throws Exception {
+        CompletableFuture<String> done = AsyncCalls.supply(() -> "Emma", executor);
+        assertEquals("Emma", done.get(5, TimeUnit.SECONDS));
+
+        assertFalse(done.cancel(true));
+        assertEquals("Emma", done.join());
+        assertFalse(AsyncCalls.supply(() -> Thread.currentThread().isInterrupted(), executor).get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,143 @@
+package com.gabeust.literalura.client;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.HarvestedPageDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogHarvesterTests {
+
+    private static final int TOTAL_BOOKS = 100;
+    private static final int PAGE_SIZE = 32;
+
+    private HttpServer server;
+    private ApiConsumer apiConsumer;
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    /** Última página que existe; las siguientes responden 404 aunque el conteo diga otra cosa. */
+    private volatile int lastPage = Integer.MAX_VALUE;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/books", this::servePage);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        apiConsumer = new ApiConsumer("http://127.0.0.1:" + server.getAddress().getPort() + "/books");
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void harvestsEveryPageInOrder() {
+        try (Stream<HarvestedPageDTO> pages = apiConsumer.harvest("languages=en", 1, 3)) {
+            List<HarvestedPageDTO> harvested = pages.toList();
+
+            assertEquals(List.of(1, 2, 3, 4), harvested.stream().map(HarvestedPageDTO::page).toList());
+            List<Long> ids = harvested.stream()
+                    .flatMap(page -> page.books().stream())
+                    .map(BookDTO::id)
+                    .toList();
+            assertEquals(IntStream.rangeClosed(1, TOTAL_BOOKS).mapToObj(Long::valueOf).toList(), ids);
+        }
+    }
+
+    @Test
+    void resumesFromGivenPage() {
+        try (Stream<HarvestedPageDTO> pages = apiConsumer.harvest("languages=en", 3, 2)) {
+            assertEquals(List.of(3, 4), pages.map(HarvestedPageDTO::page).toList());
+        }
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void neverExceedsPrefetchWindow() {
+        try (Stream<HarvestedPageDTO> pages = apiConsumer.harvest("", 1, 2)) {
+            assertEquals(4, pages.count());
+        }
+        assertTrue(maxConcurrent.get() <= 2, "solicitudes simultáneas: " + maxConcurrent.get());
+    }
+
+    @Test
+    void resumingPastTheLastPageHarvestsNothing() {
+        try (Stream<HarvestedPageDTO> pages = apiConsumer.harvest("languages=en", 9, 2)) {
+            assertEquals(List.of(), pages.toList());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void endsWhenLaterPagesDisappear() {
+        // el conteo de la primera página anuncia 4 páginas, pero el catálogo se achicó a 2
+        lastPage = 2;
+        try (Stream<HarvestedPageDTO> pages = apiConsumer.harvest("languages=en", 1, 3)) {
+            assertEquals(List.of(1, 2), pages.map(HarvestedPageDTO::page).toList());
+        }
+    }
+
+    private void servePage(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+            int page = pageParam(exchange.getRequestURI().getQuery());
+            if (page > lastPage || (page - 1) * PAGE_SIZE >= TOTAL_BOOKS) {
+                byte[] body = "{\"detail\":\"Invalid page.\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(404, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+                return;
+            }
+            int from = (page - 1) * PAGE_SIZE + 1;
+            int to = Math.min(TOTAL_BOOKS, page * PAGE_SIZE);
+            String results = IntStream.rangeClosed(from, to)
+                    .mapToObj(id -> "{\"id\":" + id + ",\"title\":\"Libro " + id + "\",\"authors\":[],"
+                            + "\"summaries\":[],\"subjects\":[],\"languages\":[\"en\"],\"download_count\":" + id + "}")
+                    .collect(Collectors.joining(","));
+            String next = to < TOTAL_BOOKS ? "\"http://stub/books?page=" + (page + 1) + "\"" : "null";
+            byte[] body = ("{\"count\":" + TOTAL_BOOKS + ",\"next\":" + next + ",\"previous\":null,\"results\":["
+                    + results + "]}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    private static int pageParam(String query) {
+        for (String param : query.split("&")) {
+            if (param.startsWith("page=")) {
+                return Integer.parseInt(param.substring(5));
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,117 @@
+package com.gabeust.literalura.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.GutendexPageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GutendexPageReaderTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GutendexPageReader reader = new GutendexPageReader(objectMapper);
+
+    @Test
+    void decodesTheSameBooksAsTheTreeModel() throws IOException {
+        byte[] body = page(32);
+
+        GutendexPageDTO page = reader.read(new ByteArrayInputStream(body));
+
+        assertEquals(75_000, page.count());
+        assertEquals("https://gutendex.com/books/?page=2", page.next());
+        assertNull(page.previous());
+        List<BookDTO> expected = new ArrayList<>();
+        for (JsonNode node : objectMapper.readTree(body).get("results")) {
+            expected.add(objectMapper.treeToValue(node, BookDTO.class));
+        }
+        assertEquals(expected, page.results());
+        assertEquals(new AuthorDTO(null, "Apellido, Nombre 1", 1800, null), page.results().get(0).authors().get(0));
+    }
+
+    @Test
+    void deliversEachBookBeforeTheBodyIsFullyRead() throws IOException {
+        byte[] body = page(200);
+        CountingInputStream in = new CountingInputStream(body);
+        List<Long> readAtEachBook = new ArrayList<>();
+
+        reader.read(in, book -> readAtEachBook.add(in.read));
+
+        assertEquals(200, readAtEachBook.size());
+        // el primer libro llega habiendo leído solo el comienzo del cuerpo
+        assertTrue(readAtEachBook.get(0) < body.length / 10, "leídos " + readAtEachBook.get(0) + " de " + body.length);
+    }
+
+    @Test
+    void toleratesMissingOrNullResults() throws IOException {
+        GutendexPageDTO missing = reader.read(json("{\"count\":0,\"next\":null,\"previous\":null}"));
+        GutendexPageDTO nullResults = reader.read(json("{\"count\":0,\"results\":null}"));
+
+        assertEquals(List.of(), missing.results());
+        assertEquals(List.of(), nullResults.results());
+    }
+
+    @Test
+    void rejectsBodiesThatAreNotAnObject() {
+        assertThrows(IOException.class, () -> reader.read(json("[{\"id\":1}]")));
+    }
+
+    private static ByteArrayInputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Página con la forma de Gutendex, incluidos campos que la aplicación ignora. */
+    private static byte[] page(int books) {
+        String results = IntStream.rangeClosed(1, books)
+                .mapToObj(id -> "{\"id\":" + id + ",\"title\":\"Libro " + id + "\","
+                        + "\"authors\":[{\"name\":\"Apellido, Nombre " + id + "\",\"birth_year\":1800,\"death_year\":null}],"
+                        + "\"summaries\":[\"" + "Resumen del libro. ".repeat(40) + "\"],\"translators\":[],"
+                        + "\"subjects\":[\"Fiction\",\"Tema " + id + "\"],\"bookshelves\":[\"Novels\"],"
+                        + "\"languages\":[\"en\"],\"copyright\":false,\"media_type\":\"Text\","
+                        + "\"formats\":{\"text/html\":\"https://www.gutenberg.org/ebooks/" + id + ".html.images\"},"
+                        + "\"download_count\":" + id * 7 + "}")
+                .collect(Collectors.joining(","));
+        return ("{\"count\":75000,\"next\":\"https://gutendex.com/books/?page=2\",\"previous\":null,\"results\":["
+                + results + "]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long read;
+
+        CountingInputStream(byte[] body) {
+            super(new ByteArrayInputStream(body));
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                read++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                read += count;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.gabeust.literalura.client;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.dto.BookDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GutendexTransportTests {
+
+    private static final String PAGE = "{\"count\":1,\"next\":null,\"previous\":null,\"results\":[{\"id\":1,"
+            + "\"title\":\"Libro 1\",\"authors\":[],\"summaries\":[],\"subjects\":[],\"languages\":[\"en\"],"
+            + "\"download_count\":1}]}";
+
+    /**
+     * Respuesta programada del servidor de prueba.
+     */
+    private record Fault(int status, String retryAfter, long delayMillis) {
+        static Fault status(int status) {
+            return new Fault(status, null, 0);
+        }
+    }
+
+    private HttpServer server;
+    private String baseUrl;
+    private final Queue<Fault> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Fault fallback = Fault.status(200);
+    /** Libera las respuestas que el servidor dejó a medio enviar. */
+    private final CountDownLatch unstall = new CountDownLatch(1);
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/books", this::serve);
+        server.createContext("/stalled", this::stall);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/books";
+    }
+
+    @AfterEach
+    void stopStub() {
+        unstall.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void retriesServerErrorsUntilSuccess() throws Exception {
+        script.add(Fault.status(503));
+        script.add(Fault.status(500));
+        GutendexTransport transport = transport(4, 5, Duration.ofSeconds(2));
+
+        List<BookDTO> books = new ApiConsumer(baseUrl, transport).searchByLanguage("en");
+
+        assertEquals(1, books.size());
+        assertEquals(3, requests.get());
+        assertEquals(2, transport.stats().retries());
+    }
+
+    @Test
+    void waitsForRetryAfterOnTooManyRequests() throws Exception {
+        script.add(new Fault(429, "1", 0));
+        GutendexTransport transport = transport(3, 5, Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        new ApiConsumer(baseUrl, transport).searchByLanguage("en");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 900, "esperó " + elapsedMillis + " ms");
+        assertEquals(1, transport.stats().throttled());
+        assertTrue(transport.stats().permitsPerSecond() < 100);
+    }
+
+    @Test
+    void retriesTimedOutRequests() throws Exception {
+        script.add(new Fault(200, null, 1_500));
+        GutendexTransport transport = transport(3, 5, Duration.ofMillis(500));
+
+        List<BookDTO> books = new ApiConsumer(baseUrl, transport).searchByLanguage("en");
+
+        assertEquals(1, books.size());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        script.add(Fault.status(404));
+        ApiConsumer apiConsumer = new ApiConsumer(baseUrl, transport(4, 5, Duration.ofSeconds(2)));
+
+        GutendexException error = assertThrows(GutendexException.class, () -> apiConsumer.searchByLanguage("en"));
+
+        assertEquals(404, error.statusCode());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        fallback = Fault.status(500);
+        GutendexTransport transport = transport(2, 2, Duration.ofSeconds(2));
+        ApiConsumer apiConsumer = new ApiConsumer(baseUrl, transport);
+
+        assertThrows(GutendexUnavailableException.class, () -> apiConsumer.searchByLanguage("en"));
+        assertEquals(2, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, transport.stats().circuit());
+
+        // con el circuito abierto la llamada se rechaza sin llegar al servidor
+        assertThrows(GutendexUnavailableException.class, () -> apiConsumer.searchByLanguage("es"));
+        assertEquals(2, requests.get());
+        assertEquals(1, transport.stats().rejected());
+    }
+
+    @Test
+    void asyncLookupsCarryTheFailureAndReleaseTheirPermitWhenCancelled() throws Exception {
+        script.add(Fault.status(404));
+        // un solo permiso: una solicitud colgada bloquearía a la siguiente
+        GutendexTransport transport = new GutendexTransport(Duration.ofSeconds(1), Duration.ofSeconds(10), 1, 100, 10,
+                1, Duration.ofMillis(10), Duration.ofSeconds(5), 5, Duration.ofMinutes(1));
+        ApiConsumer apiConsumer = new ApiConsumer(baseUrl, transport);
+
+        CompletableFuture<List<BookDTO>> missing = apiConsumer.searchByTitleAsync("emma");
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+        assertEquals(404, assertInstanceOf(GutendexException.class, failure.getCause()).statusCode());
+
+        script.add(new Fault(200, null, 5_000));
+        CompletableFuture<List<BookDTO>> slow = apiConsumer.searchByLanguageAsync("en");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(slow.cancel(true));
+
+        long start = System.nanoTime();
+        assertEquals(1, apiConsumer.searchByLanguage("es").size());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis < 2_000, "esperó " + elapsedMillis + " ms");
+        assertThrows(CancellationException.class, slow::join);
+    }
+
+    @Test
+    void abortsBodiesThatStopArriving() {
+        GutendexTransport transport = transport(3, 5, Duration.ofMillis(500));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl.replace("/books", "/stalled"))).GET();
+
+        long start = System.nanoTime();
+        assertThrows(HttpTimeoutException.class,
+                () -> transport.execute(request, response -> response.body().readAllBytes()));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 2_000, "esperó " + elapsedMillis + " ms");
+        // el cuerpo pudo consumirse en parte, así que no se reintenta
+        assertEquals(1, requests.get());
+        assertEquals(0, transport.stats().retries());
+    }
+
+    private static GutendexTransport transport(int maxAttempts, int failureThreshold, Duration requestTimeout) {
+        return new GutendexTransport(Duration.ofSeconds(1), requestTimeout, 4, 100, 10,
+                maxAttempts, Duration.ofMillis(10), Duration.ofSeconds(5), failureThreshold, Duration.ofMinutes(1));
+    }
+
+    /** Envía los encabezados y la mitad del cuerpo, y deja de escribir. */
+    private void stall(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body, 0, body.length / 2);
+            out.flush();
+            unstall.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // el cliente cerró la conexión
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Fault fault = script.poll();
+        if (fault == null) {
+            fault = fallback;
+        }
+        try {
+            if (fault.delayMillis() > 0) {
+                Thread.sleep(fault.delayMillis());
+            }
+            if (fault.retryAfter() != null) {
+                exchange.getResponseHeaders().add("Retry-After", fault.retryAfter());
+            }
+            if (fault.status() != 200) {
+                exchange.sendResponseHeaders(fault.status(), -1);
+                return;
+            }
+            byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // el cliente abandonó la solicitud por tiempo
+        } finally {
+            exchange.close();
+        }
+    }
+}
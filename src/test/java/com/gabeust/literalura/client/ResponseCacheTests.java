@@ -0,0 +1,222 @@
+package com.gabeust.literalura.client;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.dto.BookDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTests {
+
+    private static final String PAGE = "{\"count\":1,\"next\":null,\"previous\":null,\"results\":[{\"id\":1,"
+            + "\"title\":\"Libro 1\",\"authors\":[],\"summaries\":[],\"subjects\":[],\"languages\":[\"en\"],"
+            + "\"download_count\":1}]}";
+    private static final String ETAG = "\"v1\"";
+    private static final String LAST_MODIFIED = "Wed, 01 Jan 2025 00:00:00 GMT";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void normalizesSchemeHostAndParameterOrder() {
+        String key = ResponseCache.normalize("https://gutendex.com/books/?search=Don%20Quijote&languages=es");
+
+        assertEquals("https://gutendex.com/books/?languages=es&search=Don%20Quijote", key);
+        assertEquals(key, ResponseCache.normalize("HTTPS://Gutendex.COM/books/?languages=es&search=Don%20Quijote"));
+        assertEquals(key, ResponseCache.normalize("https://gutendex.com/books/./?languages=es&&search=Don%20Quijote&"));
+        // los valores y la ruta conservan mayúsculas: el servidor puede distinguirlas
+        assertNotEquals(key, ResponseCache.normalize("https://gutendex.com/books/?languages=ES&search=Don%20Quijote"));
+        assertNotEquals(key, ResponseCache.normalize("https://gutendex.com/Books/?languages=es&search=Don%20Quijote"));
+        assertEquals("https://gutendex.com/books/", ResponseCache.normalize("https://gutendex.com/books/?"));
+    }
+
+    @Test
+    void servesEntriesAsFreshOnlyWithinTheTtl() {
+        ResponseCache cache = cache(8, Duration.ofHours(1), Duration.ofDays(7));
+        long now = System.currentTimeMillis();
+        cache.put("fresca", entry(now));
+        cache.put("vencida", entry(now - Duration.ofHours(2).toMillis()));
+
+        assertTrue(cache.isFresh(cache.get("fresca").orElseThrow()));
+        // una entrada vencida se devuelve igual, para revalidarla, pero cuenta como fallo
+        assertFalse(cache.isFresh(cache.get("vencida").orElseThrow()));
+        assertTrue(cache.get("ausente").isEmpty());
+
+        ResponseCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(0, stats.evictions());
+    }
+
+    @Test
+    void dropsDiskEntriesOlderThanTheDiskTtl() throws IOException {
+        long now = System.currentTimeMillis();
+        ResponseCache writer = cache(8, Duration.ofMinutes(10), Duration.ofDays(1));
+        writer.put("vieja", entry(now - Duration.ofDays(2).toMillis()));
+        writer.put("reciente", entry(now - Duration.ofHours(1).toMillis()));
+        assertEquals(2, files());
+
+        // una instancia nueva arranca con la memoria vacía y solo ve el disco
+        ResponseCache reader = cache(8, Duration.ofMinutes(10), Duration.ofDays(1));
+        assertTrue(reader.get("vieja").isEmpty());
+        ResponseCache.CachedResponse recent = reader.get("reciente").orElseThrow();
+
+        assertArrayEquals(PAGE.getBytes(StandardCharsets.UTF_8), recent.body());
+        assertEquals(ETAG, recent.etag());
+        assertEquals(LAST_MODIFIED, recent.lastModified());
+        assertEquals(1, files());
+        assertEquals(1, reader.stats().evictions());
+        assertEquals(2, reader.stats().misses());
+    }
+
+    @Test
+    void reloadsEntriesEvictedFromMemoryFromDisk() {
+        ResponseCache cache = cache(2, Duration.ofHours(1), Duration.ofDays(7));
+        long now = System.currentTimeMillis();
+        cache.put("a", entry(now));
+        cache.put("b", entry(now));
+        cache.get("a");
+        // "b" es la menos usada: sale de memoria al entrar "c"
+        cache.put("c", entry(now));
+
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().memoryEntries());
+
+        ResponseCache.CachedResponse reloaded = cache.get("b").orElseThrow();
+        assertTrue(cache.isFresh(reloaded));
+        assertEquals(ETAG, reloaded.etag());
+        // al volver a memoria desplaza a "a", que sigue en disco
+        assertEquals(2, cache.stats().evictions());
+        assertTrue(cache.get("a").isPresent());
+        assertEquals(3, cache.stats().hits());
+        assertEquals(0, cache.stats().misses());
+    }
+
+    @Test
+    void disabledCacheNeverStoresAnything() throws IOException {
+        ResponseCache cache = new ResponseCache(false, 8, Duration.ofHours(1), Duration.ofDays(7), directory);
+        cache.put("a", entry(System.currentTimeMillis()));
+
+        assertTrue(cache.get("a").isEmpty());
+        assertEquals(0, files());
+        assertEquals(new ResponseCache.Stats(0, 0, 0, 0, 0), cache.stats());
+    }
+
+    @Test
+    void revalidatesStaleEntriesWithConditionalRequests() throws Exception {
+        Queue<String> conditions = new ConcurrentLinkedQueue<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/books", exchange -> serve(exchange, conditions, null));
+        server.start();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/books";
+            // TTL cero: toda entrada está vencida y hay que revalidarla
+            ResponseCache cache = cache(8, Duration.ZERO, Duration.ofDays(7));
+            ApiConsumer apiConsumer = new ApiConsumer(baseUrl, cache, new SimpleMeterRegistry(), executor,
+                    GutendexTransport.defaults());
+
+            List<BookDTO> first = apiConsumer.searchByLanguage("en");
+            long beforeRevalidation = System.currentTimeMillis();
+            List<BookDTO> second = apiConsumer.searchByLanguage("en");
+
+            assertEquals(List.of("-", ETAG + " | " + LAST_MODIFIED), List.copyOf(conditions));
+            assertEquals(first, second);
+            assertEquals("Libro 1", second.get(0).title());
+            assertEquals(1, cache.stats().revalidations());
+            // la revalidación renueva la marca de tiempo de la entrada
+            ResponseCache.CachedResponse renewed = cache.get(ResponseCache.normalize(baseUrl + "?languages=en")).orElseThrow();
+            assertTrue(renewed.storedAt() >= beforeRevalidation);
+            assertArrayEquals(PAGE.getBytes(StandardCharsets.UTF_8), renewed.body());
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotStoreResponsesMarkedNoStore() throws Exception {
+        Queue<String> conditions = new ConcurrentLinkedQueue<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/books", exchange -> serve(exchange, conditions, "private, No-Store"));
+        server.start();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/books";
+            ResponseCache cache = cache(8, Duration.ofHours(1), Duration.ofDays(7));
+            ApiConsumer apiConsumer = new ApiConsumer(baseUrl, cache, new SimpleMeterRegistry(), executor,
+                    GutendexTransport.defaults());
+
+            assertEquals("Libro 1", apiConsumer.searchByLanguage("en").get(0).title());
+            assertEquals("Libro 1", apiConsumer.searchByLanguage("en").get(0).title());
+
+            // sin entrada guardada la segunda solicitud no lleva validadores
+            assertEquals(List.of("-", "-"), List.copyOf(conditions));
+            assertEquals(0, cache.stats().memoryEntries());
+            assertEquals(0, files());
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    /** Responde 304 si llegan los validadores de la primera respuesta y 200 en otro caso. */
+    private static void serve(HttpExchange exchange, Queue<String> conditions, String cacheControl) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        conditions.add(ifNoneMatch == null ? "-" : ifNoneMatch + " | " + ifModifiedSince);
+        try (exchange) {
+            if (ETAG.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+            if (cacheControl != null) {
+                exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private ResponseCache cache(int maxEntries, Duration ttl, Duration diskTtl) {
+        return new ResponseCache(true, maxEntries, ttl, diskTtl, directory);
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".bin")).count();
+        }
+    }
+
+    private static ResponseCache.CachedResponse entry(long storedAt) {
+        return new ResponseCache.CachedResponse(PAGE.getBytes(StandardCharsets.UTF_8), ETAG, LAST_MODIFIED, storedAt);
+    }
+}
@@ -0,0 +1,139 @@
+package com.gabeust.literalura.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTests {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<List<String>> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneExecutionAndItsResult() throws Exception {
+        List<String> result = List.of("Libro 1");
+
+        List<Object> outcomes = runConcurrently("books?languages=en", () -> result);
+
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.executions());
+        assertEquals(CALLERS - 1, singleFlight.coalesced());
+        outcomes.forEach(outcome -> assertSame(result, outcome));
+
+        // al terminar la clave se libera: la siguiente llamada vuelve a ejecutarse
+        assertEquals(result, singleFlight.execute("books?languages=en", () -> {
+            calls.incrementAndGet();
+            return result;
+        }));
+        assertEquals(2, calls.get());
+        assertEquals(2, singleFlight.executions());
+    }
+
+    @Test
+    void concurrentCallersShareTheFailure() throws Exception {
+        IOException failure = new IOException("Gutendex no respondió");
+
+        List<Object> outcomes = runConcurrently("books?search=emma", () -> {
+            throw failure;
+        });
+
+        assertEquals(1, calls.get());
+        outcomes.forEach(outcome -> assertSame(failure, outcome));
+
+        // un fallo tampoco queda guardado
+        assertEquals(List.of(), singleFlight.execute("books?search=emma", List::of));
+        assertEquals(2, singleFlight.executions());
+    }
+
+    @Test
+    void waitersSeeAnInterruptedLeaderAsAnInterruptedRead() throws Exception {
+        List<Object> outcomes = runConcurrently("books?page=2", () -> {
+            throw new InterruptedException();
+        });
+
+        long interrupted = outcomes.stream().filter(InterruptedException.class::isInstance).count();
+        assertEquals(1, interrupted);
+        // los que esperaban no fueron interrumpidos: reciben un error de lectura
+        assertEquals(CALLERS - 1, outcomes.stream().filter(InterruptedIOException.class::isInstance).count());
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        SingleFlight.Call<List<String>> call = () -> {
+            bothRunning.countDown();
+            assertTrue(bothRunning.await(5, TimeUnit.SECONDS), "la otra clave quedó esperando");
+            return List.of();
+        };
+
+        Future<List<String>> en = executor.submit(() -> singleFlight.execute("books?languages=en", call));
+        Future<List<String>> es = executor.submit(() -> singleFlight.execute("books?languages=es", call));
+
+        assertEquals(List.of(), en.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of(), es.get(10, TimeUnit.SECONDS));
+        assertEquals(2, singleFlight.executions());
+        assertEquals(0, singleFlight.coalesced());
+    }
+
+    /**
+     * Lanza {@link #CALLERS} llamadas a la misma clave. La operación no termina hasta
+     * que todas las demás se sumaron a ella, así que una sola llega a ejecutarse.
+     *
+     * @return el resultado o la excepción que recibió cada llamador
+     */
+    private List<Object> runConcurrently(String key, SingleFlight.Call<List<String>> body) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        SingleFlight.Call<List<String>> call = () -> {
+            calls.incrementAndGet();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (singleFlight.coalesced() < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            return body.execute();
+        };
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return singleFlight.execute(key, call);
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+        start.countDown();
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            try {
+                outcomes.add(future.get(10, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                throw new AssertionError(e.getCause());
+            }
+        }
+        return outcomes;
+    }
+}
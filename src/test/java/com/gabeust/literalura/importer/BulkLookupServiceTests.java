@@ -0,0 +1,168 @@
+package com.gabeust.literalura.importer;
+
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.service.AuthorService;
+import com.gabeust.literalura.service.BookIngestService;
+import com.gabeust.literalura.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkLookupServiceTests {
+
+    @TempDir
+    Path directory;
+
+    private final BookService bookService = mock(BookService.class);
+    private final AuthorService authorService = mock(AuthorService.class);
+    private final BookIngestService ingestService = mock(BookIngestService.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    /** Lotes recibidos por la ingesta, en orden de llegada. */
+    private final List<List<Long>> savedBatches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(ingestService.saveAllIfNotExists(any())).thenAnswer(call -> {
+            Collection<BookDTO> batch = call.getArgument(0);
+            savedBatches.add(batch.stream().map(BookDTO::id).toList());
+            return batch.size();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void writesResultsInInputOrderAndResolvesRepeatedQueriesOnce() throws Exception {
+        when(bookService.findByTitle(eq("Slow"), any())).thenAnswer(call -> {
+            Thread.sleep(200);
+            newBooks(call.getArgument(1)).accept(List.of(book(1, "Slow")));
+            return Optional.of(book(1, "Slow"));
+        });
+        when(bookService.findByTitle(eq("fast"), any())).thenReturn(Optional.of(book(2, "fast")));
+        when(authorService.findByAuthor(eq("Cervantes"), any())).thenReturn(List.of(book(3, "Quijote"), book(4, "Novelas")));
+
+        BulkLookupService.LookupReport report = run(16, 200,
+                "title: Slow", "# comentario", "author: Cervantes", "", "fast", "TITLE:  slow ");
+
+        assertEquals(List.of(
+                "title\tSlow\tfound\t1",
+                "author\tCervantes\tfound\t3,4",
+                "title\tfast\tfound\t2",
+                "title\tslow\tfound\t1"), results());
+        verify(bookService, times(1)).findByTitle(eq("Slow"), any());
+        assertEquals(4, report.lines());
+        assertEquals(3, report.queries());
+        assertEquals(3, report.found());
+        assertEquals(List.of(List.of(1L)), savedBatches);
+        assertEquals(1, report.saved());
+    }
+
+    @Test
+    void reportsFailuresPerQueryAndKeepsTheRest() throws Exception {
+        when(bookService.findByTitle(eq("Roto"), any())).thenThrow(new IOException("Gutendex no respondió"));
+        when(bookService.findByTitle(eq("Vacío"), any())).thenReturn(Optional.empty());
+        when(authorService.findByAuthor(eq("Austen"), any())).thenReturn(List.of(book(1342, "Pride and Prejudice")));
+
+        BulkLookupService.LookupReport report = run(4, 200, "title: Roto", "title: Vacío", "author: Austen");
+
+        assertEquals(List.of(
+                "title\tRoto\terror\t",
+                "title\tVacío\tnot_found\t",
+                "author\tAusten\tfound\t1342"), results());
+        assertTrue(Files.readAllLines(output()).get(1).endsWith("IOException: Gutendex no respondió"));
+        assertEquals(1, report.found());
+        assertEquals(1, report.notFound());
+        assertEquals(1, report.failed());
+        assertTrue(Files.readString(directory.resolve("results.tsv.report")).contains("failed=1"));
+    }
+
+    @Test
+    void neverRunsMoreThanMaxConcurrencyLookupsAndSavesInBatches() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(bookService.findByTitle(anyString(), any())).thenAnswer(call -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(30);
+                long id = Long.parseLong(call.<String>getArgument(0).substring("Libro ".length()));
+                newBooks(call.getArgument(1)).accept(List.of(book(id, "Libro " + id)));
+                return Optional.of(book(id, "Libro " + id));
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        String[] lines = IntStream.rangeClosed(1, 24).mapToObj(i -> "Libro " + i).toArray(String[]::new);
+        BulkLookupService.LookupReport report = run(3, 5, lines);
+
+        assertEquals(24, report.found());
+        assertTrue(maxRunning.get() <= 3, "búsquedas simultáneas: " + maxRunning.get());
+        assertTrue(maxRunning.get() > 1, "las búsquedas no corrieron en paralelo");
+        // lotes completos mientras se busca, y el resto al terminar
+        List<Integer> sizes = savedBatches.stream().map(List::size).toList();
+        assertEquals(List.of(5, 5, 5, 5, 4), sizes);
+        assertEquals(24, report.saved());
+    }
+
+    private BulkLookupService.LookupReport run(int maxConcurrency, int batchSize, String... lines)
+            throws IOException, InterruptedException {
+        Path input = directory.resolve("queries.txt");
+        Files.write(input, List.of(lines), StandardCharsets.UTF_8);
+        BulkLookupService service = new BulkLookupService(bookService, authorService, ingestService, executor,
+                maxConcurrency, batchSize);
+        return service.run(input, output());
+    }
+
+    private Path output() {
+        return directory.resolve("results.tsv");
+    }
+
+    /** Tipo, búsqueda, estado e ids de cada fila, sin la columna de latencia. */
+    private List<String> results() throws IOException {
+        List<String> lines = Files.readAllLines(output());
+        List<String> rows = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split("\t", -1);
+            rows.add(String.join("\t", columns[0], columns[1], columns[2], columns[4]));
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<List<BookDTO>> newBooks(Object argument) {
+        return (Consumer<List<BookDTO>>) argument;
+    }
+
+    private static BookDTO book(long id, String title) {
+        return new BookDTO(id, title, List.of(), List.of(), List.of(), List.of("es"), 0);
+    }
+}
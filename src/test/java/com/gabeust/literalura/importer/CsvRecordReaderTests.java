@@ -0,0 +1,60 @@
+package com.gabeust.literalura.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvRecordReaderTests {
+
+    @Test
+    void keepsLineBreaksInsideQuotedFields() throws IOException {
+        String csv = "Text#,Type,Title\r\n"
+                + "1,Text,\"Primera línea\r\nsegunda línea\"\r\n"
+                + "2,Text,Simple\n";
+
+        List<String> records = readAll(csv);
+
+        assertEquals(3, records.size());
+        assertEquals("1,Text,\"Primera línea\r\nsegunda línea\"", records.get(1));
+        assertEquals("2,Text,Simple", records.get(2));
+    }
+
+    @Test
+    void readsLastRecordWithoutTrailingNewline() throws IOException {
+        assertEquals(List.of("a,b", "c,d"), readAll("a,b\nc,d"));
+        assertEquals(List.of(), readAll(""));
+    }
+
+    @Test
+    void readsRecordsLongerThanTheBuffer() throws IOException {
+        String longTitle = "x".repeat(200_000);
+
+        List<String> records = readAll("1,Text,\"" + longTitle + "\"\n2,Text,corto\n");
+
+        assertEquals(2, records.size());
+        assertEquals(longTitle, CsvRecordReader.splitFields(records.get(0))[2]);
+    }
+
+    @Test
+    void splitsQuotedFieldsWithCommasAndEscapedQuotes() {
+        String[] fields = CsvRecordReader.splitFields("7,\"Dickens, Charles\",\"Él dijo \"\"hola\"\"\",,fin");
+
+        assertEquals(List.of("7", "Dickens, Charles", "Él dijo \"hola\"", "", "fin"), List.of(fields));
+    }
+
+    private static List<String> readAll(String csv) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv))) {
+            String record;
+            while ((record = reader.nextRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
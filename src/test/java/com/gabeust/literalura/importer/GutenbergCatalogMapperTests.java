@@ -0,0 +1,82 @@
+package com.gabeust.literalura.importer;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GutenbergCatalogMapperTests {
+
+    @Test
+    void mapsTextRecord() {
+        BookDTO book = GutenbergCatalogMapper.toDTO(fields("2000", "Text", "1999-12-01", "Don Quijote\r\n",
+                "es", "Cervantes Saavedra, Miguel de, 1547-1616", "Spain -- Fiction; Knights and knighthood -- Fiction",
+                "PQ", "Best Books Ever Listings"));
+
+        assertEquals(2000L, book.id());
+        assertEquals("Don Quijote", book.title());
+        assertEquals(List.of(new AuthorDTO(null, "Cervantes Saavedra, Miguel de", 1547, 1616)), book.authors());
+        assertEquals(List.of("Spain -- Fiction", "Knights and knighthood -- Fiction"), book.subjects());
+        assertEquals(List.of("es"), book.languages());
+        // el catálogo no trae descargas
+        assertNull(book.download_count());
+    }
+
+    @Test
+    void skipsNonTextAndMalformedRecords() {
+        assertNull(GutenbergCatalogMapper.toDTO(fields("10", "Sound", "", "Audio", "en", "", "", "", "")));
+        assertNull(GutenbergCatalogMapper.toDTO(fields("abc", "Text", "", "Sin id", "en", "", "", "", "")));
+        assertNull(GutenbergCatalogMapper.toDTO(fields("11", "Text", "", "Corto")));
+    }
+
+    @Test
+    void parsesBeforeCommonEraAndOpenYears() {
+        assertEquals(List.of(new AuthorDTO(null, "Ovid", -43, 17)),
+                GutenbergCatalogMapper.parseAuthors("Ovid, 43 BCE-17"));
+        assertEquals(List.of(new AuthorDTO(null, "Horace", -65, -8)),
+                GutenbergCatalogMapper.parseAuthors("Horace, 65 BCE-8 BCE"));
+        assertEquals(List.of(new AuthorDTO(null, "Kempis, Thomas à", 1380, 1471)),
+                GutenbergCatalogMapper.parseAuthors("Kempis, Thomas à, 1380?-1471"));
+        assertEquals(List.of(new AuthorDTO(null, "Anonymous", null, 1550)),
+                GutenbergCatalogMapper.parseAuthors("Anonymous, -1550"));
+        assertEquals(List.of(new AuthorDTO(null, "Poe, Edgar Allan", 1809, null)),
+                GutenbergCatalogMapper.parseAuthors("Poe, Edgar Allan, 1809-"));
+    }
+
+    @Test
+    void dropsRolesAndKeepsEveryAuthor() {
+        List<AuthorDTO> authors = GutenbergCatalogMapper.parseAuthors(
+                "Twain, Mark, 1835-1910; Kemble, E. W. (Edward Windsor), 1861-1933 [Illustrator]; "
+                        + "Ormsby, John, 1829-1895 [Translator]");
+
+        assertEquals(List.of(
+                new AuthorDTO(null, "Twain, Mark", 1835, 1910),
+                new AuthorDTO(null, "Kemble, E. W. (Edward Windsor)", 1861, 1933),
+                new AuthorDTO(null, "Ormsby, John", 1829, 1895)), authors);
+    }
+
+    @Test
+    void truncatesValuesLongerThanTheirColumns() {
+        String title = "A".repeat(GutenbergCatalogMapper.TITLE_LENGTH - 1) + "📚" + " resto del título";
+        String name = "N".repeat(300);
+        String subject = "S".repeat(600);
+
+        BookDTO book = GutenbergCatalogMapper.toDTO(fields("3", "Text", "", title, "en",
+                name + ", 1800-1900", subject + "; " + subject + "x", "", ""));
+
+        // el emoji no entra entero, así que el corte queda antes de su primera mitad
+        assertEquals("A".repeat(GutenbergCatalogMapper.TITLE_LENGTH - 1), book.title());
+        assertEquals(List.of(new AuthorDTO(null, "N".repeat(GutenbergCatalogMapper.NAME_LENGTH), 1800, 1900)),
+                book.authors());
+        // dos temas que solo difieren después del corte quedan en uno
+        assertEquals(List.of("S".repeat(GutenbergCatalogMapper.SUBJECT_LENGTH)), book.subjects());
+    }
+
+    private static String[] fields(String... values) {
+        return values;
+    }
+}
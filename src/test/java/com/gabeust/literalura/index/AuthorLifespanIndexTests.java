@@ -0,0 +1,92 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorLifespanIndexTests {
+
+    private static final AuthorDTO CERVANTES = new AuthorDTO(1L, "Cervantes Saavedra, Miguel de", 1547, 1616);
+    private static final AuthorDTO AUSTEN = new AuthorDTO(2L, "Austen, Jane", 1775, 1817);
+    private static final AuthorDTO BORGES = new AuthorDTO(3L, "Borges, Jorge Luis", 1899, 1986);
+    /** Sin año de muerte: se toma como vivo hasta hoy. */
+    private static final AuthorDTO LIVING = new AuthorDTO(4L, "Autora, Viva", 1970, null);
+    /** Sin año de nacimiento: no se indexa. */
+    private static final AuthorDTO UNBORN = new AuthorDTO(5L, "Anónimo", null, 1600);
+
+    private final AuthorLifespanIndex index = new AuthorLifespanIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.index(List.of(
+                book(10, CERVANTES),
+                book(11, CERVANTES),
+                book(20, AUSTEN),
+                book(30, BORGES, LIVING),
+                book(50, UNBORN)));
+    }
+
+    @Test
+    void includesAuthorsBornOrDeadExactlyAtTheBounds() {
+        // murió el primer año del rango / nació el último
+        assertEquals(List.of(CERVANTES), index.authorsAliveBetween(1616, 1700));
+        assertEquals(List.of(AUSTEN), index.authorsAliveBetween(1700, 1775));
+        assertEquals(List.of(AUSTEN), index.authorsAliveBetween(1817, 1817));
+        assertEquals(List.of(AUSTEN), index.authorsAliveBetween(1775, 1775));
+        // un año antes de nacer o después de morir ya no cuenta
+        assertEquals(List.of(), index.authorsAliveBetween(1617, 1774));
+        assertEquals(List.of(CERVANTES, AUSTEN), index.authorsAliveBetween(1600, 1800));
+    }
+
+    @Test
+    void treatsAMissingDeathYearAsStillAlive() {
+        assertEquals(List.of(LIVING), index.authorsAliveBetween(2020, 2030));
+        assertEquals(List.of(BORGES, LIVING), index.authorsAliveBetween(1980, 1980));
+        assertEquals(Set.of(30L), index.booksByAuthorsAliveBetween(3000, 3000));
+    }
+
+    @Test
+    void skipsAuthorsWithoutBirthYear() {
+        assertEquals(4, index.size());
+        // murió en 1600, pero sin nacimiento no se sabe si vivía: igual que la consulta a la base
+        assertEquals(List.of(CERVANTES), index.authorsAliveBetween(1590, 1600));
+        assertTrue(index.booksByAuthorsAliveBetween(0, 3000).stream().noneMatch(id -> id == 50L));
+    }
+
+    @Test
+    void answersWithBooksAndIgnoresEmptyRanges() {
+        assertEquals(Set.of(10L, 11L, 20L), index.booksByAuthorsAliveBetween(1500, 1800));
+        assertEquals(List.of(), index.authorsAliveBetween(1800, 1700));
+        assertEquals(Set.of(), index.booksByAuthorsAliveBetween(1000, 1100));
+    }
+
+    @Test
+    void rebuildsOnTheFirstQueryAfterAnInsert() {
+        assertEquals(List.of(), index.authorsAliveBetween(1890, 1895));
+
+        AuthorDTO verne = new AuthorDTO(6L, "Verne, Jules", 1828, 1905);
+        index.index(List.of(book(60, verne)));
+        assertEquals(List.of(verne), index.authorsAliveBetween(1890, 1895));
+        assertEquals(Set.of(60L), index.booksByAuthorsAliveBetween(1890, 1895));
+
+        // un libro que se vuelve a indexar sin su autor lo da de baja
+        index.index(List.of(book(60)));
+        assertEquals(List.of(), index.authorsAliveBetween(1890, 1895));
+        assertEquals(4, index.size());
+
+        // Cervantes conserva el otro libro
+        index.index(List.of(book(10)));
+        assertEquals(Set.of(11L), index.booksByAuthorsAliveBetween(1600, 1600));
+    }
+
+    private static BookDTO book(long id, AuthorDTO... authors) {
+        return new BookDTO(id, "Libro " + id, List.of(), List.of(authors), List.of(), List.of("es"), 100);
+    }
+}
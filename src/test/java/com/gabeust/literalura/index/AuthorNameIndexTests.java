@@ -0,0 +1,98 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorNameIndexTests {
+
+    private final AuthorNameIndex index = new AuthorNameIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.add(1, "Cervantes Saavedra, Miguel de");
+        index.add(2, "Austen, Jane");
+        index.add(3, "Shakespeare, William");
+        index.add(4, "Dickens, Charles");
+        index.add(5, "García Márquez, Gabriel");
+        index.add(6, "Hugo, Victor");
+        index.add(7, "Li, Bo");
+        index.add(8, "Ba, Jin");
+        index.add(9, "H. D.");
+        index.add(10, "Wu, Ai");
+    }
+
+    @Test
+    void findsNamesRegardlessOfWordOrder() {
+        assertEquals(1, first("miguel cervantes"));
+        assertEquals(2, first("Jane Austen"));
+        assertEquals(1.0, index.search("Charles Dickens", 1).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertEquals(1, first("cervnates saavedra"));
+        assertEquals(3, first("Shakspeare"));
+        assertEquals(4, first("Dikens, Charls"));
+        assertEquals(2, first("Austin Jane"));
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        List<AuthorNameIndex.Match> matches = index.search("GABRIEL GARCIA MARQUEZ", 3);
+        assertEquals(5, matches.get(0).authorId());
+        assertEquals("García Márquez, Gabriel", matches.get(0).name());
+        assertEquals(1.0, matches.get(0).score(), 1e-9);
+        assertEquals(6, first("Víctor Húgo"));
+    }
+
+    @Test
+    void matchesNamesWithWordsShorterThanThreeLetters() {
+        assertEquals(7, first("Bo Li"));
+        assertEquals(8, first("jin ba"));
+        assertEquals(10, first("Ai Wu"));
+        assertEquals(9, first("H.D."));
+        assertEquals(1.0, index.search("d h", 1).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void ranksByScoreAndKeepsOnlyCloseMatches() {
+        index.add(11, "Austen, Jane, 1775-1817");
+        List<AuthorNameIndex.Match> matches = index.search("jane austen", 5);
+
+        assertEquals(List.of(2L, 11L), matches.stream().map(AuthorNameIndex.Match::authorId).toList());
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+        assertTrue(index.search("zzyzx qwv", 5).isEmpty());
+        assertTrue(index.search("", 5).isEmpty());
+        assertEquals(1, index.search("jane austen", 1).size());
+    }
+
+    @Test
+    void indexesSavedAuthorsOnceAndSkipsThoseWithoutId() {
+        index.index(List.of(
+                book(new AuthorDTO(20L, "Borges, Jorge Luis", 1899, 1986)),
+                book(new AuthorDTO(null, "Cortázar, Julio", 1914, 1984)),
+                book(new AuthorDTO(20L, "Otro nombre", null, null))));
+
+        assertEquals(11, index.size());
+        assertEquals(20, first("jorge luis borges"));
+        assertTrue(index.search("julio cortazar", 5).isEmpty());
+        assertTrue(index.search("otro nombre", 5).isEmpty());
+    }
+
+    private long first(String query) {
+        List<AuthorNameIndex.Match> matches = index.search(query, 1);
+        assertEquals(1, matches.size(), "sin coincidencias para " + query);
+        return matches.get(0).authorId();
+    }
+
+    private static BookDTO book(AuthorDTO author) {
+        return new BookDTO(1L, "Libro", List.of(), List.of(author), List.of(), List.of("es"), 0);
+    }
+}
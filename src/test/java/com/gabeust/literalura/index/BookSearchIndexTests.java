@@ -0,0 +1,131 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSearchIndexTests {
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    @Test
+    void weighsTitleOverAuthorOverSubjectOverSummary() {
+        index.index(List.of(
+                book(1, "Notas de viaje", "Perez, Ana", "Travel", "Relato de una ballena blanca"),
+                book(2, "Diario", "Ballena, Juan", "Travel", "Relato"),
+                book(3, "Ballena", "Perez, Ana", "Travel", "Relato"),
+                book(4, "Cuaderno", "Perez, Ana", "Ballena -- Ficción", "Relato")));
+
+        List<BookSearchIndex.SearchHit> hits = index.search("BALLENA", 10);
+
+        assertEquals(List.of(3L, 2L, 4L, 1L), ids(hits));
+        // mismo término y mismo IDF: los puntajes guardan la proporción 4 : 2 : 1 : 0,25
+        assertEquals(2.0, hits.get(0).score() / hits.get(1).score(), 1e-6);
+        assertEquals(4.0, hits.get(0).score() / hits.get(2).score(), 1e-6);
+        assertEquals(16.0, hits.get(0).score() / hits.get(3).score(), 1e-6);
+        assertEquals("Ballena", hits.get(0).title());
+    }
+
+    @Test
+    void ranksBooksCoveringMoreTermsFirst() {
+        index.index(List.of(
+                book(1, "Océano océano océano", "Perez, Ana", "Sea", "Nada"),
+                book(2, "Diario", "Perez, Ana", "Sea", "Una tormenta en el océano"),
+                book(3, "Tormenta", "Perez, Ana", "Sea", "Nada")));
+
+        List<BookSearchIndex.SearchHit> hits = index.search("oceano tormenta", 10);
+
+        // el 2 contiene las dos palabras aunque su puntaje sea el más bajo
+        assertEquals(2L, hits.get(0).bookId());
+        assertTrue(hits.get(0).score() < hits.get(1).score());
+        assertEquals(List.of(1L, 3L), ids(hits).subList(1, 3));
+        assertEquals(List.of(2L), ids(index.search("oceano tormenta", 1)));
+        assertEquals(List.of(), index.search("oceano", 0));
+        assertEquals(List.of(), index.search("!!", 5));
+    }
+
+    @Test
+    void reindexingReplacesTheOldTermsAndUpdatesDocumentFrequencies() {
+        index.index(List.of(
+                book(1, "Dragón rojo", "Perez, Ana", "Fantasy", "Nada"),
+                book(2, "Dragón azul", "Perez, Ana", "Fantasy", "Nada"),
+                book(3, "Castillo", "Perez, Ana", "Fantasy", "Nada")));
+
+        index.index(List.of(book(2, "Castillo azul", "Perez, Ana", "Fantasy", "Nada")));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(1L), ids(index.search("dragon", 10)));
+        assertEquals(List.of(2L, 3L), ids(index.search("castillo", 10)));
+
+        // "dragón" quedó en un solo libro: el IDF es el de un índice armado de cero
+        BookSearchIndex fresh = new BookSearchIndex();
+        fresh.index(List.of(
+                book(1, "Dragón rojo", "Perez, Ana", "Fantasy", "Nada"),
+                book(2, "Castillo azul", "Perez, Ana", "Fantasy", "Nada"),
+                book(3, "Castillo", "Perez, Ana", "Fantasy", "Nada")));
+        assertSameHits(fresh, index, "dragon castillo azul rojo");
+
+        // un término cuyo único libro se reindexó sin él deja de existir y puede volver
+        index.index(List.of(book(1, "Sin título", "Perez, Ana", "Fantasy", "Nada")));
+        assertEquals(List.of(), index.search("dragon rojo", 10));
+        index.index(List.of(book(3, "Dragón", "Perez, Ana", "Fantasy", "Nada")));
+        assertEquals(List.of(3L), ids(index.search("dragon", 10)));
+    }
+
+    @Test
+    void compactsAfterManyReindexesAndKeepsTheSameResults() {
+        List<BookDTO> original = LongStream.range(0, 3_000)
+                .mapToObj(id -> book(id, "Libro " + id + (id % 3 == 0 ? " mar" : " tierra"), "Autor " + (id % 50) + ", Nombre",
+                        id % 2 == 0 ? "Fiction" : "Poetry", "Resumen del libro " + id))
+                .toList();
+        index.index(original);
+
+        // 1 500 reindexados superan las 1 024 marcas y un cuarto del total: se compacta
+        List<BookDTO> changed = original.subList(0, 1_500).stream()
+                .map(book -> book(book.id(), "Edición nueva " + book.id() + " cielo", "Autor 7, Nombre", "Drama", "Otro resumen"))
+                .toList();
+        index.index(changed);
+
+        // mismo orden de posiciones que deja la compactación, para que los empates coincidan
+        BookSearchIndex fresh = new BookSearchIndex();
+        List<BookDTO> current = new ArrayList<>(original.subList(1_500, 3_000));
+        current.addAll(changed);
+        fresh.index(current);
+
+        assertEquals(3_000, index.size());
+        for (String query : List.of("mar", "tierra", "cielo edicion", "autor 7", "fiction drama", "libro 2999", "resumen 10")) {
+            assertSameHits(fresh, index, query);
+        }
+        assertTrue(ids(index.search("mar", 3_000)).stream().allMatch(id -> id >= 1_500));
+
+        // después de compactar se sigue pudiendo reindexar
+        index.index(List.of(book(2_999, "Único", "Autor 1, Nombre", "Drama", "Nada")));
+        assertEquals(List.of(2_999L), ids(index.search("unico", 5)));
+    }
+
+    private static void assertSameHits(BookSearchIndex expected, BookSearchIndex actual, String query) {
+        List<BookSearchIndex.SearchHit> want = expected.search(query, 50);
+        List<BookSearchIndex.SearchHit> got = actual.search(query, 50);
+        assertEquals(ids(want), ids(got), query);
+        for (int i = 0; i < want.size(); i++) {
+            assertEquals(want.get(i).score(), got.get(i).score(), 1e-9);
+            assertEquals(want.get(i).title(), got.get(i).title());
+        }
+    }
+
+    private static List<Long> ids(List<BookSearchIndex.SearchHit> hits) {
+        return hits.stream().map(BookSearchIndex.SearchHit::bookId).toList();
+    }
+
+    private static BookDTO book(long id, String title, String author, String subject, String summary) {
+        return new BookDTO(id, title, List.of(summary), List.of(new AuthorDTO(id, author, null, null)),
+                List.of(subject), List.of("es"), 10);
+    }
+}
@@ -0,0 +1,109 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarCatalogTests {
+
+    private static final AuthorDTO AUSTEN = new AuthorDTO(7L, "Austen, Jane", 1775, 1817);
+    private static final AuthorDTO ANONYMOUS = new AuthorDTO(9L, "Anónimo", null, null);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsThroughMappedFile() throws IOException {
+        ColumnarCatalog.Builder builder = new ColumnarCatalog.Builder("base-de-prueba");
+        builder.add(book(1342, "Pride and Prejudice", List.of(AUSTEN), List.of("en"), 50_000));
+        builder.add(book(2000, "Don Quijote", List.of(ANONYMOUS), List.of("es", "en"), 12_000));
+        builder.add(new BookDTO(3000L, null, null, null, null, null, 5));
+        Path file = directory.resolve("catalog.snapshot");
+        builder.build().writeTo(file);
+
+        ColumnarCatalog mapped = ColumnarCatalog.map(file);
+
+        assertEquals(3, mapped.size());
+        assertEquals("base-de-prueba", mapped.source());
+        assertEquals(3000L, mapped.maxId());
+        assertEquals("base-de-prueba", mapped.merge(List.of(book(4000, "D", List.of(), List.of(), 1))).source());
+        assertEquals(book(1342, "Pride and Prejudice", List.of(AUSTEN), List.of("en"), 50_000), mapped.find(1342));
+        assertEquals(List.of(ANONYMOUS), mapped.find(2000).authors());
+        assertEquals(new BookDTO(3000L, "", List.of(), List.of(), List.of(), List.of(), 5), mapped.find(3000));
+        assertNull(mapped.find(1));
+    }
+
+    @Test
+    void pagesByIdAndRanksByDownloads() {
+        ColumnarCatalog catalog = ColumnarCatalog.empty().merge(List.of(
+                book(30, "C", List.of(AUSTEN), List.of("en"), 10),
+                book(10, "A", List.of(AUSTEN), List.of("es"), 300),
+                book(20, "B", List.of(ANONYMOUS), List.of("en", "es"), 200)));
+
+        KeysetPageDTO<BookDTO> first = catalog.page(null, 2);
+        assertEquals(List.of(10L, 20L), first.items().stream().map(BookDTO::id).toList());
+        assertEquals(20L, first.nextCursor());
+        KeysetPageDTO<BookDTO> second = catalog.page(first.nextCursor(), 2);
+        assertEquals(List.of(30L), second.items().stream().map(BookDTO::id).toList());
+        assertNull(second.nextCursor());
+
+        assertEquals(List.of(10L, 20L, 30L), catalog.top(null, 5).stream().map(BookDTO::id).toList());
+        assertEquals(List.of(20L, 30L), catalog.top("en", 5).stream().map(BookDTO::id).toList());
+        assertEquals(List.of(), catalog.top("fr", 5));
+    }
+
+    @Test
+    void keepsUnknownDownloadsOutOfTheRanking() throws IOException {
+        ColumnarCatalog.Builder builder = new ColumnarCatalog.Builder();
+        builder.add(book(10, "A", List.of(AUSTEN), List.of("en"), 0));
+        builder.add(new BookDTO(20L, "Importado", List.of(), List.of(), List.of(), List.of("en"), null));
+        Path file = directory.resolve("catalog.snapshot");
+        builder.build().writeTo(file);
+
+        ColumnarCatalog mapped = ColumnarCatalog.map(file);
+
+        assertNull(mapped.find(20).download_count());
+        assertEquals(0, mapped.find(10).download_count());
+        assertEquals(List.of(10L), mapped.top(null, 5).stream().map(BookDTO::id).toList());
+        assertEquals(List.of(10L), mapped.top("en", 5).stream().map(BookDTO::id).toList());
+    }
+
+    @Test
+    void mergeReplacesExistingBooksAndKeepsTheRest() {
+        ColumnarCatalog catalog = ColumnarCatalog.empty().merge(List.of(
+                book(10, "A", List.of(AUSTEN), List.of("es"), 300),
+                book(20, "B", List.of(ANONYMOUS), List.of("en"), 200)));
+
+        ColumnarCatalog merged = catalog.merge(List.of(
+                book(20, "B", List.of(ANONYMOUS), List.of("en"), 900),
+                book(15, "Nuevo", List.of(AUSTEN, ANONYMOUS), List.of("fr"), 1)));
+
+        assertEquals(3, merged.size());
+        assertEquals(900, merged.find(20).download_count());
+        assertEquals(book(10, "A", List.of(AUSTEN), List.of("es"), 300), merged.find(10));
+        assertEquals(List.of(AUSTEN, ANONYMOUS), merged.find(15).authors());
+        assertEquals(2, catalog.size());
+    }
+
+    @Test
+    void builderRejectsIdsOutOfOrder() {
+        ColumnarCatalog.Builder builder = new ColumnarCatalog.Builder();
+        builder.add(book(20, "B", List.of(), List.of(), 0));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(book(10, "A", List.of(), List.of(), 0)));
+    }
+
+    private static BookDTO book(long id, String title, List<AuthorDTO> authors, List<String> languages, int downloads) {
+        return new BookDTO(id, title, List.of("Resumen de " + title), authors, List.of("Fiction"), languages, downloads);
+    }
+}
@@ -0,0 +1,149 @@
+package com.gabeust.literalura.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactBitmapTests {
+
+    /** Un grupo pasa de arreglo a mapa de bits al superar este tamaño. */
+    private static final int ARRAY_MAX = 4096;
+
+    @Test
+    void switchesBetweenArrayAndBitmapContainers() {
+        CompactBitmap bitmap = new CompactBitmap();
+        List<Integer> expected = evens(0, ARRAY_MAX * 2);
+        expected.forEach(bitmap::add);
+        assertEquals(ARRAY_MAX, bitmap.cardinality());
+
+        // el valor 4097 convierte el grupo en mapa de bits
+        bitmap.add(1);
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+        assertTrue(bitmap.contains(1) && bitmap.contains(0) && bitmap.contains(8190) && !bitmap.contains(3));
+        bitmap.add(1);
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+
+        // al quitarlo vuelve a ser un arreglo, con los mismos valores
+        bitmap.remove(1);
+        assertEquals(expected, values(bitmap));
+        bitmap.add(3);
+        bitmap.remove(0);
+        assertEquals(ARRAY_MAX, bitmap.cardinality());
+        assertTrue(bitmap.contains(3) && !bitmap.contains(0));
+
+        // 10 000 valores caben en 8 KiB de bits; como arreglo ocuparían 20 000 bytes
+        CompactBitmap dense = range(0, 10_000);
+        assertTrue(dense.sizeInBytes() < 10_000 * 2, "debería ser un mapa de bits: " + dense.sizeInBytes());
+        // una intersección chica de un grupo denso vuelve a ser un arreglo
+        assertTrue(dense.and(range(0, 100)).sizeInBytes() < 1024);
+        assertTrue(dense.andNot(range(100, 10_000)).sizeInBytes() < 1024);
+    }
+
+    @Test
+    void removesEmptyGroupsAndIgnoresMissingValues() {
+        CompactBitmap bitmap = new CompactBitmap();
+        bitmap.add(5);
+        bitmap.add(70_000);
+        bitmap.remove(70_001);
+        bitmap.remove(200_000);
+        bitmap.remove(-1);
+        assertEquals(List.of(5, 70_000), values(bitmap));
+
+        bitmap.remove(70_000);
+        bitmap.remove(5);
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-3));
+    }
+
+    @Test
+    void combinesArraysAndBitmapsAcrossGroups() {
+        // el grupo 0 es denso en uno y disperso en el otro; el 1 y el 3 solo están en un lado
+        CompactBitmap dense = range(0, 10_000);
+        dense.add(65_536 + 7);
+        dense.add(3 * 65_536);
+        CompactBitmap sparse = new CompactBitmap();
+        for (int value : new int[]{3, 9_999, 20_000, 2 * 65_536, 3 * 65_536}) {
+            sparse.add(value);
+        }
+
+        assertEquals(List.of(3, 9_999, 3 * 65_536), values(dense.and(sparse)));
+        assertEquals(values(dense.and(sparse)), values(sparse.and(dense)));
+        assertEquals(3, dense.andCardinality(sparse));
+
+        CompactBitmap union = dense.or(sparse);
+        assertEquals(10_000 + 2 + 2, union.cardinality());
+        assertTrue(union.contains(20_000) && union.contains(2 * 65_536) && union.contains(65_536 + 7));
+
+        CompactBitmap difference = dense.andNot(sparse);
+        assertEquals(10_000 + 2 - 3, difference.cardinality());
+        assertTrue(!difference.contains(3) && !difference.contains(3 * 65_536) && difference.contains(65_536 + 7));
+        assertEquals(List.of(20_000, 2 * 65_536), values(sparse.andNot(dense)));
+
+        // los operandos no cambian
+        assertEquals(10_002, dense.cardinality());
+        assertEquals(5, sparse.cardinality());
+    }
+
+    @Test
+    void matchesBitSetOnDenseAndSparseMixes() {
+        CompactBitmap left = range(1_000, 9_000);
+        CompactBitmap right = range(5_000, 13_000);
+        BitSet leftBits = new BitSet();
+        leftBits.set(1_000, 9_000);
+        BitSet rightBits = new BitSet();
+        rightBits.set(5_000, 13_000);
+        for (int i = 0; i < 3_000; i++) {
+            left.add(100_000 + i * 7);
+            leftBits.set(100_000 + i * 7);
+            right.add(100_000 + i * 3);
+            rightBits.set(100_000 + i * 3);
+        }
+
+        BitSet and = (BitSet) leftBits.clone();
+        and.and(rightBits);
+        BitSet or = (BitSet) leftBits.clone();
+        or.or(rightBits);
+        BitSet andNot = (BitSet) leftBits.clone();
+        andNot.andNot(rightBits);
+
+        assertEquals(values(and), values(left.and(right)));
+        assertEquals(and.cardinality(), left.andCardinality(right));
+        assertEquals(values(or), values(left.or(right)));
+        assertEquals(or.cardinality(), left.or(right).cardinality());
+        assertEquals(values(andNot), values(left.andNot(right)));
+        assertEquals(andNot.cardinality(), left.andNot(right).cardinality());
+    }
+
+    private static CompactBitmap range(int from, int to) {
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int i = from; i < to; i++) {
+            bitmap.add(i);
+        }
+        return bitmap;
+    }
+
+    private static List<Integer> evens(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = from; i < to; i += 2) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private static List<Integer> values(CompactBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+
+    private static List<Integer> values(BitSet bits) {
+        return bits.stream().boxed().toList();
+    }
+}
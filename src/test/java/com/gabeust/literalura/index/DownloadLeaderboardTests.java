@@ -0,0 +1,75 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DownloadLeaderboardTests {
+
+    private final DownloadLeaderboard leaderboard = new DownloadLeaderboard(2);
+
+    @Test
+    void ranksGloballyAndByLanguage() {
+        leaderboard.index(List.of(book(1, 300, "en"), book(2, 100, "es"), book(3, 200, "en", "es"), book(4, 200, "fr")));
+
+        assertEquals(List.of(1L, 3L, 4L, 2L), leaderboard.top(null, 10));
+        assertEquals(List.of(3L, 2L), leaderboard.top("ES", 10));
+        assertEquals(List.of(1L), leaderboard.top("en", 1));
+        assertEquals(List.of(4L, 2L), leaderboard.top(null, 10, id -> id % 2 == 0));
+        assertEquals(List.of(), leaderboard.top("de", 10));
+        assertEquals(4, leaderboard.size(null));
+    }
+
+    @Test
+    void keepsImportedBooksWithoutDownloadsOutOfTheRanking() {
+        leaderboard.index(List.of(book(1, 50, "en"), imported(2, "en"), imported(3, "es")));
+
+        assertEquals(1, leaderboard.size(null));
+        assertEquals(0, leaderboard.size("es"));
+        assertEquals(List.of(1L), leaderboard.top(null, 10));
+
+        // la actualización trae la cifra real y el libro entra
+        leaderboard.index(List.of(book(3, 80, "es")));
+        assertEquals(List.of(3L, 1L), leaderboard.top(null, 10));
+
+        // y si se vuelve a publicar sin descargas, sale
+        leaderboard.index(List.of(imported(1, "en")));
+        assertEquals(List.of(3L), leaderboard.top(null, 10));
+        assertEquals(0, leaderboard.size("en"));
+    }
+
+    @Test
+    void ranksASmallSetOfCandidatesByDownloads() {
+        leaderboard.index(List.of(book(1, 300, "en"), book(2, 100, "es"), book(3, 200, "en"), book(4, 900, "fr"),
+                imported(5, "en"), imported(6, "en")));
+
+        assertEquals(List.of(1L, 3L, 2L), leaderboard.rank(List.of(2L, 3L, 1L), 10));
+        assertEquals(List.of(1L, 3L), leaderboard.rank(Set.of(2L, 3L, 1L), 2));
+        // sin descargas conocidas o no indexados: al final, por id
+        assertEquals(List.of(4L, 2L, 5L, 6L, 99L), leaderboard.rank(List.of(99L, 6L, 2L, 5L, 4L), 10));
+        assertEquals(List.of(), leaderboard.rank(List.of(), 10));
+    }
+
+    @Test
+    void retainsOnlyTheBooksAtTheTopOfSomeRanking() {
+        leaderboard.index(List.of(book(1, 300, "en"), book(2, 200, "en"), book(3, 100, "en"), book(4, 10, "es")));
+
+        // 3 no está entre los dos primeros de ningún ranking; 4 encabeza el de "es"
+        assertEquals(Set.of(1L, 2L, 4L), leaderboard.retainedBooks(List.of(1L, 2L, 3L, 4L)).keySet());
+
+        leaderboard.index(List.of(book(3, 250, "en")));
+        assertEquals(Set.of(1L, 3L, 4L), leaderboard.retainedBooks(List.of(1L, 2L, 3L, 4L)).keySet());
+    }
+
+    private static BookDTO book(long id, int downloads, String... languages) {
+        return new BookDTO(id, "Libro " + id, List.of(), List.of(), List.of(), List.of(languages), downloads);
+    }
+
+    private static BookDTO imported(long id, String language) {
+        return new BookDTO(id, "Libro " + id, List.of(), List.of(), List.of(), List.of(language), null);
+    }
+}
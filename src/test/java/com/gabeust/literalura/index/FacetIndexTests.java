@@ -0,0 +1,88 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FacetIndexTests {
+
+    private final FacetIndex index = new FacetIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.index(List.of(
+                book(1, List.of("es"), "Fiction"),
+                book(2, List.of("es"), "Poetry"),
+                book(3, List.of("en"), "Fiction"),
+                book(4, List.of("en"), "Paris (France) -- Fiction"),
+                book(5, List.of("fr"), "Poetry"),
+                book(6, List.of("de"), "Drama")));
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        // es OR (en AND fiction), no (es OR en) AND fiction
+        assertEquals(List.of(1, 2, 3, 4), ids("es OR en AND fiction"));
+        assertEquals(List.of(1, 3, 4, 5), ids("fiction OR fr AND poetry"));
+        assertEquals(List.of(1, 3, 4), ids("lang:es AND subject:fiction OR lang:en"));
+    }
+
+    @Test
+    void notExcludesTheFollowingTermWithinItsGroup() {
+        assertEquals(List.of(3), ids("en AND NOT paris (france)"));
+        assertEquals(List.of(3), ids("NOT subject:paris (france) AND en"));
+        assertEquals(List.of(2, 3, 4, 6), ids("es AND NOT fiction OR en AND NOT france OR de"));
+        assertEquals(List.of(), ids("es AND NOT es"));
+    }
+
+    @Test
+    void resolvesBarePrefixedAndPartialTerms() {
+        // sin prefijo, un idioma conocido gana sobre un tema
+        assertEquals(List.of(1, 2), ids("ES"));
+        assertEquals(List.of(4), ids("subject:Paris (France)"));
+        assertEquals(List.of(1, 3, 4), ids("subject:fiction"));
+        assertEquals(List.of(), ids("lang:fiction"));
+        assertEquals(List.of(), ids("unknown"));
+        assertEquals(2, index.count("EN"));
+    }
+
+    @Test
+    void rejectsMalformedFilters() {
+        for (String expression : new String[]{"", "   ", "es AND", "AND es", "es OR", "OR es", "es AND AND en",
+                "es OR OR en", "NOT", "es AND NOT", "NOT NOT es", "NOT es", "es OR NOT fr"}) {
+            assertThrows(IllegalArgumentException.class, () -> index.select(expression), expression);
+        }
+        assertThrows(IllegalArgumentException.class, () -> index.select(null));
+    }
+
+    @Test
+    void countsFacetsOfASelectionAndFollowsReindexing() {
+        FacetIndex.FacetCounts counts = index.counts(index.select("fiction OR poetry"), 2);
+        assertEquals(Map.of("es", 2, "en", 2, "fr", 1), counts.languages());
+        assertEquals(List.of("fiction", "poetry"), List.copyOf(counts.subjects().keySet()));
+        assertEquals(3, counts.subjects().get("fiction"));
+
+        index.index(List.of(book(2, List.of("fr"), "Drama")));
+        assertEquals(List.of(1), ids("es"));
+        assertEquals(List.of(2, 5), ids("fr"));
+        assertEquals(List.of(5), ids("poetry"));
+        assertEquals(6, index.size());
+    }
+
+    private List<Integer> ids(String expression) {
+        List<Integer> ids = new ArrayList<>();
+        index.select(expression).forEach(ids::add);
+        return ids;
+    }
+
+    private static BookDTO book(long id, List<String> languages, String subject) {
+        return new BookDTO(id, "Libro " + id, List.of(), List.of(), List.of(subject), languages, 10);
+    }
+}
@@ -0,0 +1,42 @@
+package com.gabeust.literalura.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TextNormalizerTests {
+
+    @Test
+    void titleKeyIgnoresAccentsCaseAndPunctuation() {
+        String key = TextNormalizer.titleKey("Don Quijote de la Mancha");
+
+        assertEquals("don quijote de la mancha", key);
+        assertEquals(key, TextNormalizer.titleKey("DON QUIJOTE DE LA MANCHA"));
+        assertEquals(key, TextNormalizer.titleKey("  Don Quijote — de la Mancha!  "));
+        assertEquals(key, TextNormalizer.titleKey("Don Quijote: de la Mancha..."));
+        assertEquals(key, TextNormalizer.titleKey("Dón Quíjote de lá Manchá"));
+        // forma descompuesta (e + acento combinante) y compuesta dan la misma clave
+        assertEquals(TextNormalizer.titleKey("Les Mis\u00e9rables"), TextNormalizer.titleKey("Les Mise\u0301rables"));
+        assertEquals("les miserables", TextNormalizer.titleKey("LES MISÉRABLES"));
+    }
+
+    @Test
+    void titleKeyKeepsWordsAndDigitsApart() {
+        assertEquals("alice s adventures in wonderland", TextNormalizer.titleKey("Alice's Adventures in Wonderland"));
+        assertEquals("1984", TextNormalizer.titleKey("1984."));
+        assertNotEquals(TextNormalizer.titleKey("Emma"), TextNormalizer.titleKey("Em ma"));
+        assertEquals("", TextNormalizer.titleKey("¡¿...?!"));
+        assertEquals("", TextNormalizer.titleKey(null));
+    }
+
+    @Test
+    void tokensAndFold() {
+        assertEquals(List.of("cervantes", "saavedra", "miguel", "de"), TextNormalizer.tokens("Cervantes Saavedra, Miguel de"));
+        assertEquals("garcia marquez", TextNormalizer.fold("García Márquez"));
+        assertEquals("paris (france) -- fiction", TextNormalizer.fold("Paris (France) -- Fiction"));
+        assertEquals(List.of(), TextNormalizer.tokens(""));
+    }
+}
@@ -0,0 +1,53 @@
+package com.gabeust.literalura.index;
+
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TitleKeyIndexTests {
+
+    private final TitleKeyIndex index = new TitleKeyIndex();
+
+    @Test
+    void groupsBooksWhoseTitlesOnlyDifferInAccentsOrPunctuation() {
+        index.index(List.of(book(1, "Don Quijote"), book(2, "DON QUIJOTE!"), book(3, "Dón Quíjote"), book(4, "Emma")));
+
+        assertEquals(List.of(1L, 2L, 3L), index.ids(TextNormalizer.titleKey("don quijote")));
+        assertEquals(List.of(4L), index.ids("emma"));
+        assertEquals(List.of(), index.ids("persuasion"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void movesABookWhenItsTitleChanges() {
+        index.index(List.of(book(1, "Emma"), book(2, "Emma")));
+
+        index.index(List.of(book(1, "Persuasion")));
+        assertEquals(List.of(2L), index.ids("emma"));
+        assertEquals(List.of(1L), index.ids("persuasion"));
+
+        // reindexar con el mismo título no lo duplica
+        index.index(List.of(book(1, "PERSUASION")));
+        assertEquals(List.of(1L), index.ids("persuasion"));
+
+        // la clave que queda vacía se quita
+        index.index(List.of(book(2, "Sanditon")));
+        assertEquals(List.of(), index.ids("emma"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void skipsTitlesWithoutLettersOrDigits() {
+        index.index(List.of(book(1, "?!"), book(2, null)));
+
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.ids(""));
+    }
+
+    private static BookDTO book(long id, String title) {
+        return new BookDTO(id, title, List.of(), List.of(), List.of(), List.of("en"), 10);
+    }
+}
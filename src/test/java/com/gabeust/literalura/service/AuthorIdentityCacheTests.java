@@ -0,0 +1,122 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.index.AuthorNameIndex;
+import com.gabeust.literalura.model.Author;
+import com.gabeust.literalura.model.AuthorKey;
+import com.gabeust.literalura.repository.AuthorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthorIdentityCacheTests {
+
+    private static final AuthorDTO CERVANTES = new AuthorDTO(null, "Cervantes Saavedra, Miguel de", 1547, 1616);
+
+    /** Filas de la tabla simulada, con la unicidad de {@code uk_author_identity}. */
+    private final Map<String, Long> rows = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    /** Retiene cada consulta hasta que todos los hilos consultaron, para forzar la carrera. */
+    private volatile CountDownLatch lookups = new CountDownLatch(0);
+    private AuthorIdentityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        AuthorRepository repository = mock(AuthorRepository.class);
+        when(repository.findIdByIdentityKey(anyString()))
+                .thenAnswer(call -> {
+                    lookups.countDown();
+                    lookups.await(5, TimeUnit.SECONDS);
+                    return Optional.ofNullable(rows.get(call.<String>getArgument(0)));
+                });
+        when(repository.saveAndFlush(any(Author.class))).thenAnswer(call -> {
+            Author author = call.getArgument(0);
+            long id = sequence.incrementAndGet();
+            if (rows.putIfAbsent(AuthorKey.of(author).asString(), id) != null) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'uk_author_identity'");
+            }
+            author.setId(id);
+            return author;
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        cache = new AuthorIdentityCache(repository, new AuthorNameIndex(), transactionManager, 100);
+    }
+
+    @Test
+    void concurrentCallsForSameAuthorReturnOneId() throws Exception {
+        int threads = 32;
+        lookups = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    return cache.findOrCreateId(CERVANTES);
+                }));
+            }
+            start.countDown();
+            Set<Long> ids = calls.stream().map(AuthorIdentityCacheTests::join).collect(Collectors.toSet());
+
+            assertEquals(1, ids.size());
+            assertEquals(Set.of(rows.get(AuthorKey.of(CERVANTES).asString())), ids);
+        }
+        assertEquals(1, rows.size());
+        AuthorIdentityCache.Stats stats = cache.stats();
+        // todos intentaron insertar; solo uno lo logró y los demás releyeron su fila
+        assertEquals(threads, stats.inserts());
+        assertEquals(threads - 1, stats.conflicts());
+    }
+
+    @Test
+    void distinctAuthorsGetDistinctIds() throws Exception {
+        AuthorDTO sameNameOtherYears = new AuthorDTO(null, CERVANTES.name(), null, null);
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Long>> first = new ArrayList<>();
+            List<Future<Long>> second = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                first.add(executor.submit(() -> cache.findOrCreateId(CERVANTES)));
+                second.add(executor.submit(() -> cache.findOrCreateId(sameNameOtherYears)));
+            }
+            Set<Long> firstIds = first.stream().map(AuthorIdentityCacheTests::join).collect(Collectors.toSet());
+            Set<Long> secondIds = second.stream().map(AuthorIdentityCacheTests::join).collect(Collectors.toSet());
+
+            assertEquals(1, firstIds.size());
+            assertEquals(1, secondIds.size());
+            assertNotEquals(firstIds, secondIds);
+        }
+        assertEquals(2, rows.size());
+    }
+
+    private static Long join(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.model.Author;
+import com.gabeust.literalura.model.AuthorKey;
+import com.gabeust.literalura.model.Book;
+import com.gabeust.literalura.repository.AuthorIdentityView;
+import com.gabeust.literalura.repository.AuthorRepository;
+import com.gabeust.literalura.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookIngestServiceTests {
+
+    private static final int BATCH_SIZE = 50;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final AuthorRepository authorRepository = mock(AuthorRepository.class);
+    private final AuthorIdentityCache identityCache = mock(AuthorIdentityCache.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    /** Tamaño de cada lote recibido por {@code saveAll}. */
+    private final List<Integer> savedChunks = new ArrayList<>();
+    private final AtomicLong authorSequence = new AtomicLong(1000);
+    private BookIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.saveAll(any())).thenAnswer(call -> {
+            List<Book> chunk = new ArrayList<>();
+            call.<Iterable<Book>>getArgument(0).forEach(chunk::add);
+            savedChunks.add(chunk.size());
+            return chunk;
+        });
+        when(identityCache.findOrCreateId(any())).thenAnswer(call -> authorSequence.incrementAndGet());
+        when(authorRepository.getReferenceById(anyLong())).thenAnswer(call -> {
+            Author author = new Author();
+            author.setId(call.getArgument(0));
+            return author;
+        });
+        service = new BookIngestService(bookRepository, authorRepository, identityCache,
+                mock(TermDictionary.class), mock(TermDictionary.class), entityManager, eventPublisher, BATCH_SIZE);
+    }
+
+    @Test
+    void resolvesBooksAndAuthorsWithOneQueryPerChunk() {
+        // 2 500 libros, los primeros 1 000 ya guardados, y un repetido en la entrada
+        List<BookDTO> books = new ArrayList<>(LongStream.rangeClosed(1, 2_500).mapToObj(id -> book(id, id / 10)).toList());
+        books.add(book(2_000, 200));
+        when(bookRepository.findExistingIds(any())).thenAnswer(call -> call.<Collection<Long>>getArgument(0).stream()
+                .filter(id -> id <= 1_000)
+                .toList());
+
+        int saved = service.saveAllIfNotExists(books);
+
+        assertEquals(1_500, saved);
+        // una consulta de existencia por cada 1 000 ids, sin existsById libro por libro
+        verify(bookRepository, times(3)).findExistingIds(any());
+        verify(bookRepository, never()).existsById(any());
+        // un lote de escritura y una consulta de autores por cada 50 libros nuevos
+        assertEquals(30, savedChunks.size());
+        assertTrue(savedChunks.stream().allMatch(size -> size == BATCH_SIZE), "lotes: " + savedChunks);
+        verify(authorRepository, times(30)).findIdentitiesByNameIn(any());
+        verify(authorRepository, never()).findByNameAndBirthYearAndDeathYear(any(), any(), any());
+        verify(entityManager, times(30)).clear();
+
+        ArgumentCaptor<BooksSavedEvent> event = ArgumentCaptor.forClass(BooksSavedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1_500, event.getValue().books().size());
+        assertTrue(event.getValue().books().stream()
+                .allMatch(book -> book.authors().get(0).id() != null), "autores sin id en el evento");
+    }
+
+    @Test
+    void reusesKnownAuthorsAndCreatesOnlyTheMissingOnes() {
+        AuthorDTO cached = new AuthorDTO(null, "Austen, Jane", 1775, 1817);
+        AuthorDTO stored = new AuthorDTO(null, "Cervantes Saavedra, Miguel de", 1547, 1616);
+        AuthorDTO missing = new AuthorDTO(null, "Borges, Jorge Luis", 1899, 1986);
+        when(identityCache.get(AuthorKey.of(cached))).thenReturn(7L);
+        when(authorRepository.findIdentitiesByNameIn(any())).thenReturn(List.of(
+                view(8L, stored),
+                // mismo nombre con otros años: es otro autor
+                view(9L, new AuthorDTO(null, stored.name(), null, null))));
+
+        service.resolveAuthors(List.of(cached, stored, missing, stored));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> names = ArgumentCaptor.forClass(Collection.class);
+        verify(authorRepository).findIdentitiesByNameIn(names.capture());
+        assertEquals(Set.of(stored.name(), missing.name()), Set.copyOf(names.getValue()));
+        verify(identityCache).findOrCreateId(missing);
+        verify(identityCache, times(1)).findOrCreateId(any());
+        verify(authorRepository).getReferenceById(7L);
+        verify(authorRepository).getReferenceById(8L);
+        verify(authorRepository, never()).getReferenceById(9L);
+    }
+
+    @Test
+    void writesNothingWhenEveryBookAlreadyExists() {
+        when(bookRepository.findExistingIds(any())).thenAnswer(call -> List.copyOf(call.getArgument(0)));
+
+        int saved = service.saveAllIfNotExists(List.of(book(1, 1), book(2, 1)));
+
+        assertEquals(0, saved);
+        verify(bookRepository, never()).saveAll(any());
+        verify(authorRepository, never()).findIdentitiesByNameIn(any());
+        verify(eventPublisher, never()).publishEvent(any(BooksSavedEvent.class));
+    }
+
+    private static BookDTO book(long id, long author) {
+        return new BookDTO(id, "Libro " + id, List.of(),
+                List.of(new AuthorDTO(null, "Apellido " + author + ", Nombre", 1800, 1870)),
+                List.of("Fiction"), List.of("es"), 0);
+    }
+
+    private static AuthorIdentityView view(long id, AuthorDTO author) {
+        return new AuthorIdentityView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return author.name();
+            }
+
+            @Override
+            public Integer getBirthYear() {
+                return author.birthYear();
+            }
+
+            @Override
+            public Integer getDeathYear() {
+                return author.deathYear();
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.dto.AuthorDTO;
+import com.gabeust.literalura.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookPrinterServiceTests {
+
+    private static final String NL = System.lineSeparator();
+    private static final String BOOK_SEPARATOR = "=".repeat(60);
+    private static final String AUTHOR_SEPARATOR = "-".repeat(50);
+
+    /** Writer que cuenta los vaciados, para comprobar que cada impresión escribe una sola vez. */
+    private static final class CountingWriter extends StringWriter {
+        int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+            super.flush();
+        }
+
+        String take() {
+            String text = toString();
+            getBuffer().setLength(0);
+            return text;
+        }
+    }
+
+    private final CountingWriter out = new CountingWriter();
+    private final BookPrinterService printer = new BookPrinterService(out);
+
+    @Test
+    void printsEveryFieldOfABook() {
+        printer.printBooks(List.of(new BookDTO(1342L, "Pride and Prejudice",
+                List.of("Una novela de costumbres.", "Segundo resumen."),
+                List.of(new AuthorDTO(1L, "Austen, Jane", 1775, 1817), new AuthorDTO(2L, "Otro, Autor", null, null)),
+                List.of("England -- Fiction", "Courtship -- Fiction"), List.of("en", "es"), 75_000)));
+
+        assertEquals(BOOK_SEPARATOR + NL
+                + "📖 Título: Pride and Prejudice" + NL
+                + "✍️ Autor(es): Austen, Jane, Otro, Autor" + NL
+                + "📝 Resumen(es):" + NL
+                + "   Una novela de costumbres." + NL
+                + "   Segundo resumen." + NL
+                + "📚 Temas: England -- Fiction, Courtship -- Fiction" + NL
+                + "🗣 Idiomas: en, es" + NL
+                + "⬇️ Descargas: 75000" + NL, out.take());
+        assertEquals(1, out.flushes);
+    }
+
+    @Test
+    void printsUnknownDownloadsAndEmptyLists() {
+        printer.printBooks(List.of(new BookDTO(7L, "Sin datos", List.of(), List.of(), List.of(), List.of(), null)));
+
+        assertEquals(BOOK_SEPARATOR + NL
+                + "📖 Título: Sin datos" + NL
+                + "✍️ Autor(es): " + NL
+                + "📝 Resumen(es):" + NL
+                + "📚 Temas: " + NL
+                + "🗣 Idiomas: " + NL
+                + "⬇️ Descargas: Desconocido" + NL, out.take());
+
+        printer.printBooks(List.of());
+        assertEquals("📚 No se encontraron libros." + NL, out.take());
+        printer.printBooks(null);
+        assertEquals("📚 No se encontraron libros." + NL, out.take());
+    }
+
+    @Test
+    void printsAuthorsWithUnknownYears() {
+        printer.printAuthors(List.of(new AuthorDTO(1L, "Austen, Jane", 1775, 1817), new AuthorDTO(2L, "Anónimo", null, null)));
+
+        assertEquals(BOOK_SEPARATOR + NL
+                + "👤 Nombre: Austen, Jane" + NL
+                + "📅 Año de nacimiento: 1775" + NL
+                + "🪦 Año de fallecimiento: 1817" + NL
+                + AUTHOR_SEPARATOR + NL
+                + BOOK_SEPARATOR + NL
+                + "👤 Nombre: Anónimo" + NL
+                + "📅 Año de nacimiento: Desconocido" + NL
+                + "🪦 Año de fallecimiento: Desconocido" + NL
+                + AUTHOR_SEPARATOR + NL, out.take());
+
+        printer.printAuthor(new AuthorDTO(3L, "Cervantes, Miguel de", 1547, null));
+        assertEquals("👤 Nombre: Cervantes, Miguel de" + NL
+                + "📅 Año de nacimiento: 1547" + NL
+                + "🪦 Año de fallecimiento: Desconocido" + NL
+                + AUTHOR_SEPARATOR + NL, out.take());
+
+        printer.printAuthors(List.of());
+        assertEquals("✍️ No se encontraron autores." + NL, out.take());
+        assertEquals(3, out.flushes);
+    }
+
+    @Test
+    void printsThePageFooterWithTheAvailableMoves() {
+        printer.printPage(List.of(), 1, false, false);
+        assertEquals("📚 No se encontraron libros." + NL + NL + "📄 Página 1 — [q] volver al menú: ", out.take());
+
+        printer.printPage(List.of(new BookDTO(1L, "Emma", List.of(), List.of(), List.of(), List.of("en"), 10)), 3, true, true);
+        String page = out.take();
+        assertTrue(page.startsWith(BOOK_SEPARATOR + NL + "📖 Título: Emma" + NL));
+        assertTrue(page.endsWith("⬇️ Descargas: 10" + NL + NL
+                + "📄 Página 3 — [Enter] siguiente  [p] anterior  [q] volver al menú: "));
+
+        printer.printPage(List.of(), 4, true, false);
+        assertTrue(out.take().endsWith("📄 Página 4 — [p] anterior  [q] volver al menú: "));
+        assertEquals(3, out.flushes);
+    }
+
+    @Test
+    void startsEachCallFromAnEmptyBufferAfterALargeListing() {
+        // un listado de más de 256 KiB hace que el buffer se recorte después de escribirlo
+        List<BookDTO> many = LongStream.range(0, 2_000)
+                .mapToObj(id -> new BookDTO(id, "Libro " + id, List.of("x".repeat(100)), List.of(), List.of(), List.of("en"), 1))
+                .toList();
+        printer.printBooks(many);
+        String listing = out.take();
+        assertEquals(2_000, listing.split(BOOK_SEPARATOR, -1).length - 1);
+
+        printer.printBooks(List.of());
+        assertEquals("📚 No se encontraron libros." + NL, out.take());
+        assertEquals(2, out.flushes);
+    }
+}
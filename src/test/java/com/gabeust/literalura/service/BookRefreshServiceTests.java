@@ -0,0 +1,196 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.client.GutendexUnavailableException;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.repository.BookRefreshView;
+import com.gabeust.literalura.repository.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookRefreshServiceTests {
+
+    private static final int BATCH_SIZE = 3;
+    private static final Duration MAX_AGE = Duration.ofDays(7);
+    private static final String UPDATE_BOOKS = "UPDATE books SET title = ?, title_key = ?, download_count = ? WHERE id = ?";
+    private static final String UPDATE_REFRESHED_AT = "UPDATE books SET last_refreshed_at = ? WHERE id = ?";
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final ApiConsumer apiConsumer = mock(ApiConsumer.class);
+    private final BookService bookService = mock(BookService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /** Sentencias preparadas por cada {@code batchUpdate}, una por fila. */
+    private final Map<String, List<PreparedStatement>> statements = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(call -> {
+                    ParameterizedPreparedStatementSetter<Object> setter = call.getArgument(3);
+                    List<PreparedStatement> prepared = new ArrayList<>();
+                    for (Object row : call.<Collection<?>>getArgument(1)) {
+                        PreparedStatement ps = mock(PreparedStatement.class);
+                        setter.setValues(ps, row);
+                        prepared.add(ps);
+                    }
+                    statements.put(call.getArgument(0), prepared);
+                    return new int[0][];
+                });
+    }
+
+    @Test
+    void writesOnlyChangedBooksAndRenewsTheWholeBatch() throws Exception {
+        Instant start = Instant.now();
+        when(bookRepository.findIdsRefreshedBefore(any(), any())).thenReturn(List.of(1L, 2L, 3L));
+        when(apiConsumer.searchByIds(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                book(1, "Emma", 50),
+                // importado del catálogo CSV sin descargas: ahora se conocen
+                book(2, "Persuasión", 700)));
+        when(bookRepository.findRefreshViews(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                stored(1, "Emma", 50), stored(2, "Persuasión", null), stored(3, "Retirado", 10)));
+        List<BookDTO> reloaded = List.of(book(2, "Persuasión", 700));
+        when(bookService.findStoredByIds(List.of(2L))).thenReturn(reloaded);
+
+        BookRefreshService.RefreshReport report = service(1).refreshBatch();
+
+        assertEquals(new BookRefreshService.RefreshReport(3, 1, 1), report);
+
+        // los más antiguos primero, con el corte en max-age y el tamaño del lote
+        ArgumentCaptor<Instant> before = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Limit> limit = ArgumentCaptor.forClass(Limit.class);
+        verify(bookRepository).findIdsRefreshedBefore(before.capture(), limit.capture());
+        assertFalse(before.getValue().isBefore(start.minus(MAX_AGE)));
+        assertFalse(before.getValue().isAfter(Instant.now().minus(MAX_AGE)));
+        assertEquals(BATCH_SIZE, limit.getValue().max());
+
+        // solo el libro modificado se reescribe, con su clave de título
+        PreparedStatement changed = statements.get(UPDATE_BOOKS).get(0);
+        assertEquals(1, statements.get(UPDATE_BOOKS).size());
+        verify(changed).setString(1, "Persuasión");
+        verify(changed).setString(2, "persuasion");
+        verify(changed).setObject(3, 700, Types.INTEGER);
+        verify(changed).setLong(4, 2L);
+
+        // los tres, incluido el ausente, quedan marcados con la misma fecha
+        List<PreparedStatement> renewed = statements.get(UPDATE_REFRESHED_AT);
+        assertEquals(3, renewed.size());
+        for (int i = 0; i < renewed.size(); i++) {
+            ArgumentCaptor<Timestamp> refreshedAt = ArgumentCaptor.forClass(Timestamp.class);
+            verify(renewed.get(i)).setTimestamp(eq(1), refreshedAt.capture());
+            assertEquals(before.getValue().plus(MAX_AGE), refreshedAt.getValue().toInstant());
+            verify(renewed.get(i)).setLong(2, i + 1L);
+        }
+
+        // los índices reciben el libro recargado de la base
+        verify(eventPublisher).publishEvent(new BooksSavedEvent(reloaded));
+        assertEquals(1.0, meterRegistry.counter("literalura.refresh.books", "result", "changed").count());
+        assertEquals(1.0, meterRegistry.counter("literalura.refresh.books", "result", "unchanged").count());
+        assertEquals(1.0, meterRegistry.counter("literalura.refresh.books", "result", "missing").count());
+    }
+
+    @Test
+    void renewsUnchangedBooksWithoutRepublishingThem() throws Exception {
+        when(bookRepository.findIdsRefreshedBefore(any(), any())).thenReturn(List.of(1L));
+        when(apiConsumer.searchByIds(List.of(1L))).thenReturn(List.of(book(1, "Emma", 50)));
+        when(bookRepository.findRefreshViews(List.of(1L))).thenReturn(List.of(stored(1, "Emma", 50)));
+
+        assertEquals(new BookRefreshService.RefreshReport(1, 0, 0), service(1).refreshBatch());
+
+        assertFalse(statements.containsKey(UPDATE_BOOKS));
+        assertEquals(1, statements.get(UPDATE_REFRESHED_AT).size());
+        verify(bookService, never()).findStoredByIds(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void doesNothingWhenNoBookIsStale() throws Exception {
+        when(bookRepository.findIdsRefreshedBefore(any(), any())).thenReturn(List.of());
+
+        assertEquals(new BookRefreshService.RefreshReport(0, 0, 0), service(1).refreshBatch());
+
+        verify(apiConsumer, never()).searchByIds(any());
+        assertTrue(statements.isEmpty());
+    }
+
+    @Test
+    void keepsTakingBatchesWhileTheyComeFullAndStopsWhenGutendexIsUnavailable() throws Exception {
+        List<Long> full = LongStream.rangeClosed(1, BATCH_SIZE).boxed().toList();
+        when(bookRepository.findIdsRefreshedBefore(any(), any())).thenReturn(full, full, List.of(9L), full);
+        when(apiConsumer.searchByIds(any())).thenReturn(List.of());
+        when(bookRepository.findRefreshViews(any())).thenReturn(List.of());
+
+        // el tercer lote viene incompleto: no quedan más vencidos en este ciclo
+        service(5).refreshStale();
+        verify(apiConsumer, times(3)).searchByIds(any());
+
+        when(apiConsumer.searchByIds(any())).thenThrow(new GutendexUnavailableException("circuito abierto", null));
+        service(5).refreshStale();
+        verify(apiConsumer, times(4)).searchByIds(any());
+    }
+
+    private BookRefreshService service(int batchesPerRun) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new BookRefreshService(bookRepository, apiConsumer, bookService, jdbcTemplate, transactionManager,
+                eventPublisher, meterRegistry, BATCH_SIZE, batchesPerRun, MAX_AGE);
+    }
+
+    private static BookRefreshView stored(long id, String title, Integer downloads) {
+        return new BookRefreshView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public Integer getDownloadCount() {
+                return downloads;
+            }
+        };
+    }
+
+    private static BookDTO book(long id, String title, Integer downloads) {
+        return new BookDTO(id, title, List.of(), List.of(), List.of(), List.of("en"), downloads);
+    }
+}
@@ -0,0 +1,169 @@
+package com.gabeust.literalura.service;
+
+import com.gabeust.literalura.ApiConsumer;
+import com.gabeust.literalura.client.GutendexUnavailableException;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.index.BookSearchIndex;
+import com.gabeust.literalura.index.CatalogIndexer;
+import com.gabeust.literalura.index.CatalogSnapshotStore;
+import com.gabeust.literalura.index.DownloadLeaderboard;
+import com.gabeust.literalura.index.FacetIndex;
+import com.gabeust.literalura.index.TitleKeyIndex;
+import com.gabeust.literalura.model.Book;
+import com.gabeust.literalura.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookServiceTests {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final ApiConsumer apiConsumer = mock(ApiConsumer.class);
+    private final BookIngestService ingestService = mock(BookIngestService.class);
+    private final CatalogIndexer catalogIndexer = mock(CatalogIndexer.class);
+    private final CatalogSnapshotStore snapshotStore = mock(CatalogSnapshotStore.class);
+    private final DownloadLeaderboard leaderboard = new DownloadLeaderboard(100);
+    private final TitleKeyIndex titleKeyIndex = new TitleKeyIndex();
+    private final FacetIndex facetIndex = new FacetIndex();
+    private final ExecutorService lookupExecutor = Executors.newFixedThreadPool(2);
+    private BookService service;
+
+    @BeforeEach
+    void setUp() {
+        when(catalogIndexer.isReady()).thenReturn(true);
+        when(snapshotStore.current()).thenReturn(Optional.empty());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new BookService(bookRepository, apiConsumer, ingestService, new BookSearchIndex(), titleKeyIndex,
+                leaderboard, facetIndex, catalogIndexer, snapshotStore, transactionManager, lookupExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    @Test
+    void asksGutendexForTheTopUntilImportedBooksHaveRealDownloads() throws Exception {
+        // recién importados del catálogo CSV: sin descargas conocidas
+        leaderboard.index(LongStream.rangeClosed(1, 40).mapToObj(id -> book(id, "Libro " + id, null)).toList());
+        List<BookDTO> fromApi = List.of(book(100, "Remoto", 90_000));
+        when(apiConsumer.getTopDownloadedBooks(10)).thenReturn(fromApi);
+
+        assertEquals(fromApi, service.findTopDownloadedBooks(10));
+        verify(ingestService).saveAllIfNotExists(fromApi);
+
+        // la actualización periódica publica las cifras reales de doce de ellos
+        leaderboard.index(LongStream.rangeClosed(1, 12).mapToObj(id -> book(id, "Libro " + id, (int) id * 100)).toList());
+
+        List<BookDTO> local = service.findTopDownloadedBooks(10);
+        assertEquals(List.of(12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L), local.stream().map(BookDTO::id).toList());
+        verify(apiConsumer, times(1)).getTopDownloadedBooks(anyInt());
+        verify(bookRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void answersALanguageFromItsOwnRanking() throws Exception {
+        // los libros en inglés encabezan el ranking global; los en español quedan detrás
+        leaderboard.index(LongStream.rangeClosed(1, 100).mapToObj(id -> book(id, "Libro " + id, 10_000 + (int) id)).toList());
+        leaderboard.index(LongStream.rangeClosed(101, 140)
+                .mapToObj(id -> book(id, "Libro " + id, (int) id, "es")).toList());
+
+        List<BookDTO> books = service.findByLanguage("es");
+
+        assertEquals(LongStream.iterate(140, id -> id - 1).limit(BookService.LOCAL_FALLBACK_LIMIT).boxed().toList(),
+                books.stream().map(BookDTO::id).toList());
+        verify(apiConsumer, never()).searchByLanguage(any());
+    }
+
+    @Test
+    void asksGutendexForALanguageWithoutEnoughRankedBooks() throws Exception {
+        leaderboard.index(LongStream.rangeClosed(1, 10).mapToObj(id -> book(id, "Libro " + id, 5, "es")).toList());
+        List<BookDTO> fromApi = List.of(book(500, "Remoto", 70, "es"));
+        when(apiConsumer.searchByLanguage("es")).thenReturn(fromApi);
+
+        assertEquals(fromApi, service.findByLanguage("es"));
+    }
+
+    @Test
+    void findsAStoredTitleLocallyDespiteAccentsAndPunctuation() throws Exception {
+        titleKeyIndex.index(List.of(book(1, "Don Quijote", 300), book(2, "DON QUIJOTE!", 900), book(3, "Emma", 50)));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(entity(1, "Don Quijote", 300), entity(2, "DON QUIJOTE!", 900)));
+
+        Optional<BookDTO> found = service.findByTitle("Dón Quíjote...");
+
+        // entre los guardados con la misma clave gana el más descargado
+        assertEquals(2L, found.orElseThrow().id());
+        verify(apiConsumer, never()).searchByTitle(any());
+        verify(ingestService, never()).saveAllIfNotExists(any());
+    }
+
+    @Test
+    void fallsThroughToGutendexOnALocalMissAndSavesTheExactMatch() throws Exception {
+        titleKeyIndex.index(List.of(book(3, "Emma", 50)));
+        BookDTO exact = book(10, "Persuasión", 700);
+        when(apiConsumer.searchByTitle("persuasion")).thenReturn(List.of(book(11, "Persuasion and Other Stories", 900), exact));
+
+        assertEquals(Optional.of(exact), service.findByTitle("persuasion"));
+        verify(ingestService).saveAllIfNotExists(List.of(exact));
+        verify(bookRepository, never()).findAllById(any());
+
+        // sin coincidencia exacta en la respuesta no se guarda nada
+        when(apiConsumer.searchByTitle("Sanditon")).thenReturn(List.of(book(12, "Sanditon and Other Stories", 10)));
+        assertEquals(Optional.empty(), service.findByTitle("Sanditon"));
+        verify(ingestService, times(1)).saveAllIfNotExists(any());
+    }
+
+    @Test
+    void readsTheTitleKeyColumnUntilTheIndexesAreLoaded() throws Exception {
+        when(catalogIndexer.isReady()).thenReturn(false);
+        when(bookRepository.findIdsByTitleKey(eq("emma"), any())).thenReturn(List.of(3L));
+        when(bookRepository.findAllById(List.of(3L))).thenReturn(List.of(entity(3, "Emma", 50)));
+
+        assertEquals(3L, service.findByTitle("EMMA").orElseThrow().id());
+        verify(apiConsumer, never()).searchByTitle(any());
+    }
+
+    @Test
+    void answersEmptyWhenGutendexIsUnavailableAfterALocalMiss() throws Exception {
+        when(apiConsumer.searchByTitle(any())).thenThrow(new GutendexUnavailableException("circuito abierto", null));
+
+        assertEquals(Optional.empty(), service.findByTitle("Emma"));
+        verify(ingestService, never()).saveAllIfNotExists(any());
+    }
+
+    private static Book entity(long id, String title, Integer downloads) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setLanguages(List.of("en"));
+        book.setDownloadCount(downloads);
+        return book;
+    }
+
+    private static BookDTO book(long id, String title, Integer downloads) {
+        return book(id, title, downloads, "en");
+    }
+
+    private static BookDTO book(long id, String title, Integer downloads, String language) {
+        return new BookDTO(id, title, List.of(), List.of(), List.of(), List.of(language), downloads);
+    }
+}
@@ -0,0 +1,120 @@
+package com.gabeust.literalura.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TermDictionaryTests {
+
+    private static final String LOAD = "SELECT id, name FROM subjects";
+
+    /** Filas de la tabla simulada, con la unicidad de {@code uk_subjects_name}. */
+    private final Map<Integer, String> rows = new TreeMap<>(Map.of(1, "Fiction", 2, "Poetry"));
+    /** Términos recibidos por cada {@code INSERT IGNORE} por lotes. */
+    private final List<List<String>> inserted = new ArrayList<>();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private TermDictionary dictionary;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws SQLException {
+        doAnswer(call -> {
+            emitRows(call.getArgument(1));
+            return null;
+        }).when(jdbcTemplate).query(eq(LOAD), any(RowCallbackHandler.class));
+        // la relectura por nombre después de insertar devuelve toda la tabla; los demás términos se ignoran
+        doAnswer(call -> {
+            emitRows(call.getArgument(1));
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any())).thenAnswer(call -> {
+            List<String> terms = List.copyOf(call.<Collection<String>>getArgument(1));
+            inserted.add(terms);
+            terms.stream()
+                    .filter(term -> !rows.containsValue(term))
+                    .forEach(term -> rows.put(rows.size() + 1, term));
+            return new int[0][];
+        });
+        when(jdbcTemplate.queryForList(eq("SELECT name FROM subjects WHERE id = ?"), eq(String.class), any()))
+                .thenAnswer(call -> {
+                    String name = rows.get(call.<Integer>getArgument(2));
+                    return name == null ? List.of() : List.of(name);
+                });
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ObjectProvider<PlatformTransactionManager> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(transactionManager);
+        dictionary = new TermDictionary("subjects", jdbcTemplate, provider);
+    }
+
+    @Test
+    void loadsTheTableOnceAndResolvesBothWays() {
+        assertEquals(1, dictionary.idOf("Fiction"));
+        assertEquals("Poetry", dictionary.nameOf(2));
+        // los términos se comparan exactamente
+        assertEquals(TermDictionary.UNKNOWN, dictionary.idOf("fiction"));
+        assertEquals(2, dictionary.size());
+
+        verify(jdbcTemplate, times(1)).query(eq(LOAD), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void insertsOnlyTheMissingTermsInOneBatch() {
+        List<String> terms = new ArrayList<>(List.of("Fiction", "Drama", "Drama", "Horror"));
+        terms.add(null);
+
+        dictionary.ensure(terms);
+        dictionary.ensure(List.of("Drama", "Poetry", "Horror"));
+
+        assertEquals(List.of(List.of("Drama", "Horror")), inserted);
+        assertEquals(3, dictionary.idOf("Drama"));
+        assertEquals(4, dictionary.idOf("Horror"));
+        assertEquals("Drama", dictionary.nameOf(3));
+        assertEquals(4, dictionary.size());
+    }
+
+    @Test
+    void readsTermsInsertedByAnotherInstance() {
+        dictionary.idOf("Fiction");
+        rows.put(3, "Satire");
+
+        assertEquals("Satire", dictionary.nameOf(3));
+        assertEquals(3, dictionary.idOf("Satire"));
+        assertThrows(IllegalStateException.class, () -> dictionary.nameOf(99));
+    }
+
+    private void emitRows(RowCallbackHandler handler) throws SQLException {
+        for (Map.Entry<Integer, String> row : rows.entrySet()) {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getInt("id")).thenReturn(row.getKey());
+            when(resultSet.getString("name")).thenReturn(row.getValue());
+            handler.processRow(resultSet);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.gabeust.literalura.web;
+
+import com.gabeust.literalura.config.WebConfig;
+import com.gabeust.literalura.dto.BookDTO;
+import com.gabeust.literalura.dto.KeysetPageDTO;
+import com.gabeust.literalura.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BookControllerTests {
+
+    private final BookService bookService = mock(BookService.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new BookController(bookService, 100))
+                .addFilters(new WebConfig().etagFilter().getFilter())
+                .build();
+    }
+
+    @Test
+    void answersRepeatedListingsWithNotModified() throws Exception {
+        when(bookService.findPage(any(), anyInt())).thenReturn(page(book(1, "Emma"), book(2, "Persuasion")));
+
+        String etag = mvc.perform(get("/api/books").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[1].title").value("Persuasion"))
+                .andExpect(jsonPath("$.nextCursor").value(2))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(get("/api/books").param("size", "2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void sendsTheNewPageWhenTheListingChanged() throws Exception {
+        when(bookService.findPage(any(), anyInt())).thenReturn(page(book(1, "Emma")));
+        String before = mvc.perform(get("/api/books"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        when(bookService.findPage(any(), anyInt())).thenReturn(page(book(1, "Emma"), book(3, "Sanditon")));
+        String after = mvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[1].title").value("Sanditon"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void clampsThePageSize() throws Exception {
+        when(bookService.findPage(any(), anyInt())).thenReturn(page());
+
+        mvc.perform(get("/api/books").param("after", "10").param("size", "5000")).andExpect(status().isOk());
+        mvc.perform(get("/api/books").param("size", "0")).andExpect(status().isOk());
+
+        verify(bookService).findPage(10L, 100);
+        verify(bookService).findPage(null, 1);
+    }
+
+    private static KeysetPageDTO<BookDTO> page(BookDTO... books) {
+        List<BookDTO> items = List.of(books);
+        return new KeysetPageDTO<>(items, items.isEmpty() ? null : items.get(items.size() - 1).id());
+    }
+
+    private static BookDTO book(long id, String title) {
+        return new BookDTO(id, title, List.of(), List.of(), List.of(), List.of("en"), 0);
+    }
+}